@@ -0,0 +1,75 @@
+package com.auto.tests.bench;
+
+import com.auto.tests.support.StreamingArrayAssert;
+import io.restassured.path.json.JsonPath;
+import org.hamcrest.Matcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.instanceOf;
+
+/**
+ * Проверка ответа findByStatus на клиенте: json-path + Hamcrest (как в исходных тестах) против потоковой проверки.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FindByStatusBenchmark {
+
+    @Param({"100", "10000"})
+    public int pets;
+
+    private byte[] body;
+    private String text;
+    private List<String> statuses;
+    private final Matcher<Iterable<? extends String>> everyAvailable = everyItem(equalTo("available"));
+
+    @Setup
+    public void setUp() {
+        body = Payloads.findByStatusResponse(pets);
+        text = new String(body, StandardCharsets.UTF_8);
+        statuses = JsonPath.from(text).getList("status", String.class);
+    }
+
+    @Benchmark
+    public List<String> jsonPathExtraction() {
+        return JsonPath.from(text).getList("status", String.class);
+    }
+
+    @Benchmark
+    public boolean hamcrestEveryItem() {
+        return everyAvailable.matches(statuses);
+    }
+
+    @Benchmark
+    public boolean jsonPathWithHamcrest() {
+        return everyAvailable.matches(JsonPath.from(text).getList("status", String.class));
+    }
+
+    @Benchmark
+    public long streamingAssert() {
+        return StreamingArrayAssert.eachElement()
+                .field("id", instanceOf(Number.class))
+                .field("status", equalTo("available"))
+                .verify(new ByteArrayInputStream(body));
+    }
+}
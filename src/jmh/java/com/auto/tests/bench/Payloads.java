@@ -0,0 +1,37 @@
+package com.auto.tests.bench;
+
+import com.auto.tests.json.JsonWriter;
+import com.auto.tests.model.Category;
+import com.auto.tests.model.Pet;
+import com.auto.tests.model.Tag;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Тестовые данные для бенчмарков: ответ findByStatus заданного размера в том виде, в каком его отдает Petstore.
+ */
+final class Payloads {
+
+    private Payloads() {
+    }
+
+    static List<Pet> pets(int count) {
+        List<Pet> pets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            pets.add(Pet.builder()
+                    .id(1_000_000_000_000L + i)
+                    .category(new Category(1L, "dogs"))
+                    .name("pet-" + i)
+                    .photoUrls(List.of("https://example.ru/photo/" + i + ".png"))
+                    .tags(List.of(new Tag((long) i, "tag-" + i)))
+                    .status("available")
+                    .build());
+        }
+        return pets;
+    }
+
+    static byte[] findByStatusResponse(int count) {
+        return JsonWriter.toBytes(pets(count));
+    }
+}
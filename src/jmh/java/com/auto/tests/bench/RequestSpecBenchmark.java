@@ -0,0 +1,55 @@
+package com.auto.tests.bench;
+
+import com.auto.tests.model.Pet;
+import io.restassured.specification.RequestSpecification;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Стоимость построения запроса на клиенте: спецификация RestAssured и тело JSON до отправки.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestSpecBenchmark {
+
+    private final Pet pet = Pet.builder().id(123450L).name("Igor").status("available").build();
+
+    @Benchmark
+    public RequestSpecification givenWithStringBody() {
+        return given()
+                .header("Content-Type", "application/json")
+                .body("{ \"id\": " + 123450L + ", \"name\": \"Igor\", \"status\": \"available\" }");
+    }
+
+    @Benchmark
+    public RequestSpecification givenWithModelBody() {
+        return given()
+                .header("Content-Type", "application/json")
+                .body(pet.toJson());
+    }
+
+    @Benchmark
+    public String stringConcatenationBody() {
+        return "{ \"id\": " + 123450L + ", \"name\": \"Igor\", \"status\": \"available\" }";
+    }
+
+    @Benchmark
+    public byte[] jsonWriterBody() {
+        return pet.toJson();
+    }
+}
@@ -0,0 +1,64 @@
+package com.auto.tests.bench;
+
+import com.auto.tests.BaseClass;
+import com.auto.tests.model.Pet;
+import io.restassured.response.Response;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * Полный цикл запроса через конфигурацию BaseClass (фильтры, HTTP-клиент) против встроенного стенда:
+ * сравнение с RequestSpecBenchmark показывает, сколько времени уходит на клиент, а сколько на сервер.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dpetstore.target=local")
+public class RoundTripBenchmark {
+
+    private static final long PET_ID = 123450L;
+
+    @Setup
+    public void setUp() {
+        BaseClass.globalSetup();
+        given()
+                .header("Content-Type", "application/json")
+                .body(Pet.builder().id(PET_ID).name("Igor").status("available").build().toJson())
+                .when()
+                .post("/pet")
+                .then()
+                .statusCode(200);
+    }
+
+    @Benchmark
+    public Response getPet() {
+        return given()
+                .when()
+                .get("/pet/{petId}", PET_ID);
+    }
+
+    @Benchmark
+    public void getPetWithAssertions() {
+        given()
+                .when()
+                .get("/pet/{petId}", PET_ID)
+                .then()
+                .statusCode(200)
+                .body("id", equalTo((int) PET_ID));
+    }
+}
@@ -1,12 +1,73 @@
 package com.auto.tests;
 
+import com.auto.tests.jfr.JfrExtension;
+import com.auto.tests.jfr.JfrFilter;
+import com.auto.tests.metrics.ConnectionReleaseFilter;
+import com.auto.tests.metrics.LatencyFilter;
+import com.auto.tests.metrics.TimedHttpClientFactory;
+import com.auto.tests.ratelimit.RateLimitFilter;
+import com.auto.tests.replay.CassetteFilter;
+import com.auto.tests.schedule.ScheduleExtension;
+import com.auto.tests.session.LogoutFilter;
+import com.auto.tests.stub.PetstoreStub;
 import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.specification.RequestSpecification;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.extension.ExtendWith;
 
+import static io.restassured.config.HttpClientConfig.httpClientConfig;
+
+// JfrExtension пишет событие JFR на каждый тестовый метод, JfrFilter - на каждый HTTP-запрос;
+// ScheduleExtension пропускает шаги с упавшими @DependsOn и в режиме fail-fast
+@ExtendWith({JfrExtension.class, ScheduleExtension.class})
 public abstract class BaseClass {
 
+    // "local" - встроенный стенд (по умолчанию), любое другое значение - URL реального сервиса,
+    // например -Ppetstore.target=https://petstore.swagger.io/v2
+    public static final String TARGET = System.getProperty("petstore.target", "local");
+
+    // -Ppetstore.cassette=record пишет обмены в кассету (-Ppetstore.cassette.file), replay отвечает из нее без сети
+    public static final CassetteFilter.Mode CASSETTE = CassetteFilter.Mode.current();
+
+    private static boolean configured;
+    private static RequestSpecification spec;
+
     @BeforeAll
-    public static void globalSetup() {
-        RestAssured.baseURI = "https://petstore.swagger.io/v2";
+    public static synchronized void globalSetup() {
+        if (configured) {
+            return;
+        }
+        if (CASSETTE == CassetteFilter.Mode.REPLAY) {
+            RestAssured.baseURI = "local".equals(TARGET) ? "http://localhost/v2" : TARGET;
+        } else {
+            RestAssured.baseURI = "local".equals(TARGET) ? PetstoreStub.shared().baseUri() : TARGET;
+        }
+        RestAssured.config = RestAssured.config()
+                .httpClient(httpClientConfig().httpClientFactory(new TimedHttpClientFactory()));
+        spec = new RequestSpecBuilder()
+                .setBaseUri(RestAssured.baseURI)
+                .setConfig(RestAssured.config)
+                .build();
+        RestAssured.requestSpecification = spec;
+        // ожидание лимита частоты не попадает в задержки эндпоинтов, в режиме replay сети нет и ждать нечего
+        if (CASSETTE != CassetteFilter.Mode.REPLAY) {
+            RestAssured.filters(new RateLimitFilter());
+        }
+        // ответы кассеты в режиме replay - не задержки сервиса: в отчеты задержек не пишем, в JFR помечаем
+        RestAssured.filters(new LatencyFilter(CASSETTE != CassetteFilter.Mode.REPLAY));
+        RestAssured.filters(new LogoutFilter());
+        RestAssured.filters(new JfrFilter(CASSETTE == CassetteFilter.Mode.REPLAY));
+        if (CASSETTE != CassetteFilter.Mode.OFF) {
+            RestAssured.filters(CassetteFilter.create(CASSETTE));
+        }
+        RestAssured.filters(new ConnectionReleaseFilter());
+        configured = true;
+    }
+
+    // Общая спецификация запроса: адрес стенда и клиент с пулом соединений; given() подхватывает ее сам
+    public static RequestSpecification spec() {
+        globalSetup();
+        return spec;
     }
 }
@@ -1,58 +1,48 @@
 package com.auto.tests;
 
+import com.auto.tests.model.Pet;
+import com.auto.tests.schedule.DependsOn;
+import com.auto.tests.schedule.HistoryMethodOrderer;
+import com.auto.tests.steps.PetSteps;
+import com.auto.tests.support.Resources;
+import com.auto.tests.support.Fixtures;
+import com.auto.tests.support.RunIds;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.junit.jupiter.api.parallel.ResourceAccessMode;
+import org.junit.jupiter.api.parallel.ResourceLock;
 
-import static org.awaitility.Awaitility.await;
 import static org.hamcrest.Matchers.*;
-import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
 import static io.restassured.RestAssured.given;
 
-import java.util.concurrent.TimeUnit;
-
-@TestMethodOrder(OrderAnnotation.class)
+@TestMethodOrder(HistoryMethodOrderer.class)
 public class PetTests extends BaseClass {
 
+    private static final long PET_ID = RunIds.nextId();
+
     @Test
     @Order(1)
     @DisplayName("POST /pet — добавление нового питомца")
+    @ResourceLock(Resources.PETS)
     public void testAddNewPet() {
-        String Pet = "{ \"id\": 123450, \"name\": \"Igor\", \"status\": \"available\" }";
-        given()
-                .header("Content-Type", "application/json")
-                .body(Pet)
-                .when()
-                .post("/pet")
-                .then()
-                .statusCode(200)
-                .body("name", equalTo("Igor"));
+        Fixtures.trackPet(PET_ID);
+        PetSteps.add(Pet.builder().id(PET_ID).name("Igor").status("available").build());
     }
 
     @Test
     @Order(2)
     @DisplayName("GET /pet/{id} — получение существующего питомца по ID")
+    @Execution(ExecutionMode.CONCURRENT)
+    @ResourceLock(value = Resources.PETS, mode = ResourceAccessMode.READ)
     public void testGetExistingPet() {
-        int petId = 123321000;
-        String Pet = "{ \"id\": " + petId + ", \"name\": \"Barbos\", \"status\": \"available\" }";
-
-        given()
-                .header("Content-Type", "application/json")
-                .body(Pet)
-                .when()
-                .post("/pet")
-                .then()
-                .statusCode(200);
-
-        given()
-                .when()
-                .get("/pet/{petId}", petId)
-                .then()
-                .statusCode(200)
-                .body("id", equalTo(petId));
+        PetSteps.get(Fixtures.availablePet().id());
     }
 
     @Test
     @Order(3)
     @DisplayName("GET /pet/{id} — попытка получить несуществующего питомца (Негативный тест)")
+    @Execution(ExecutionMode.CONCURRENT)
     public void testGetNotExistingPet() {
         given()
                 .when()
@@ -64,59 +54,41 @@ public class PetTests extends BaseClass {
     @Test
     @Order(4)
     @DisplayName("PUT /pet — обновление статуса существующего питомца")
+    @ResourceLock(Resources.PETS)
+    @DependsOn("testAddNewPet")
     public void testUpdatePetStatus() {
-        String updatedPet = "{ \"id\": 123450, \"name\": \"Igor\", \"status\": \"sold\" }";
-        given()
-                .header("Content-Type", "application/json")
-                .body(updatedPet)
-                .when()
-                .put("/pet")
-                .then()
-                .statusCode(200)
-                .body("status", equalTo("sold"));
+        PetSteps.update(Pet.builder().id(PET_ID).name("Igor").status("sold").build());
     }
 
     @Test
     @Order(5)
     @DisplayName("POST /pet/{id}/uploadImage — загрузка изображения питомца")
+    @DependsOn("testAddNewPet")
     public void testUploadPetImage() {
-        given()
-                .multiPart("file", "test.png")
-                .when()
-                .post("/pet/{petId}/uploadImage", 123450)
-                .then()
-                .statusCode(200);
+        PetSteps.uploadImage(PET_ID);
     }
 
     @Test
     @Order(6)
     @DisplayName("GET /pet/findByStatus?status=available — поиск питомцев статусу")
+    @ResourceLock(value = Resources.PETS, mode = ResourceAccessMode.READ)
     public void testFindPetsByStatus() {
-        given()
-                .queryParam("status", "available")
-                .when()
-                .get("/pet/findByStatus")
-                .then()
-                .statusCode(200)
-                .body("status", everyItem(equalTo("available")));
+        PetSteps.findByStatus("available", equalTo("available"));
     }
 
     @Test
     @Order(7)
     @DisplayName("DELETE /pet/{id} — удаление существующего питомца")
+    @ResourceLock(Resources.PETS)
+    @DependsOn({"testUpdatePetStatus", "testUploadPetImage"})
     public void testDeletePet() {
-        await().atMost(5, TimeUnit.SECONDS).pollInterval(1, TimeUnit.SECONDS).untilAsserted(() -> {
-        given()
-                .when()
-                .delete("/pet/{petId}", 123450)
-                .then()
-                .statusCode(200);
-        });
+        PetSteps.delete(PET_ID);
     }
 
     @Test
     @Order(8)
     @DisplayName("POST /pet/{id} (form-data) — обновление несуществующего питомца (Негативный тест)")
+    @Execution(ExecutionMode.CONCURRENT)
     public void testUpdateNotExistingPetFormData() {
         int petId = 678678210;
 
@@ -135,19 +107,15 @@ public class PetTests extends BaseClass {
     @Test
     @Order(9)
     @DisplayName("GET /pet/findByStatus?status=available,sold — поиск питомцев по нескольким статусам")
+    @ResourceLock(value = Resources.PETS, mode = ResourceAccessMode.READ)
     public void testFindPetsByTwinStatuses() {
-        given()
-                .queryParam("status", "available,sold")
-                .when()
-                .get("/pet/findByStatus")
-                .then()
-                .statusCode(200)
-                .body("status", everyItem(anyOf(equalTo("available"), equalTo("sold"))));
+        PetSteps.findByStatus("available,sold", anyOf(equalTo("available"), equalTo("sold")));
     }
 
     @Test
     @Order(10)
     @DisplayName("DELETE /pet/{id} — попытка удалить несуществующего питомца (Негативный тест)")
+    @Execution(ExecutionMode.CONCURRENT)
     public void testDeleteNotExistingPet() {
         given()
                 .when()
@@ -1,54 +1,62 @@
 package com.auto.tests;
 
-import static org.awaitility.Awaitility.await;
-import java.util.concurrent.TimeUnit;
+import com.auto.tests.schedule.DependsOn;
+import com.auto.tests.schedule.HistoryMethodOrderer;
+import com.auto.tests.steps.StoreSteps;
+import com.auto.tests.support.Resources;
+import com.auto.tests.support.Fixtures;
+import com.auto.tests.support.RunIds;
 import static io.restassured.RestAssured.given;
 import org.junit.jupiter.api.*;
 import static org.hamcrest.Matchers.*;
-import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.junit.jupiter.api.parallel.ResourceAccessMode;
+import org.junit.jupiter.api.parallel.ResourceLock;
 
 
-@TestMethodOrder(OrderAnnotation.class)
+@TestMethodOrder(HistoryMethodOrderer.class)
 public class StoreTests extends BaseClass {
 
+    private static final long ORDER_ID = RunIds.nextId();
+
+    // Полное имя: com.auto.tests.model.Order пересекается с аннотацией JUnit @Order
+    private static com.auto.tests.model.Order.Builder order(long orderId) {
+        Fixtures.trackOrder(orderId);
+        return com.auto.tests.model.Order.builder()
+                .id(orderId)
+                .petId(Fixtures.availablePet().id())
+                .quantity(2)
+                .shipDate("2025-11-08T16:07:21.524Z")
+                .status("placed")
+                .complete(true);
+    }
+
     @Test
     @Order(1)
     @DisplayName("GET /store/inventory - получение текущего инвентаря")
+    @ResourceLock(value = Resources.PETS, mode = ResourceAccessMode.READ)
     public void testInventory() {
-        given()
-                .when()
-                .get("/store/inventory")
-                .then()
-                .statusCode(200)
-                .body("available", greaterThanOrEqualTo(0));
+        StoreSteps.inventory();
     }
 
     @Test
     @Order(2)
     @DisplayName("POST /store/order - создание нового заказа с валидными данными")
     public void testPlaceOrder() {
-        String newOrder = "{ \"id\": 1, \"petId\": 123450, \"quantity\": 2, \"shipDate\": \"2025-11-08T16:07:21.524Z\"," +
-                " \"status\": \"placed\", \"complete\": true }";
-        given()
-                .header("Content-Type", "application/json")
-                .body(newOrder)
-                .when()
-                .post("/store/order")
-                .then()
-                .statusCode(200)
-                .body("status", equalTo("placed"));
+        StoreSteps.place(order(ORDER_ID).build());
     }
 
     // Краш, принимается любой status (в том числе числовое значение), ожидание - код 400, фактически - код 200.
     @Test
     @Order(3)
     @DisplayName("POST /store/order - невалидный статус 'invalid' (Негативный тест, фактический результат не соответствует ожидаемому)")
+    @Execution(ExecutionMode.CONCURRENT)
     public void testPlaceOrderWithInvalidStatus() {
-        String newOrder = "{ \"id\": 200, \"petId\": 123450, \"quantity\": 1, \"shipDate\": \"2025-11-08T16:07:21.524Z\"," +
-                " \"status\": \"invalid\", \"complete\": true }";
+        var newOrder = order(RunIds.nextId()).quantity(1).status("invalid").build();
         given()
                 .header("Content-Type", "application/json")
-                .body(newOrder)
+                .body(newOrder.toJson())
                 .when()
                 .post("/store/order")
                 .then()
@@ -59,12 +67,12 @@ public class StoreTests extends BaseClass {
     @Test
     @Order(4)
     @DisplayName("POST /store/order - заказ с petId = -1 (Негативный тест, фактический результат не соответствует ожидаемому)")
+    @Execution(ExecutionMode.CONCURRENT)
     public void testPlaceInvalidPetIdOrder() {
-        String newOrder = "{ \"id\": 2, \"petId\": -1, \"quantity\": 2, \"shipDate\": \"2025-11-08T16:07:21.524Z\", " +
-                "\"status\": \"placed\", \"complete\": true }";
+        var newOrder = order(RunIds.nextId()).petId(-1L).build();
         given()
                 .header("Content-Type", "application/json")
-                .body(newOrder)
+                .body(newOrder.toJson())
                 .when()
                 .post("/store/order")
                 .then()
@@ -74,8 +82,9 @@ public class StoreTests extends BaseClass {
     @Test
     @Order(5)
     @DisplayName("POST /store/order - некорректный JSON (Негативный тест)")
+    @Execution(ExecutionMode.CONCURRENT)
     public void testPlaceInvalidOrder() {
-        String newOrder = "{ \"id\": 2, \"petId\": 123450, \"quantity\": 2, \"shipDate\": , \"status\": \"placed\", \"complete\": true }";
+        String newOrder = "{ \"id\": " + RunIds.nextId() + ", \"petId\": " + Fixtures.availablePet().id() + ", \"quantity\": 2, \"shipDate\": , \"status\": \"placed\", \"complete\": true }";
         given()
                 .header("Content-Type", "application/json")
                 .body(newOrder)
@@ -84,26 +93,19 @@ public class StoreTests extends BaseClass {
                 .then()
                 .statusCode(400);
     }
-    // Вынуждено добавлен повтор попытки и таймаут, в первую попытку сервер почти всегда возвращает 404, со второй - находит существующий заказ
+    // Вынуждено добавлен повтор попытки и таймаут (StoreSteps.get), в первую попытку сервер почти всегда возвращает 404, со второй - находит существующий заказ
     @Test
     @Order(6)
     @DisplayName("GET /store/order/{id} - получение существующего заказа по ID")
+    @DependsOn("testPlaceOrder")
     public void testGetOrderById() {
-        await().atMost(5, TimeUnit.SECONDS)
-                .pollInterval(1, TimeUnit.SECONDS)
-                .untilAsserted(() -> {
-        given()
-                .when()
-                .get("/store/order/{orderId}", 1)
-                .then()
-                .statusCode(200)
-                .body("id", equalTo(1));
-                });
+        StoreSteps.get(ORDER_ID);
     }
 
     @Test
     @Order(7)
     @DisplayName("GET /store/order/{id} - попытка получить несуществующий заказ (Негативный тест)")
+    @Execution(ExecutionMode.CONCURRENT)
     public void testGetNonExistingOrder() {
         given()
                 .when()
@@ -115,6 +117,7 @@ public class StoreTests extends BaseClass {
     @Test
     @Order(8)
     @DisplayName("GET /store/order/{id} - некорректный ID (Негативный тест, строка вместо числа)")
+    @Execution(ExecutionMode.CONCURRENT)
     public void testGetUnCorrectOrder() {
         given()
                 .when()
@@ -126,6 +129,7 @@ public class StoreTests extends BaseClass {
     @Test
     @Order(9)
     @DisplayName("DELETE /store/order/{id} - удаление несуществующего заказа (Негативный тест)")
+    @Execution(ExecutionMode.CONCURRENT)
     public void testDeleteNotFoundOrder() {
         given()
                 .when()
@@ -138,6 +142,7 @@ public class StoreTests extends BaseClass {
     @Test
     @Order(10)
     @DisplayName("DELETE /store/order/{id} - удаление с отрицательным ID (Негативный тест, фактический результат не соответствует ожидаемому)")
+    @Execution(ExecutionMode.CONCURRENT)
     public void testDeleteInvalidOrder() {
         given()
                 .when()
@@ -149,18 +154,9 @@ public class StoreTests extends BaseClass {
     @Test
     @Order(11)
     @DisplayName("DELETE /store/order/{id} - удаление существующего заказа")
+    @DependsOn("testGetOrderById")
     public void testDeleteOrder() {
-
-
-        await().atMost(5, TimeUnit.SECONDS)
-                .pollInterval(1, TimeUnit.SECONDS)
-                .untilAsserted(() -> {
-        given()
-                .when()
-                .delete("/store/order/{orderId}", 1)
-                .then()
-                .statusCode(200);
-                });
+        StoreSteps.delete(ORDER_ID);
     }
 
 }
\ No newline at end of file
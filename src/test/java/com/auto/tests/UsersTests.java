@@ -1,55 +1,74 @@
 package com.auto.tests;
 
+import com.auto.tests.async.FanOut;
+import com.auto.tests.model.User;
+import com.auto.tests.replay.CassetteFilter;
+import com.auto.tests.schedule.DependsOn;
+import com.auto.tests.schedule.HistoryMethodOrderer;
+import com.auto.tests.steps.UserSteps;
+import com.auto.tests.support.Eventually;
+import com.auto.tests.support.Fixtures;
+import com.auto.tests.support.Resources;
+import com.auto.tests.seed.BulkSeeder;
+import com.auto.tests.session.SessionCache;
+import com.auto.tests.support.RunIds;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import static com.auto.tests.async.AsyncResponse.hasFieldEqualToKey;
+import static com.auto.tests.async.AsyncResponse.hasStatus;
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static io.restassured.RestAssured.given;
-import static org.awaitility.Awaitility.await;
-import java.util.concurrent.TimeUnit;
-@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+import java.util.List;
+import java.util.stream.LongStream;
+@TestMethodOrder(HistoryMethodOrderer.class)
 public class UsersTests extends BaseClass {
 
+    private static final long USER_ID = RunIds.nextId();
+    private static final String USERNAME = RunIds.username("andrew");
+
+    private static User.Builder andrew() {
+        return User.builder()
+                .id(USER_ID)
+                .username(USERNAME)
+                .firstName("Andrey")
+                .lastName("Andreev")
+                .email("andrew@example.ru")
+                .password("123321")
+                .phone("123-456-7890")
+                .userStatus(1);
+    }
+
     @Test
     @Order(1)
     @DisplayName("POST /user — создание нового пользователя с валидными данными")
     public void testCreateUser() {
-        String newUser = "{ \"id\": 1, \"username\": \"andrew01\", \"firstName\": \"Andrey\", " +
-                "\"lastName\": \"Andreev\", \"email\": \"andrew@example.ru\", \"password\": \"123321\", " +
-                "\"phone\": \"123-456-7890\", \"userStatus\": 1 }";
-        given()
-                .header("Content-Type", "application/json")
-                .body(newUser)
-                .when()
-                .post("/user")
-                .then()
-                .statusCode(200);
+        Fixtures.trackUser(USERNAME);
+        UserSteps.create(andrew().build());
     }
-    // Вынуждено добавлен повтор попытки и таймаут, в первую попытку сервер почти всегда возвращает 404, со второй - находит существующего пользователя
+    // Вынуждено добавлен повтор попытки и таймаут (UserSteps.get), в первую попытку сервер почти всегда возвращает 404, со второй - находит существующего пользователя
     @Test
     @Order(2)
     @DisplayName("GET /user/{username} — получение существующего пользователя по имени")
+    @DependsOn("testCreateUser")
     public void testGetUserByUsername() {
-        await().atMost(6, TimeUnit.SECONDS).pollInterval(1, TimeUnit.SECONDS).untilAsserted(() -> {
-            given()
-                    .when()
-                    .get("/user/{username}", "andrew01")
-                    .then()
-                    .statusCode(200)
-                    .body("username", equalTo("andrew01"));
-        });
+        UserSteps.get(USERNAME);
     }
 
     //Ошибка, успешная обработка невалидного формата username
     @Test
     @Order(3)
     @DisplayName("POST /user — создание пользователя с невалидным username (Негативный тест, фактический результат не соответствует ожидаемому)")
+    @Execution(ExecutionMode.CONCURRENT)
     public void testCreateUserWithInvalidUsername() {
-        String newUser = "{ \"id\": 342, \"username\": \"\", \"firstName\": \"Igor\", " +
-                "\"lastName\": \"Igorev\", \"email\": \"igor@example.ru\", \"password\": \"123321\", " +
-                "\"phone\": \"123-456-7890\", \"userStatus\": 1 }";
+        User newUser = User.builder().id(RunIds.nextId()).username("").firstName("Igor").lastName("Igorev")
+                .email("igor@example.ru").password("123321").phone("123-456-7890").userStatus(1).build();
 
         given()
                 .header("Content-Type", "application/json")
-                .body(newUser)
+                .body(newUser.toJson())
                 .when()
                 .post("/user")
                 .then()
@@ -59,29 +78,23 @@ public class UsersTests extends BaseClass {
     @Test
     @Order(4)
     @DisplayName("POST /user/createWithArray — создание нескольких пользователей через массив")
+    @Execution(ExecutionMode.CONCURRENT)
     public void testCreateUsersWithArray() {
-        String usersArray = "["
-                + "{ \"id\": 654, \"username\": \"first\", \"firstName\": \"Andrey\", \"lastName\": \"Andreev\", " +
-                "\"email\": \"andrew@example.ru\", \"password\": \"123321\", \"phone\": \"123-456-7890\", " +
-                "\"userStatus\": 1 },"
-                + "{ \"id\": 872, \"username\": \"second\", \"firstName\": \"Petr\", \"lastName\": \"Petrov\", " +
-                "\"email\": \"petrov@example.ru\", \"password\": \"123321\", \"phone\": \"777-544-1233\", " +
-                "\"userStatus\": 2 }"
-                + "]";
+        List<User> usersArray = List.of(
+                User.builder().id(RunIds.nextId()).username(RunIds.username("first")).firstName("Andrey").lastName("Andreev")
+                        .email("andrew@example.ru").password("123321").phone("123-456-7890").userStatus(1).build(),
+                User.builder().id(RunIds.nextId()).username(RunIds.username("second")).firstName("Petr").lastName("Petrov")
+                        .email("petrov@example.ru").password("123321").phone("777-544-1233").userStatus(2).build());
+        usersArray.forEach(user -> Fixtures.trackUser(user.username()));
 
-        given()
-                .header("Content-Type", "application/json")
-                .body(usersArray)
-                .when()
-                .post("/user/createWithArray")
-                .then()
-                .statusCode(200);
+        UserSteps.createWithArray(usersArray);
     }
 
 
     @Test
     @Order(5)
     @DisplayName("GET /user/{username} — попытка получить несуществующего пользователя (Негативный тест)")
+    @Execution(ExecutionMode.CONCURRENT)
     public void testGetNonExistingUser() {
         given()
                 .when()
@@ -94,6 +107,7 @@ public class UsersTests extends BaseClass {
     @Test
     @Order(6)
     @DisplayName("GET /user/{username} — запрос с невалидным именем пользователя (Негативный тест, фактический результат не соответствует ожидаемому)")
+    @Execution(ExecutionMode.CONCURRENT)
     public void testGetInvalidUsername() {
         given()
                 .when()
@@ -105,31 +119,24 @@ public class UsersTests extends BaseClass {
     @Test
     @Order(7)
     @DisplayName("PUT /user/{username} — обновление данных существующего пользователя")
+    @DependsOn("testCreateUser")
     public void testUpdateUser() {
-        String updatedUser = "{ \"id\": 1, \"username\": \"andrew01\", \"firstName\": \"Andreyy\", " +
-                "\"lastName\": \"Andreev\", \"email\": \"andrew@example.ru\", \"password\": \"123abc\", " +
-                "\"phone\": \"123-456-7890\", \"userStatus\": 1 }";
-        given()
-                .header("Content-Type", "application/json")
-                .body(updatedUser)
-                .when()
-                .put("/user/{username}", "andrew01")
-                .then()
-                .statusCode(200);
+        UserSteps.update(USERNAME, andrew().firstName("Andreyy").password("123abc").build());
     }
 
     //Вместо возврата ошибки 404 создается новый пользователь с указанными данными
     @Test
     @Order(8)
     @DisplayName("PUT /user/{username} — обновление несуществующего пользователя (Негативный тест, фактический результат не соответствует ожидаемому)")
+    @Execution(ExecutionMode.CONCURRENT)
     public void testUpdateNonExistingUser() {
-        String updatedUser = "{ \"id\": 1, \"username\": \"nocreated\", \"firstName\": \"Max\", " +
-                "\"lastName\": \"Ivanov\", \"email\": \"ivanov@example.ru\", \"password\": \"98765\"," +
-                " \"phone\": \"123-456-7890\", \"userStatus\": 1 }";
+        User updatedUser = User.builder().id(RunIds.nextId()).username(RunIds.username("nocreated")).firstName("Max")
+                .lastName("Ivanov").email("ivanov@example.ru").password("98765").phone("123-456-7890").userStatus(1).build();
+        Fixtures.trackUser(updatedUser.username());
 
         given()
                 .header("Content-Type", "application/json")
-                .body(updatedUser)
+                .body(updatedUser.toJson())
                 .when()
                 .put("/user/{username}", "user")
                 .then()
@@ -139,6 +146,7 @@ public class UsersTests extends BaseClass {
     @Test
     @Order(9)
     @DisplayName("PUT /user/{username} — обновление с невалидными данными (Негативный тест)")
+    @Execution(ExecutionMode.CONCURRENT)
     public void testUpdateUserWithInvalidData() {
         String invalidUser = "{ \"id\": 1, \"username\": asd23, \"firstName\": \"April\", \"lastName\":  }";
 
@@ -155,6 +163,7 @@ public class UsersTests extends BaseClass {
     @Test
     @Order(10)
     @DisplayName("DELETE /user/{username} — попытка удалить несуществующего пользователя (Негативный тест)")
+    @Execution(ExecutionMode.CONCURRENT)
     public void testDeleteNonExistingUser() {
         given()
                 .when()
@@ -166,6 +175,7 @@ public class UsersTests extends BaseClass {
     @Test
     @Order(11)
     @DisplayName("DELETE /user/{username} — удаление с невалидным именем пользователя (Негативный тест, фактический результат не соответствует ожидаемому)")
+    @Execution(ExecutionMode.CONCURRENT)
     public void testDeleteUserWithInvalidUsername() {
         given()
                 .when()
@@ -177,22 +187,17 @@ public class UsersTests extends BaseClass {
     @Test
     @Order(12)
     @DisplayName("GET /user/login — успешная авторизация пользователя с валидными данными")
+    @ResourceLock(Resources.USER_SESSION)
     public void testLoginUser() {
-        given()
-                .queryParam("username", "andrew02")
-                .queryParam("password", "123abc")
-                .when()
-                .get("/user/login")
-                .then()
-                .statusCode(200)
-                .header("X-Expires-After", notNullValue())
-                .header("X-Rate-Limit", notNullValue());
+        UserSteps.login("andrew02", "123abc");
     }
 
     //сервер не проверяет корректность введенных данных, ожидаем код 400, получен код 200.
     @Test
     @Order(13)
     @DisplayName("GET /user/login — авторизация с некорректными данными (Негативный тест, фактический результат не соответствует ожидаемому)")
+    @Execution(ExecutionMode.CONCURRENT)
+    @ResourceLock(Resources.USER_SESSION)
     public void testLoginUserWithInvalidCredentials() {
         given()
                 .queryParam("username", "andrew02")
@@ -206,17 +211,18 @@ public class UsersTests extends BaseClass {
     @Test
     @Order(14)
     @DisplayName("GET /user/logout — успешный выход пользователя из системы")
+    @ResourceLock(Resources.USER_SESSION)
     public void testLogoutUser() {
-        given()
-                .when()
-                .get("/user/logout")
-                .then()
-                .statusCode(200);
+        UserSteps.logout("andrew02", "123abc");
+
+        // выход сбрасывает закэшированную сессию, следующий запрос войдет заново
+        assertThat(SessionCache.shared().cached("andrew02"), nullValue());
     }
     // пустой массив обрабатывается с кодом 200, вместо 400
     @Order(15)
     @Test
     @DisplayName("POST /user/createWithArray — пустой массив (Негативный тест, фактический результат не соответствует ожидаемому)")
+    @Execution(ExecutionMode.CONCURRENT)
     public void testCreateUsersWithEmptyArray() {
         given()
                 .header("Content-Type", "application/json")
@@ -231,36 +237,39 @@ public class UsersTests extends BaseClass {
     @Order(16)
     @Test
     @DisplayName("POST /user/createWithList — создание пользователей списком")
+    @Execution(ExecutionMode.CONCURRENT)
     public void testCreateUsersList() {
-        String usersList = "[" +
-                "{ \"id\": 10, \"username\": \"list1\", \"firstName\": \"Pavel\", \"lastName\": \"Pavlov\", " +
-                "\"email\": \"pavlov@example.ru\", \"password\": \"pass1\", \"phone\": \"111-111-1111\", \"userStatus\": 1 }," +
-                "{ \"id\": 11, \"username\": \"list2\", \"firstName\": \"Semen\", \"lastName\": \"Semenov\", " +
-                "\"email\": \"semenov@example.ru\", \"password\": \"pass2\", \"phone\": \"222-222-2222\", \"userStatus\": 2 }" +
-                "]";
-        given()
-                .header("Content-Type", "application/json")
-                .body(usersList)
-                .when()
-                .post("/user/createWithList")
-                .then()
-                .statusCode(200);
+        List<User> usersList = List.of(
+                User.builder().id(RunIds.nextId()).username(RunIds.username("list1")).firstName("Pavel").lastName("Pavlov")
+                        .email("pavlov@example.ru").password("pass1").phone("111-111-1111").userStatus(1).build(),
+                User.builder().id(RunIds.nextId()).username(RunIds.username("list2")).firstName("Semen").lastName("Semenov")
+                        .email("semenov@example.ru").password("pass2").phone("222-222-2222").userStatus(2).build());
+        usersList.forEach(user -> Fixtures.trackUser(user.username()));
+        UserSteps.createWithList(usersList);
     }
 
     @Test
     @Order(17)
+    @DisplayName("POST /user/createWithList + GET /user/{username} — каждый созданный пользователь читается обратно")
+    @Execution(ExecutionMode.CONCURRENT)
+    public void testCreatedUsersReadBack() {
+        Assumptions.assumeTrue(CASSETTE == CassetteFilter.Mode.OFF, "веерная рассылка идет мимо кассеты");
+        List<User> users = LongStream.range(0, 200).mapToObj(BulkSeeder::user).toList();
+        users.forEach(user -> Fixtures.trackUser(user.username()));
+        UserSteps.createWithList(users);
+
+        List<String> usernames = users.stream().map(User::username).toList();
+        Eventually.untilAsserted("GET /user/{username} (fan-out)", () -> new FanOut(64)
+                .get("/user/{username}", usernames)
+                .assertEach(allOf(hasStatus(200), hasFieldEqualToKey("username"))));
+    }
+
+    @Test
+    @Order(18)
     @DisplayName("DELETE /user/{username} — удаление существующего пользователя")
+    @DependsOn({"testGetUserByUsername", "testUpdateUser"})
     public void testDeleteUser() {
-
-        await().atMost(5, TimeUnit.SECONDS)
-                .pollInterval(1, TimeUnit.SECONDS)
-                .untilAsserted(() -> {
-        given()
-                .when()
-                .delete("/user/{username}", "andrew01")
-                .then()
-                .statusCode(200);
-                });
+        UserSteps.delete(USERNAME);
     }
 
 }
@@ -0,0 +1,111 @@
+package com.auto.tests.async;
+
+import com.auto.tests.json.Json;
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.TypeSafeDiagnosingMatcher;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ответ одного запроса веерной рассылки: ключ, по которому он отправлен, статус и тело.
+ * Ошибка транспорта хранится в error, статус при этом -1.
+ */
+public record AsyncResponse<K>(K key, int status, byte[] body, Throwable error, long nanos) {
+
+    public String bodyAsString() {
+        return body == null ? "" : new String(body, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Значение по пути через точку ("category.name", "tags.0.id") или null, если тело не JSON или поля нет.
+     */
+    public Object path(String path) {
+        Object value;
+        try {
+            value = Json.parse(bodyAsString());
+        } catch (Json.ParseException e) {
+            return null;
+        }
+        for (String part : path.split("\\.")) {
+            if (value instanceof Map<?, ?> map) {
+                value = map.get(part);
+            } else if (value instanceof List<?> list && part.chars().allMatch(Character::isDigit)
+                    && Integer.parseInt(part) < list.size()) {
+                value = list.get(Integer.parseInt(part));
+            } else {
+                return null;
+            }
+        }
+        return value;
+    }
+
+    public static Matcher<AsyncResponse<?>> hasStatus(int status) {
+        return new TypeSafeDiagnosingMatcher<>() {
+            @Override
+            protected boolean matchesSafely(AsyncResponse<?> response, Description mismatch) {
+                if (response.status() == status) {
+                    return true;
+                }
+                describe(response, mismatch);
+                return false;
+            }
+
+            @Override
+            public void describeTo(Description description) {
+                description.appendText("status ").appendValue(status);
+            }
+        };
+    }
+
+    public static Matcher<AsyncResponse<?>> hasField(String path, Matcher<?> value) {
+        return new TypeSafeDiagnosingMatcher<>() {
+            @Override
+            protected boolean matchesSafely(AsyncResponse<?> response, Description mismatch) {
+                Object actual = response.path(path);
+                if (value.matches(actual)) {
+                    return true;
+                }
+                mismatch.appendText("[" + response.key() + "] " + path + " ");
+                value.describeMismatch(actual, mismatch);
+                return false;
+            }
+
+            @Override
+            public void describeTo(Description description) {
+                description.appendText(path + " ").appendDescriptionOf(value);
+            }
+        };
+    }
+
+    // поле ответа совпадает с ключом запроса, например username в GET /user/{username}
+    public static Matcher<AsyncResponse<?>> hasFieldEqualToKey(String path) {
+        return new TypeSafeDiagnosingMatcher<>() {
+            @Override
+            protected boolean matchesSafely(AsyncResponse<?> response, Description mismatch) {
+                Object actual = response.path(path);
+                if (String.valueOf(response.key()).equals(String.valueOf(actual))) {
+                    return true;
+                }
+                mismatch.appendText("[" + response.key() + "] " + path + " was ").appendValue(actual);
+                return false;
+            }
+
+            @Override
+            public void describeTo(Description description) {
+                description.appendText(path + " equal to request key");
+            }
+        };
+    }
+
+    private static void describe(AsyncResponse<?> response, Description mismatch) {
+        mismatch.appendText("[" + response.key() + "] ");
+        if (response.error() != null) {
+            mismatch.appendText("failed with " + response.error());
+        } else {
+            mismatch.appendText("status " + response.status() + " body " + response.bodyAsString());
+        }
+    }
+}
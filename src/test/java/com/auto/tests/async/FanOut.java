@@ -0,0 +1,101 @@
+package com.auto.tests.async;
+
+import com.auto.tests.BaseClass;
+import com.auto.tests.metrics.LatencyRegistry;
+import com.auto.tests.ratelimit.RateLimitFilter;
+import com.auto.tests.replay.CassetteFilter;
+import io.restassured.RestAssured;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+
+/**
+ * Неблокирующая веерная рассылка запросов на java.net.http.HttpClient для проверок множества сущностей:
+ * запросы уходят параллельно (не больше maxInFlight одновременно), общее время близко к самому медленному вызову.
+ * Адрес берется из настроек RestAssured; фильтры RestAssured (кассета, задержки по фазам, события JFR HttpExchange
+ * и HTTP-время теста) здесь не работают, в отчет о задержках попадает только полное время запроса, а темп по лимитам
+ * сервиса держится вызовами {@link RateLimitFilter} напрямую. При записи и воспроизведении кассеты рассылка падает
+ * с IllegalStateException, тест должен сам пропустить такую проверку. Ответы обрабатывает пул HttpClient по умолчанию.
+ */
+public final class FanOut {
+
+    private static final Duration TIMEOUT = Duration.ofMillis(Long.getLong("petstore.http.socketTimeoutMs", 30_000));
+
+    private static final HttpClient CLIENT = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofMillis(Long.getLong("petstore.http.connectTimeoutMs", 5_000)))
+            .build();
+
+    private final int maxInFlight;
+
+    public FanOut(int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be positive: " + maxInFlight);
+        }
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * GET по шаблону с одним параметром пути, например get("/pet/{petId}", ids).
+     */
+    public <K> FanOutResults<K> get(String pathTemplate, Collection<K> keys) {
+        return send("GET " + pathTemplate, keys, key -> HttpRequest.newBuilder(uri(pathTemplate, key))
+                .header("Accept", "application/json")
+                .GET());
+    }
+
+    public <K> FanOutResults<K> send(String endpoint, Collection<K> keys, Function<K, HttpRequest.Builder> request) {
+        BaseClass.globalSetup();
+        // вызывают не только тесты: в режиме кассеты это ошибка вызывающего, а не пропуск теста
+        if (BaseClass.CASSETTE != CassetteFilter.Mode.OFF) {
+            throw new IllegalStateException("Веерная рассылка идет мимо кассеты, в режиме " + BaseClass.CASSETTE + " она недоступна");
+        }
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        List<CompletableFuture<AsyncResponse<K>>> futures = new ArrayList<>(keys.size());
+        long start = System.nanoTime();
+        for (K key : keys) {
+            RateLimitFilter.acquire(endpoint);
+            inFlight.acquireUninterruptibly();
+            long sent = System.nanoTime();
+            CompletableFuture<HttpResponse<byte[]>> call;
+            try {
+                call = CLIENT.sendAsync(request.apply(key).timeout(TIMEOUT).build(), HttpResponse.BodyHandlers.ofByteArray());
+            } catch (RuntimeException e) {
+                // запрос не собрался или не ушел: разрешение иначе не вернется, и следующие рассылки зависнут
+                inFlight.release();
+                throw e;
+            }
+            futures.add(call.handle((response, error) -> {
+                inFlight.release();
+                long nanos = System.nanoTime() - sent;
+                LatencyRegistry.endpoint(endpoint).record(0, 0, nanos, nanos);
+                if (response == null) {
+                    return new AsyncResponse<>(key, -1, null, error, nanos);
+                }
+                RateLimitFilter.observe(endpoint, response.statusCode(),
+                        name -> response.headers().firstValue(name).orElse(null));
+                return new AsyncResponse<>(key, response.statusCode(), response.body(), null, nanos);
+            }));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        List<AsyncResponse<K>> responses = futures.stream().map(CompletableFuture::join).toList();
+        return new FanOutResults<>(responses, System.nanoTime() - start);
+    }
+
+    private static URI uri(String pathTemplate, Object key) {
+        String path = pathTemplate.replaceFirst("\\{[^}]+}",
+                URLEncoder.encode(String.valueOf(key), StandardCharsets.UTF_8).replace("+", "%20"));
+        return URI.create(RestAssured.baseURI + path);
+    }
+}
@@ -0,0 +1,68 @@
+package com.auto.tests.async;
+
+import com.auto.tests.jfr.AssertionEvent;
+import org.hamcrest.Matcher;
+import org.hamcrest.StringDescription;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Собранные ответы веерной рассылки в порядке ключей. Реализует Iterable, поэтому подходит для
+ * assertThat(results, everyItem(...)), а {@link #assertEach} проверяет все ответы и сообщает все расхождения сразу.
+ */
+public final class FanOutResults<K> implements Iterable<AsyncResponse<K>> {
+
+    private static final int MAX_REPORTED = 10;
+
+    private final List<AsyncResponse<K>> responses;
+    private final long wallNanos;
+
+    FanOutResults(List<AsyncResponse<K>> responses, long wallNanos) {
+        this.responses = responses;
+        this.wallNanos = wallNanos;
+    }
+
+    public int size() {
+        return responses.size();
+    }
+
+    public AsyncResponse<K> get(int index) {
+        return responses.get(index);
+    }
+
+    public long wallMillis() {
+        return wallNanos / 1_000_000;
+    }
+
+    public long slowestMillis() {
+        return responses.stream().mapToLong(AsyncResponse::nanos).max().orElse(0) / 1_000_000;
+    }
+
+    public FanOutResults<K> assertEach(Matcher<? super AsyncResponse<K>> matcher) {
+        AssertionEvent event = AssertionEvent.start("fanOut", StringDescription.toString(matcher));
+        StringBuilder failures = new StringBuilder();
+        int failed = 0;
+        for (AsyncResponse<K> response : responses) {
+            if (!matcher.matches(response)) {
+                if (++failed <= MAX_REPORTED) {
+                    StringDescription mismatch = new StringDescription();
+                    matcher.describeMismatch(response, mismatch);
+                    failures.append("\n  ").append(mismatch);
+                }
+            }
+        }
+        event.finish(responses.size(), failed == 0);
+        if (failed > 0) {
+            throw new AssertionError(failed + " of " + responses.size() + " responses do not match "
+                    + StringDescription.toString(matcher) + ":" + failures
+                    + (failed > MAX_REPORTED ? "\n  ..." : ""));
+        }
+        return this;
+    }
+
+    @Override
+    public Iterator<AsyncResponse<K>> iterator() {
+        return responses.iterator();
+    }
+}
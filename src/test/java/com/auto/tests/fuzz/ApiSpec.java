@@ -0,0 +1,99 @@
+package com.auto.tests.fuzz;
+
+import com.auto.tests.json.Json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Операции из офлайн-копии спецификации Petstore (Swagger 2.0, {@value #RESOURCE}): параметры со схемами,
+ * типы содержимого и документированные коды ответов. Ссылки $ref на definitions раскрываются при чтении.
+ */
+final class ApiSpec {
+
+    static final String RESOURCE = "/openapi/petstore.json";
+
+    /** Параметр операции; для in = body schema - схема тела, для остальных - описание самого параметра. */
+    record Param(String name, String in, boolean required, Map<String, Object> schema) {
+    }
+
+    record Operation(String method, String path, List<String> consumes, List<Param> params, Set<String> responses) {
+
+        String endpoint() {
+            return method + " " + path;
+        }
+
+        boolean multipart() {
+            return consumes.contains("multipart/form-data");
+        }
+    }
+
+    private final Map<?, ?> definitions;
+    private final List<Operation> operations = new ArrayList<>();
+
+    private ApiSpec(Map<?, ?> root) {
+        definitions = (Map<?, ?>) root.get("definitions");
+        ((Map<?, ?>) root.get("paths")).forEach((path, methods) -> ((Map<?, ?>) methods).forEach((method, json) -> {
+            Map<?, ?> operation = (Map<?, ?>) json;
+            List<Param> params = new ArrayList<>();
+            for (Object value : (List<?>) operation.get("parameters")) {
+                Map<String, Object> param = resolve((Map<?, ?>) value);
+                String in = (String) param.get("in");
+                params.add(new Param((String) param.get("name"), in, Boolean.TRUE.equals(param.get("required")),
+                        in.equals("body") ? resolve((Map<?, ?>) param.get("schema")) : param));
+            }
+            List<String> consumes = new ArrayList<>();
+            if (operation.get("consumes") instanceof List<?> types) {
+                types.forEach(type -> consumes.add((String) type));
+            }
+            Set<String> responses = new LinkedHashSet<>();
+            ((Map<?, ?>) operation.get("responses")).keySet().forEach(code -> responses.add((String) code));
+            operations.add(new Operation(((String) method).toUpperCase(Locale.ROOT), (String) path, consumes, params, responses));
+        }));
+    }
+
+    static ApiSpec load() {
+        try (InputStream in = ApiSpec.class.getResourceAsStream(RESOURCE)) {
+            if (in == null) {
+                throw new IllegalStateException("Нет спецификации " + RESOURCE + " в classpath");
+            }
+            return parse(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static ApiSpec parse(String json) {
+        return new ApiSpec((Map<?, ?>) Json.parse(json));
+    }
+
+    List<Operation> operations() {
+        return operations;
+    }
+
+    private Map<String, Object> resolve(Map<?, ?> schema) {
+        if (schema.get("$ref") instanceof String ref) {
+            return resolve((Map<?, ?>) definitions.get(ref.substring(ref.lastIndexOf('/') + 1)));
+        }
+        Map<String, Object> resolved = new LinkedHashMap<>();
+        schema.forEach((key, value) -> resolved.put((String) key, value));
+        if (schema.get("items") instanceof Map<?, ?> items) {
+            resolved.put("items", resolve(items));
+        }
+        if (schema.get("properties") instanceof Map<?, ?> properties) {
+            Map<String, Object> resolvedProperties = new LinkedHashMap<>();
+            properties.forEach((name, property) -> resolvedProperties.put((String) name, resolve((Map<?, ?>) property)));
+            resolved.put("properties", resolvedProperties);
+        }
+        return resolved;
+    }
+}
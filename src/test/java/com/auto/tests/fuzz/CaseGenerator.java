@@ -0,0 +1,243 @@
+package com.auto.tests.fuzz;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Валидный запрос и мутации одной операции по схемам ее параметров и тела. Валидные значения берутся из hints
+ * по имени поля или параметра (id и имена сущностей, подготовленных прогоном), иначе из схемы: первое значение
+ * enum, minimum, пример по формату. Мутации нарушают тип, формат, границы, enum и обязательность. Сверх схемы
+ * невалидными считаются договоренности негативных тестов: отрицательные id (testPlaceInvalidPetIdOrder)
+ * и пустые, пробельные или со спецсимволами имена пользователей (testDeleteUserWithInvalidUsername).
+ */
+final class CaseGenerator {
+
+    static final String LONG_STRING = "a".repeat(10_000);
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'};
+
+    private final ApiSpec.Operation operation;
+    private final Map<String, Object> hints;
+    private final FuzzRequest baseline;
+    private final List<Mutation> candidates = new ArrayList<>();
+
+    CaseGenerator(ApiSpec.Operation operation, Map<String, Object> hints) {
+        this.operation = operation;
+        this.hints = hints;
+        this.baseline = new FuzzRequest(operation);
+        for (ApiSpec.Param param : operation.params()) {
+            if (param.in().equals("body")) {
+                baseline.body = valid(param.schema(), param.name());
+                body(param.schema(), param.required());
+            } else {
+                baseline.params.get(param.in()).put(param.name(), valid(param.schema(), param.name()));
+                value(param.in(), param.name(), param.name(), param.schema(), param.required());
+            }
+        }
+        candidates.add(new Mutation("query", "fuzz", "1", "неизвестный параметр", false));
+    }
+
+    ApiSpec.Operation operation() {
+        return operation;
+    }
+
+    FuzzRequest baseline() {
+        return baseline;
+    }
+
+    List<Mutation> candidates() {
+        return Collections.unmodifiableList(candidates);
+    }
+
+    /**
+     * Случаи операции: валидный запрос, каждая мутация по отдельности и случайные сочетания 2-3 мутаций
+     * разных мест до count случаев. Одиночные мутации идут все, даже если их больше count.
+     */
+    List<List<Mutation>> cases(int count, Random random) {
+        List<List<Mutation>> cases = new ArrayList<>();
+        cases.add(List.of());
+        candidates.forEach(mutation -> cases.add(List.of(mutation)));
+        while (cases.size() < count && candidates.size() > 1) {
+            int size = 2 + random.nextInt(2);
+            List<Mutation> picked = new ArrayList<>();
+            for (int attempt = 0; attempt < size * 4 && picked.size() < size; attempt++) {
+                Mutation next = candidates.get(random.nextInt(candidates.size()));
+                if (picked.stream().noneMatch(m -> overlaps(m, next))) {
+                    picked.add(next);
+                }
+            }
+            cases.add(List.copyOf(picked));
+        }
+        return cases;
+    }
+
+    static boolean invalid(List<Mutation> mutations) {
+        return mutations.stream().anyMatch(Mutation::invalid);
+    }
+
+    // мутации одного поля или поля и его родителя перекрывают друг друга: одна из них не дошла бы до сервера
+    private static boolean overlaps(Mutation a, Mutation b) {
+        if (!a.in().equals(b.in())) {
+            return false;
+        }
+        String x = a.target();
+        String y = b.target();
+        return x.equals(y) || (a.in().equals("body")
+                && (x.isEmpty() || y.isEmpty() || x.startsWith(y + ".") || y.startsWith(x + ".")));
+    }
+
+    private Object valid(Map<String, Object> schema, String name) {
+        Object hint = hints.get(name);
+        if (hint != null && within(schema, hint)) {
+            return hint;
+        }
+        return switch (type(schema)) {
+            case "object" -> {
+                Map<String, Object> object = new LinkedHashMap<>();
+                properties(schema).forEach((property, propertySchema) -> object.put(property, valid(propertySchema, property)));
+                yield object;
+            }
+            case "array" -> new ArrayList<>(List.of(valid(items(schema), name)));
+            case "integer" -> schema.get("minimum") instanceof Number min ? min.longValue() : 1L;
+            case "boolean" -> false;
+            case "file" -> PNG;
+            default -> schema.get("enum") instanceof List<?> values ? values.get(0)
+                    : "date-time".equals(schema.get("format")) ? "2026-01-01T00:00:00.000+0000"
+                    : name.equals("email") ? "fuzz@fuzz.test" : "fuzz";
+        };
+    }
+
+    private static boolean within(Map<String, Object> schema, Object value) {
+        if (value instanceof Number number) {
+            return !(schema.get("minimum") instanceof Number min && number.longValue() < min.longValue())
+                    && !(schema.get("maximum") instanceof Number max && number.longValue() > max.longValue());
+        }
+        return true;
+    }
+
+    private void body(Map<String, Object> schema, boolean required) {
+        boolean array = type(schema).equals("array");
+        add("body", "", new Mutation.Raw(""), "пустое тело", required);
+        add("body", "", new Mutation.Raw(array ? "[{" : "{\"id\": "), "обрезанный JSON", true);
+        add("body", "", new Mutation.Raw("null"), "null вместо тела", required);
+        add("body", "", new Mutation.Raw(array ? "{}" : "[]"), array ? "объект вместо массива" : "массив вместо объекта", true);
+        add("body", "", new Mutation.Raw("[".repeat(5_000) + "]".repeat(5_000)), "вложенность 5000", true);
+        if (array) {
+            add("body", "", new ArrayList<>(), "пустой массив", false);
+            add("body", "", new ArrayList<>(List.of("x")), "строка вместо элемента", true);
+            field("0", "", items(schema), false);
+        } else {
+            add("body", "fuzzExtra", "1", "неизвестное поле", false);
+            List<?> requiredFields = schema.get("required") instanceof List<?> list ? list : List.of();
+            properties(schema).forEach((property, propertySchema) ->
+                    field(property, property, propertySchema, requiredFields.contains(property)));
+        }
+    }
+
+    private void field(String target, String name, Map<String, Object> schema, boolean required) {
+        add("body", target, Mutation.REMOVE, "нет поля", required);
+        add("body", target, null, "null", true);
+        switch (type(schema)) {
+            case "object" -> {
+                add("body", target, "x", "строка вместо объекта", true);
+                add("body", target, new ArrayList<>(), "массив вместо объекта", true);
+                properties(schema).forEach((property, propertySchema) ->
+                        field(target + "." + property, property, propertySchema, false));
+            }
+            case "array" -> {
+                add("body", target, "x", "строка вместо массива", true);
+                add("body", target, new ArrayList<>(), "пустой массив", false);
+                Map<String, Object> items = items(schema);
+                if (type(items).equals("object")) {
+                    field(target + ".0", name, items, false);
+                } else {
+                    add("body", target, new ArrayList<>(List.of(12345L)), "число в массиве строк", true);
+                }
+            }
+            default -> value("body", target, name, schema, required);
+        }
+    }
+
+    /** Мутации скалярного значения: параметра или поля тела. */
+    private void value(String in, String target, String name, Map<String, Object> schema, boolean required) {
+        boolean body = in.equals("body");
+        if (!body && !in.equals("path")) {
+            add(in, target, Mutation.REMOVE, "нет параметра", required);
+        }
+        switch (type(schema)) {
+            case "integer" -> {
+                add(in, target, "abc", "не число", true);
+                add(in, target, body ? 1.5 : "1.5", "дробное", true);
+                if (!body) {
+                    add(in, target, "", "пустое значение", true);
+                }
+                add(in, target, "int32".equals(schema.get("format")) ? BigInteger.ONE.shiftLeft(31) : BigInteger.ONE.shiftLeft(63),
+                        "переполнение " + schema.getOrDefault("format", "int64"), true);
+                if (schema.get("minimum") instanceof Number min) {
+                    add(in, target, min.longValue() - 1, "меньше minimum " + min, true);
+                } else {
+                    add(in, target, 0L, "ноль", false);
+                    add(in, target, -1L, "отрицательное", name.equals("id") || name.endsWith("Id"));
+                }
+                if (schema.get("maximum") instanceof Number max) {
+                    add(in, target, max.longValue() + 1, "больше maximum " + max, true);
+                }
+            }
+            case "boolean" -> {
+                add(in, target, "yes", "строка вместо boolean", true);
+                add(in, target, 1L, "число вместо boolean", true);
+            }
+            case "array" -> {
+                Map<String, Object> items = items(schema);
+                if (items.get("enum") instanceof List<?>) {
+                    add(in, target, List.of("invalid"), "не из enum", true);
+                }
+                add(in, target, List.of(), "пустой массив", required);
+                add(in, target, Collections.nCopies(50, valid(items, name)), "50 значений", false);
+            }
+            case "file" -> add(in, target, new byte[0], "пустой файл", false);
+            default -> {
+                boolean username = name.equals("username");
+                if (schema.get("enum") instanceof List<?> values) {
+                    add(in, target, "invalid", "не из enum", true);
+                    add(in, target, values.get(0).toString().toUpperCase(Locale.ROOT), "enum в другом регистре", true);
+                }
+                if ("date-time".equals(schema.get("format"))) {
+                    add(in, target, "not-a-date", "не дата", true);
+                    add(in, target, "2026-13-45T25:61:00.000+0000", "несуществующая дата", true);
+                }
+                add(in, target, "", "пустая строка", required || username);
+                add(in, target, "   ", "пробелы", required || username);
+                add(in, target, "^^%$@#$", "спецсимволы", username);
+                add(in, target, "пёс 🐕 '\" <b>", "юникод и кавычки", false);
+                add(in, target, LONG_STRING, "10000 символов", false);
+                if (body) {
+                    add(in, target, 12345L, "число вместо строки", true);
+                }
+            }
+        }
+    }
+
+    private void add(String in, String target, Object value, String why, boolean invalid) {
+        candidates.add(new Mutation(in, target, value, why, invalid));
+    }
+
+    private static String type(Map<String, Object> schema) {
+        return (String) schema.getOrDefault("type", schema.containsKey("properties") ? "object" : "string");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Map<String, Object>> properties(Map<String, Object> schema) {
+        return (Map<String, Map<String, Object>>) schema.getOrDefault("properties", Map.of());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> items(Map<String, Object> schema) {
+        return (Map<String, Object>) schema.getOrDefault("items", Map.of());
+    }
+}
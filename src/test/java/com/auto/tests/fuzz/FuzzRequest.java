@@ -0,0 +1,161 @@
+package com.auto.tests.fuzz;
+
+import com.auto.tests.json.Json;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Запрос к одной операции: значения параметров по месту (path, query, formData, header) и тело - дерево
+ * Map/List/значений, {@link Mutation.Raw} или null. Случаи фаззера строятся копией валидного запроса
+ * с наложенными мутациями, поэтому любой случай воспроизводится по списку мутаций.
+ */
+final class FuzzRequest {
+
+    final ApiSpec.Operation operation;
+    final Map<String, Map<String, Object>> params = new LinkedHashMap<>();
+    Object body;
+
+    FuzzRequest(ApiSpec.Operation operation) {
+        this.operation = operation;
+        for (String in : List.of("path", "query", "formData", "header")) {
+            params.put(in, new LinkedHashMap<>());
+        }
+    }
+
+    /** Копия запроса с мутациями; мутация поля, которого уже нет (родителя заменила другая мутация), пропускается. */
+    FuzzRequest with(List<Mutation> mutations) {
+        FuzzRequest copy = new FuzzRequest(operation);
+        params.forEach((in, values) -> copy.params.get(in).putAll(values));
+        copy.body = copy(body);
+        for (Mutation mutation : mutations) {
+            if (!mutation.in().equals("body")) {
+                if (mutation.value() == Mutation.REMOVE) {
+                    copy.params.get(mutation.in()).remove(mutation.target());
+                } else {
+                    copy.params.get(mutation.in()).put(mutation.target(), mutation.value());
+                }
+            } else if (mutation.target().isEmpty()) {
+                copy.body = mutation.value() == Mutation.REMOVE ? null : copy(mutation.value());
+            } else {
+                copy.setField(mutation.target(), mutation.value());
+            }
+        }
+        return copy;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void setField(String target, Object value) {
+        String[] path = target.split("\\.");
+        Object parent = body;
+        for (int i = 0; i < path.length - 1 && parent != null; i++) {
+            parent = child(parent, path[i]);
+        }
+        String last = path[path.length - 1];
+        if (parent instanceof Map<?, ?> map) {
+            if (value == Mutation.REMOVE) {
+                map.remove(last);
+            } else {
+                ((Map<String, Object>) map).put(last, copy(value));
+            }
+        } else if (parent instanceof List<?> list && index(last) < list.size()) {
+            if (value == Mutation.REMOVE) {
+                list.remove(index(last));
+            } else {
+                ((List<Object>) list).set(index(last), copy(value));
+            }
+        }
+    }
+
+    private static Object child(Object parent, String key) {
+        if (parent instanceof Map<?, ?> map) {
+            return map.get(key);
+        }
+        if (parent instanceof List<?> list && index(key) < list.size()) {
+            return list.get(index(key));
+        }
+        return null;
+    }
+
+    private static int index(String key) {
+        return key.chars().allMatch(Character::isDigit) ? Integer.parseInt(key) : Integer.MAX_VALUE;
+    }
+
+    private static Object copy(Object value) {
+        if (value instanceof Map<?, ?> map) {
+            Map<String, Object> copy = new LinkedHashMap<>();
+            map.forEach((key, item) -> copy.put((String) key, copy(item)));
+            return copy;
+        }
+        if (value instanceof List<?> list) {
+            List<Object> copy = new ArrayList<>(list.size());
+            list.forEach(item -> copy.add(copy(item)));
+            return copy;
+        }
+        return value;
+    }
+
+    Response send() {
+        RequestSpecification spec = given();
+        params.get("path").forEach((name, value) -> spec.pathParam(name, value));
+        params.get("query").forEach((name, value) -> {
+            if (value instanceof Collection<?> values) {
+                spec.queryParam(name, values);
+            } else {
+                spec.queryParam(name, value);
+            }
+        });
+        Map<String, Object> form = params.get("formData");
+        if (operation.multipart()) {
+            form.forEach((name, value) -> {
+                if (value instanceof byte[] bytes) {
+                    spec.multiPart(name, "fuzz.png", bytes, "image/png");
+                } else {
+                    spec.multiPart(name, String.valueOf(value));
+                }
+            });
+        } else if (!form.isEmpty()) {
+            spec.contentType(ContentType.URLENC.withCharset("UTF-8"));
+            form.forEach((name, value) -> spec.formParam(name, value));
+        }
+        params.get("header").forEach((name, value) -> spec.header(name, String.valueOf(value)));
+        if (body != null) {
+            spec.contentType(ContentType.JSON).body(body instanceof Mutation.Raw raw ? raw.text() : Json.write(body));
+        }
+        return spec.when().request(operation.method(), operation.path());
+    }
+
+    /** Запрос одной строкой для отчета: подставленный путь, параметры и тело. */
+    String describe(int limit) {
+        StringBuilder out = new StringBuilder(operation.method()).append(' ');
+        String path = operation.path();
+        for (Map.Entry<String, Object> param : params.get("path").entrySet()) {
+            path = path.replace("{" + param.getKey() + "}", String.valueOf(param.getValue()));
+        }
+        out.append(path);
+        appendParams(out, "?", "query");
+        appendParams(out, " form: ", "formData");
+        appendParams(out, " headers: ", "header");
+        if (body != null) {
+            out.append(" body: ").append(Mutation.preview(body, limit));
+        }
+        return out.toString();
+    }
+
+    private void appendParams(StringBuilder out, String prefix, String in) {
+        Map<String, Object> values = params.get(in);
+        if (!values.isEmpty()) {
+            out.append(prefix);
+            values.forEach((name, value) -> out.append(name).append('=').append(Mutation.preview(value, 40)).append(' '));
+            out.setLength(out.length() - 1);
+        }
+    }
+}
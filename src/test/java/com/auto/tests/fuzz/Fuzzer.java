@@ -0,0 +1,350 @@
+package com.auto.tests.fuzz;
+
+import com.auto.tests.BaseClass;
+import com.auto.tests.json.Json;
+import com.auto.tests.metrics.ConnectionPoolMetrics;
+import com.auto.tests.metrics.LatencyRegistry;
+import com.auto.tests.model.Pet;
+import com.auto.tests.model.User;
+import com.auto.tests.replay.CassetteFilter;
+import com.auto.tests.support.Fixtures;
+import com.auto.tests.support.RunIds;
+import com.auto.tests.support.RunReportListener;
+import io.restassured.response.Response;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Негативный фаззинг всех операций офлайн-спецификации ({@link ApiSpec}). Для каждой операции
+ * {@link CaseGenerator} строит валидный запрос и мутации параметров и тела; случаи всех операций идут вперемешку
+ * на виртуальных потоках, не больше fuzz.maxInFlight запросов одновременно. Код ответа сверяется с документированными
+ * ({@link #mismatch}), расхождения группируются по эндпоинту и виду расхождения, а самый короткий случай каждой
+ * группы сжимается {@link Shrinker} до минимального воспроизведения. Отчет - fuzz.json: по группе число случаев,
+ * воспроизведение, все одиночные мутации, давшие это расхождение, и примеры запросов.
+ *
+ * <p>Параметры (системные свойства): fuzz.casesPerOperation (300), fuzz.maxInFlight (32), fuzz.seed (случайный,
+ * печатается для повтора), fuzz.operations (регулярное выражение по "METHOD /path", все операции),
+ * fuzz.shrinkBudget (64 повтора на группу), fuzz.failOn (5xx - падать на ответах 5xx и обрывах соединения,
+ * any - на любом расхождении, none - не падать).
+ */
+public final class Fuzzer {
+
+    private final int casesPerOperation;
+    private final int maxInFlight;
+    private final long seed;
+    private final int shrinkBudget;
+    private final Map<String, Finding> findings = new ConcurrentHashMap<>();
+    private final Map<String, Map<Integer, LongAdder>> statuses = new ConcurrentHashMap<>();
+    private final LongAdder requests = new LongAdder();
+
+    Fuzzer(int casesPerOperation, int maxInFlight, long seed, int shrinkBudget) {
+        this.casesPerOperation = casesPerOperation;
+        this.maxInFlight = maxInFlight;
+        this.seed = seed;
+        this.shrinkBudget = shrinkBudget;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (BaseClass.CASSETTE != CassetteFilter.Mode.OFF) {
+            System.out.println("Фаззинг не пишется в кассету, запустите без petstore.cassette");
+            System.exit(1);
+        }
+        Fuzzer fuzzer = new Fuzzer(
+                Integer.getInteger("fuzz.casesPerOperation", 300),
+                Integer.getInteger("fuzz.maxInFlight", 32),
+                Long.getLong("fuzz.seed", System.nanoTime()),
+                Integer.getInteger("fuzz.shrinkBudget", 64));
+        Pattern operations = Pattern.compile(System.getProperty("fuzz.operations", ".*"));
+        String failOn = System.getProperty("fuzz.failOn", "5xx");
+
+        BaseClass.globalSetup();
+        Map<String, Object> report;
+        try {
+            List<CaseGenerator> generators = new ArrayList<>();
+            for (ApiSpec.Operation operation : ApiSpec.load().operations()) {
+                if (operations.matcher(operation.endpoint()).matches()) {
+                    generators.add(new CaseGenerator(operation, prepare(operation)));
+                }
+            }
+            report = fuzzer.run(generators);
+        } finally {
+            Fixtures.teardown();
+        }
+
+        Path dir = RunReportListener.reportsDir();
+        Files.createDirectories(dir);
+        Files.writeString(dir.resolve("fuzz.json"), Json.write(report));
+        LatencyRegistry.writeReport(dir);
+        ConnectionPoolMetrics.writeReport(dir);
+        fuzzer.print(report);
+        long failing = fuzzer.findings.values().stream()
+                .filter(f -> failOn.equals("any") || (failOn.equals("5xx") && (f.status == 0 || f.status >= 500)))
+                .count();
+        System.out.printf("Групп расхождений: %d, из них для fuzz.failOn=%s: %d, отчеты: %s%n",
+                fuzzer.findings.size(), failOn, failing, dir.toAbsolutePath());
+        System.exit(failing == 0 ? 0 : 1);
+    }
+
+    /** Сущности для валидных запросов операции; удаляющие операции получают id, которых нет на сервере. */
+    static Map<String, Object> prepare(ApiSpec.Operation operation) {
+        long petId = RunIds.nextId();
+        String username = RunIds.username("fuzz");
+        boolean delete = operation.method().equals("DELETE");
+        if (!delete && (operation.path().contains("{petId}") || operation.path().startsWith("/store/order"))) {
+            Fixtures.createPet(Pet.builder().id(petId).name("fuzz").status("available").build());
+        }
+        if (!delete && (operation.path().contains("{username}") || operation.path().equals("/user/login"))) {
+            Fixtures.trackUser(username);
+            given()
+                    .header("Content-Type", "application/json")
+                    .body(User.builder().id(RunIds.nextId()).username(username).password("fuzz").build().toJson())
+                    .when()
+                    .post("/user")
+                    .then()
+                    .statusCode(200);
+        }
+        Map<String, Object> hints = new HashMap<>();
+        hints.put("id", petId);
+        hints.put("petId", petId);
+        hints.put("orderId", petId);
+        hints.put("username", username);
+        hints.put("password", "fuzz");
+        return hints;
+    }
+
+    Map<String, Object> run(List<CaseGenerator> generators) {
+        Random random = new Random(seed);
+        List<List<List<Mutation>>> cases = new ArrayList<>();
+        for (CaseGenerator generator : generators) {
+            cases.add(generator.cases(casesPerOperation, new Random(random.nextLong())));
+        }
+        int rounds = cases.stream().mapToInt(List::size).max().orElse(0);
+
+        long start = System.nanoTime();
+        long total = 0;
+        Semaphore permits = new Semaphore(maxInFlight);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            // по кругу между операциями: все эндпоинты фаззятся одновременно, а не по очереди
+            for (int round = 0; round < rounds; round++) {
+                for (int i = 0; i < generators.size(); i++) {
+                    if (round < cases.get(i).size()) {
+                        CaseGenerator generator = generators.get(i);
+                        List<Mutation> mutations = cases.get(i).get(round);
+                        acquire(permits);
+                        executor.execute(() -> {
+                            try {
+                                execute(generator, mutations, true);
+                            } finally {
+                                permits.release();
+                            }
+                        });
+                        total++;
+                    }
+                }
+            }
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Finding finding : findings.values()) {
+                acquire(permits);
+                executor.execute(() -> {
+                    try {
+                        finding.shrunk = Shrinker.shrink(finding.smallest,
+                                mutations -> finding.mismatch.equals(execute(finding.generator, mutations, false)), shrinkBudget);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("seed", seed);
+        report.put("operations", generators.size());
+        report.put("cases", total);
+        report.put("requests", requests.sum());
+        report.put("elapsedSeconds", Math.round(elapsedSeconds * 100) / 100.0);
+        report.put("casesPerMinute", Math.round(total / elapsedSeconds * 60));
+        Map<String, Map<String, Long>> byStatus = new TreeMap<>();
+        statuses.forEach((endpoint, counts) -> counts.forEach((status, count) ->
+                byStatus.computeIfAbsent(endpoint, k -> new TreeMap<>()).put(String.valueOf(status), count.sum())));
+        report.put("statuses", byStatus);
+        Map<String, List<Map<String, Object>>> byEndpoint = new TreeMap<>();
+        findings.values().stream().sorted(Comparator.comparingLong((Finding f) -> -f.count.sum()))
+                .forEach(f -> byEndpoint.computeIfAbsent(f.generator.operation().endpoint(), k -> new ArrayList<>()).add(f.toMap()));
+        report.put("findings", byEndpoint);
+        return report;
+    }
+
+    /** Отправляет случай и возвращает расхождение с ожидаемым кодом (null - расхождения нет). */
+    private String execute(CaseGenerator generator, List<Mutation> mutations, boolean record) {
+        ApiSpec.Operation operation = generator.operation();
+        FuzzRequest request = generator.baseline().with(mutations);
+        int status;
+        try {
+            Response response = request.send();
+            status = response.statusCode();
+            track(request, response);
+        } catch (Exception e) {
+            // RestAssured пробрасывает NoHttpResponseException и таймауты без объявления: для случая это обрыв
+            status = 0;
+        }
+        requests.increment();
+        String mismatch = mismatch(operation, CaseGenerator.invalid(mutations), status);
+        if (record) {
+            statuses.computeIfAbsent(operation.endpoint(), k -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(status, k -> new LongAdder()).increment();
+            if (mismatch != null) {
+                int actual = status;
+                findings.computeIfAbsent(operation.endpoint() + " " + mismatch, k -> new Finding(generator, mismatch, actual))
+                        .add(mutations, request.describe(200));
+            }
+        }
+        return mismatch;
+    }
+
+    /**
+     * Расхождение вида "ожидали 400/404, получили 200" или null. Невалидный ввод должен получить документированный
+     * код 4xx операции (любой 4xx, если она их не документирует), валидный - 2xx или документированный код,
+     * например 404 для несуществующего id. Ответ 5xx и обрыв соединения (status 0) - всегда расхождение.
+     */
+    static String mismatch(ApiSpec.Operation operation, boolean invalid, int status) {
+        String code = String.valueOf(status);
+        List<String> errors = operation.responses().stream().filter(c -> c.startsWith("4")).toList();
+        boolean expected;
+        String expectation;
+        if (invalid) {
+            expected = errors.isEmpty() ? status / 100 == 4 : errors.contains(code);
+            expectation = errors.isEmpty() ? "4xx" : String.join("/", errors);
+        } else {
+            expected = status / 100 == 2 || operation.responses().contains(code);
+            List<String> allowed = new ArrayList<>(List.of("2xx"));
+            operation.responses().stream().filter(c -> !c.startsWith("2") && !c.equals("default")).forEach(allowed::add);
+            expectation = String.join("/", allowed);
+        }
+        return expected ? null : "ожидали " + expectation + ", получили " + (status == 0 ? "обрыв соединения" : code);
+    }
+
+    // созданное случаями удаляется вместе с остальными сущностями прогона
+    private static void track(FuzzRequest request, Response response) {
+        String method = request.operation.method();
+        String path = request.operation.path();
+        if (response.statusCode() / 100 != 2 || !(method.equals("POST") || method.equals("PUT"))) {
+            return;
+        }
+        if (path.startsWith("/user")) {
+            List<?> users = request.body instanceof List<?> list ? list : Collections.singletonList(request.body);
+            for (Object user : users) {
+                if (user instanceof Map<?, ?> map && map.get("username") instanceof String username && !username.isBlank()) {
+                    Fixtures.trackUser(username);
+                }
+            }
+        } else if (path.equals("/pet") || path.equals("/store/order")) {
+            try {
+                if (Json.parse(response.asString()) instanceof Map<?, ?> json && json.get("id") instanceof Long id) {
+                    if (path.equals("/pet")) {
+                        Fixtures.trackPet(id);
+                    } else {
+                        Fixtures.trackOrder(id);
+                    }
+                }
+            } catch (RuntimeException e) {
+                // ответ не JSON: созданного id не узнать
+            }
+        }
+    }
+
+    private static void acquire(Semaphore permits) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Фаззинг прерван", e);
+        }
+    }
+
+    void print(Map<String, Object> report) {
+        System.out.printf("%-32s %-42s %7s  %s%n", "Эндпоинт", "Расхождение", "случаев", "минимальное воспроизведение");
+        findings.values().stream()
+                .sorted(Comparator.comparing((Finding f) -> f.generator.operation().endpoint())
+                        .thenComparingLong(f -> -f.count.sum()))
+                .forEach(f -> System.out.printf("%-32s %-42s %7d  %s%n", f.generator.operation().endpoint(), f.mismatch,
+                        f.count.sum(), f.reproducer()));
+        System.out.printf("Случаев: %d (%d операций) за %s с, %s в минуту, запросов со сжатием: %d, seed=%d%n",
+                report.get("cases"), report.get("operations"), report.get("elapsedSeconds"), report.get("casesPerMinute"),
+                report.get("requests"), seed);
+    }
+
+    private static final class Finding {
+        final CaseGenerator generator;
+        final String mismatch;
+        final int status;
+        final LongAdder count = new LongAdder();
+        final List<String> examples = new ArrayList<>();
+        final Set<String> singleMutations = new LinkedHashSet<>();
+        List<Mutation> smallest;
+        volatile Shrinker.Result shrunk;
+
+        Finding(CaseGenerator generator, String mismatch, int status) {
+            this.generator = generator;
+            this.mismatch = mismatch;
+            this.status = status;
+        }
+
+        synchronized void add(List<Mutation> mutations, String example) {
+            count.increment();
+            if (smallest == null || mutations.size() < smallest.size()) {
+                smallest = mutations;
+            }
+            if (examples.size() < 3) {
+                examples.add(example);
+            }
+            if (mutations.size() == 1) {
+                singleMutations.add(mutations.get(0).toString());
+            }
+        }
+
+        List<Mutation> minimal() {
+            return shrunk != null ? shrunk.mutations() : smallest;
+        }
+
+        String reproducer() {
+            List<Mutation> mutations = minimal();
+            return mutations.isEmpty() ? "валидный запрос" : mutations.stream().map(Mutation::toString).toList().toString();
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("mismatch", mismatch);
+            map.put("count", count.sum());
+            map.put("reproducer", minimal().stream().map(Mutation::toString).toList());
+            map.put("request", generator.baseline().with(minimal()).describe(300));
+            map.put("shrinkAttempts", shrunk != null ? shrunk.attempts() : 0);
+            map.put("singleMutations", singleMutations);
+            map.put("examples", examples);
+            return map;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.auto.tests.fuzz;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class FuzzerTest {
+
+    private static ApiSpec.Operation operation(String endpoint) {
+        return ApiSpec.load().operations().stream().filter(o -> o.endpoint().equals(endpoint)).findFirst().orElseThrow();
+    }
+
+    @Test
+    @DisplayName("Сжатие оставляет только нужную мутацию и укорачивает ее значение")
+    public void testShrinkToMinimalReproducer() {
+        Mutation name = new Mutation("body", "name", CaseGenerator.LONG_STRING, "10000 символов", false);
+        List<Mutation> failing = List.of(
+                new Mutation("body", "status", "invalid", "не из enum", true),
+                name,
+                new Mutation("query", "fuzz", "1", "неизвестный параметр", false));
+
+        Shrinker.Result result = Shrinker.shrink(failing, mutations -> mutations.stream()
+                .anyMatch(m -> m.target().equals("name") && ((String) m.value()).length() >= 3), 100);
+
+        assertThat(result.mutations(), hasSize(1));
+        assertThat(result.mutations().get(0).target(), equalTo("name"));
+        assertThat(((String) result.mutations().get(0).value()).length(), both(greaterThanOrEqualTo(3)).and(lessThan(6)));
+    }
+
+    @Test
+    @DisplayName("Ожидаемый код берется из документированных ответов операции")
+    public void testMismatchAgainstDocumentedResponses() {
+        ApiSpec.Operation getPet = operation("GET /pet/{petId}");
+
+        assertThat(Fuzzer.mismatch(getPet, true, 404), nullValue());
+        assertThat(Fuzzer.mismatch(getPet, true, 200), equalTo("ожидали 400/404, получили 200"));
+        assertThat(Fuzzer.mismatch(getPet, false, 404), nullValue());
+        assertThat(Fuzzer.mismatch(getPet, false, 500), equalTo("ожидали 2xx/400/404, получили 500"));
+        assertThat(Fuzzer.mismatch(operation("POST /user"), true, 0), equalTo("ожидали 4xx, получили обрыв соединения"));
+    }
+
+    @Test
+    @DisplayName("Мутация подменяет одно поле валидного тела, остальные поля не меняются")
+    public void testMutationAppliedToBaseline() {
+        CaseGenerator generator = new CaseGenerator(operation("POST /store/order"), Map.of("id", 7L, "petId", 7L));
+        Mutation status = generator.candidates().stream()
+                .filter(m -> m.target().equals("status") && m.why().equals("не из enum")).findFirst().orElseThrow();
+
+        Map<?, ?> body = (Map<?, ?>) generator.baseline().with(List.of(status)).body;
+
+        assertThat(body.get("status"), equalTo("invalid"));
+        assertThat(body.get("petId"), equalTo(7L));
+        assertThat(((Map<?, ?>) generator.baseline().body).get("status"), equalTo("placed"));
+        assertThat(CaseGenerator.invalid(List.of(status)), is(true));
+    }
+}
@@ -0,0 +1,47 @@
+package com.auto.tests.fuzz;
+
+import com.auto.tests.json.Json;
+
+/**
+ * Точечное изменение валидного запроса: значение параметра (in = path, query, formData, header) или поля тела
+ * (in = body, target - путь через точку вида "category.id" или "0.username", пустой - все тело).
+ * {@link #REMOVE} убирает параметр или поле, {@link Raw} подставляет тело текстом как есть.
+ * invalid - нарушает ли изменение спецификацию (или договоренности негативных тестов), от этого зависит ожидаемый код.
+ */
+record Mutation(String in, String target, Object value, String why, boolean invalid) {
+
+    static final Object REMOVE = new Object() {
+        @Override
+        public String toString() {
+            return "<нет>";
+        }
+    };
+
+    /** Тело запроса как есть, без сериализации: обрезанный JSON, пустое тело, лишняя вложенность. */
+    record Raw(String text) {
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+
+    Mutation withValue(Object value) {
+        return new Mutation(in, target, value, why, invalid);
+    }
+
+    @Override
+    public String toString() {
+        return in + (target.isEmpty() ? "" : " " + target) + " = " + preview(value, 60) + " (" + why + ")";
+    }
+
+    static String preview(Object value, int limit) {
+        String text = switch (value) {
+            case null -> "null";
+            case String string -> "'" + string + "'";
+            case byte[] bytes -> "<" + bytes.length + " байт>";
+            case Raw raw -> raw.text().isEmpty() ? "<пустое тело>" : raw.text();
+            default -> value == REMOVE ? value.toString() : Json.write(value);
+        };
+        return text.length() <= limit ? text : text.substring(0, limit) + "… (" + text.length() + " символов)";
+    }
+}
@@ -0,0 +1,85 @@
+package com.auto.tests.fuzz;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Сжатие упавшего случая до минимального воспроизведения: сначала убираются мутации, без которых расхождение
+ * сохраняется (по одной, пока удается), затем строки и массивы в оставшихся мутациях укорачиваются делением
+ * пополам. Тела как есть ({@link Mutation.Raw}) не укорачиваются: половина обрезанного JSON - уже другая ошибка.
+ * Каждая проверка - повтор запроса, поэтому их число ограничено budget.
+ */
+final class Shrinker {
+
+    record Result(List<Mutation> mutations, int attempts) {
+    }
+
+    private final Predicate<List<Mutation>> reproduces;
+    private final int budget;
+    private int attempts;
+
+    private Shrinker(Predicate<List<Mutation>> reproduces, int budget) {
+        this.reproduces = reproduces;
+        this.budget = budget;
+    }
+
+    static Result shrink(List<Mutation> failing, Predicate<List<Mutation>> reproduces, int budget) {
+        Shrinker shrinker = new Shrinker(reproduces, budget);
+        List<Mutation> current = shrinker.removeMutations(new ArrayList<>(failing));
+        for (int i = 0; i < current.size(); i++) {
+            current.set(i, shrinker.shortenValue(current, i));
+        }
+        return new Result(List.copyOf(current), shrinker.attempts);
+    }
+
+    private List<Mutation> removeMutations(List<Mutation> current) {
+        boolean removed = true;
+        while (removed && current.size() > 1) {
+            removed = false;
+            for (int i = 0; i < current.size() && attempts < budget; i++) {
+                List<Mutation> candidate = new ArrayList<>(current);
+                candidate.remove(i);
+                if (test(candidate)) {
+                    current = candidate;
+                    removed = true;
+                    break;
+                }
+            }
+        }
+        return current;
+    }
+
+    private Mutation shortenValue(List<Mutation> current, int index) {
+        Mutation mutation = current.get(index);
+        while (attempts < budget) {
+            Object shorter = half(mutation.value());
+            if (shorter == null) {
+                break;
+            }
+            List<Mutation> candidate = new ArrayList<>(current);
+            candidate.set(index, mutation.withValue(shorter));
+            if (!test(candidate)) {
+                break;
+            }
+            mutation = candidate.get(index);
+        }
+        return mutation;
+    }
+
+    private static Object half(Object value) {
+        if (value instanceof String text && text.length() > 1) {
+            return text.substring(0, text.length() / 2);
+        }
+        if (value instanceof List<?> list && list.size() > 1) {
+            return new ArrayList<>(list.subList(0, list.size() / 2));
+        }
+        return null;
+    }
+
+    private boolean test(Collection<Mutation> candidate) {
+        attempts++;
+        return reproduces.test(List.copyOf(candidate));
+    }
+}
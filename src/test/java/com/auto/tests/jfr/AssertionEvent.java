@@ -0,0 +1,46 @@
+package com.auto.tests.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Проверка ответа вне цепочки RestAssured: попытка {@code Eventually}, потоковая проверка массива,
+ * проверка результатов fan-out.
+ */
+@Name("com.auto.tests.Assertion")
+@Label("Assertion")
+@Category({"Petstore", "Assertion"})
+public class AssertionEvent extends jdk.jfr.Event {
+
+    @Label("Kind")
+    public String kind;
+
+    @Label("Target")
+    public String target;
+
+    @Label("Checked")
+    @Description("Сколько элементов или ответов проверено")
+    public long checked;
+
+    @Label("Passed")
+    public boolean passed;
+
+    public static AssertionEvent start(String kind, String target) {
+        AssertionEvent event = new AssertionEvent();
+        event.kind = kind;
+        event.target = target;
+        event.begin();
+        return event;
+    }
+
+    public void finish(long checked, boolean passed) {
+        end();
+        if (shouldCommit()) {
+            this.checked = checked;
+            this.passed = passed;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.auto.tests.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * HTTP-обмен RestAssured: длительность события - от отправки запроса до получения тела ответа.
+ */
+@Name("com.auto.tests.HttpExchange")
+@Label("HTTP Exchange")
+@Category({"Petstore", "HTTP"})
+@Description("Запрос к Petstore через RestAssured")
+public class HttpExchangeEvent extends jdk.jfr.Event {
+
+    @Label("Method")
+    public String method;
+
+    @Label("Endpoint")
+    @Description("Метод и шаблон пути, например GET /pet/{petId}")
+    public String endpoint;
+
+    @Label("Status")
+    public int status;
+
+    @Label("Request Bytes")
+    @DataAmount
+    public long requestBytes;
+
+    @Label("Response Bytes")
+    @DataAmount
+    public long responseBytes;
+
+    @Label("Replayed")
+    @Description("Ответ взят из кассеты, длительность не отражает задержку сервиса")
+    public boolean replayed;
+}
@@ -0,0 +1,59 @@
+package com.auto.tests.jfr;
+
+import com.auto.tests.BaseClass;
+import com.auto.tests.support.Eventually;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class JfrEventsTest extends BaseClass {
+
+    @Test
+    @DisplayName("Запрос через RestAssured попадает в запись JFR событием HttpExchange с шаблоном пути и статусом")
+    public void testHttpExchangeRecorded() throws Exception {
+        Path file = Files.createTempFile("petstore", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(HttpExchangeEvent.class);
+            recording.start();
+            given()
+                    .when()
+                    .get("/store/inventory")
+                    .then()
+                    .statusCode(200);
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals("com.auto.tests.HttpExchange"))
+                .filter(event -> "GET /store/inventory".equals(event.getString("endpoint")))
+                .toList();
+        assertThat(events, not(empty()));
+        assertThat(events.get(0).getInt("status"), equalTo(200));
+        assertThat(events.get(0).getDuration().toNanos(), greaterThan(0L));
+    }
+
+    @Test
+    @DisplayName("Запросы внутри Eventually учитываются в HTTP-времени потока теста")
+    public void testEventuallyCountsHttpInTestThread() {
+        long calls = JfrFilter.THREAD_HTTP.get()[0];
+
+        Eventually.untilAsserted("GET /store/inventory", () -> given()
+                .when()
+                .get("/store/inventory")
+                .then()
+                .statusCode(200));
+
+        assertThat(JfrFilter.THREAD_HTTP.get()[0], equalTo(calls + 1));
+    }
+}
@@ -0,0 +1,43 @@
+package com.auto.tests.jfr;
+
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.InvocationInterceptor;
+import org.junit.jupiter.api.extension.ReflectiveInvocationContext;
+import org.opentest4j.TestAbortedException;
+
+import java.lang.reflect.Method;
+
+/**
+ * Пишет {@link TestMethodEvent} на каждый тестовый метод; подключается в {@code BaseClass}.
+ */
+public class JfrExtension implements InvocationInterceptor {
+
+    @Override
+    public void interceptTestMethod(Invocation<Void> invocation,
+                                    ReflectiveInvocationContext<Method> invocationContext,
+                                    ExtensionContext extensionContext) throws Throwable {
+        TestMethodEvent event = new TestMethodEvent();
+        long[] totals = JfrFilter.THREAD_HTTP.get();
+        long calls = totals[0];
+        long nanos = totals[1];
+        String outcome = "passed";
+        event.begin();
+        try {
+            invocation.proceed();
+        } catch (Throwable e) {
+            outcome = e instanceof AssertionError ? "failed" : e instanceof TestAbortedException ? "aborted" : "error";
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.testClass = extensionContext.getRequiredTestClass().getName();
+                event.testMethod = extensionContext.getRequiredTestMethod().getName();
+                event.displayName = extensionContext.getDisplayName();
+                event.outcome = outcome;
+                event.httpCalls = totals[0] - calls;
+                event.httpNanos = totals[1] - nanos;
+                event.commit();
+            }
+        }
+    }
+}
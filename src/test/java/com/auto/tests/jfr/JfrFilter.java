@@ -0,0 +1,80 @@
+package com.auto.tests.jfr;
+
+import com.auto.tests.metrics.LatencyFilter;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Глобальный фильтр RestAssured: пишет {@link HttpExchangeEvent} на каждый запрос и копит число и время
+ * запросов потока для {@link TestMethodEvent}. Без активной записи JFR событие не заполняется.
+ * При воспроизведении кассеты события помечаются replayed.
+ */
+public class JfrFilter implements Filter {
+
+    // [число запросов, наносекунд в запросах] текущего потока
+    static final ThreadLocal<long[]> THREAD_HTTP = ThreadLocal.withInitial(() -> new long[2]);
+
+    private final boolean replayed;
+
+    public JfrFilter(boolean replayed) {
+        this.replayed = replayed;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        HttpExchangeEvent event = new HttpExchangeEvent();
+        long start = System.nanoTime();
+        event.begin();
+        Response response = null;
+        try {
+            response = ctx.next(requestSpec, responseSpec);
+            return response;
+        } finally {
+            event.end();
+            long[] totals = THREAD_HTTP.get();
+            totals[0]++;
+            totals[1] += System.nanoTime() - start;
+            if (event.shouldCommit()) {
+                event.method = requestSpec.getMethod();
+                event.endpoint = LatencyFilter.endpointKey(requestSpec);
+                event.requestBytes = bodySize(requestSpec.getBody());
+                event.replayed = replayed;
+                if (response != null) {
+                    event.status = response.statusCode();
+                    event.responseBytes = contentLength(response);
+                }
+                event.commit();
+            }
+        }
+    }
+
+    private static long bodySize(Object body) {
+        if (body instanceof byte[] bytes) {
+            return bytes.length;
+        }
+        if (body instanceof String text) {
+            return text.getBytes(StandardCharsets.UTF_8).length;
+        }
+        return 0;
+    }
+
+    // большие тела остаются потоковыми, дочитывать их ради события нельзя; -1 - длина неизвестна (chunked)
+    private static long contentLength(Response response) {
+        String header = response.header("Content-Length");
+        if (header != null) {
+            try {
+                return Long.parseLong(header.trim());
+            } catch (NumberFormatException ignored) {
+                // некорректный заголовок - длина неизвестна
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,36 @@
+package com.auto.tests.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Выполнение тестового метода и доля HTTP в нем: остальное время ушло на ожидания, проверки и сам JVM.
+ */
+@Name("com.auto.tests.TestMethod")
+@Label("Test Method")
+@Category({"Petstore", "Test"})
+public class TestMethodEvent extends jdk.jfr.Event {
+
+    @Label("Test Class")
+    public String testClass;
+
+    @Label("Test Method")
+    public String testMethod;
+
+    @Label("Display Name")
+    public String displayName;
+
+    @Label("Outcome")
+    @Description("passed, failed, aborted или error")
+    public String outcome;
+
+    @Label("HTTP Calls")
+    public long httpCalls;
+
+    @Label("HTTP Time")
+    @Timespan
+    public long httpNanos;
+}
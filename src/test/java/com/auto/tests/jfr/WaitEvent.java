@@ -0,0 +1,48 @@
+package com.auto.tests.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * Ожидание в тестовом коде: согласованность чтения (eventually), лимит частоты (rateLimit),
+ * свободное соединение в пуле (connectionPool). Короче 1 мс не пишется.
+ */
+@Name("com.auto.tests.Wait")
+@Label("Wait")
+@Category({"Petstore", "Wait"})
+@Threshold("1 ms")
+public class WaitEvent extends jdk.jfr.Event {
+
+    @Label("Kind")
+    public String kind;
+
+    @Label("Target")
+    @Description("Эндпоинт, группа эндпоинтов или маршрут, которого ждали")
+    public String target;
+
+    @Label("Attempts")
+    public int attempts;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+
+    public static WaitEvent start(String kind, String target) {
+        WaitEvent event = new WaitEvent();
+        event.kind = kind;
+        event.target = target;
+        event.begin();
+        return event;
+    }
+
+    public void finish(int attempts, boolean succeeded) {
+        end();
+        if (shouldCommit()) {
+            this.attempts = attempts;
+            this.succeeded = succeeded;
+            commit();
+        }
+    }
+}
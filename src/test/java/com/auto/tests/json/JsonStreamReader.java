@@ -0,0 +1,295 @@
+package com.auto.tests.json;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Потоковый разбор JSON по токенам без построения дерева документа.
+ * Память постоянна: буфер символов и текст текущего токена, независимо от размера ответа.
+ * Ошибки структуры сообщаются с номером символа, с которого начался некорректный токен.
+ */
+public final class JsonStreamReader implements Closeable {
+
+    public enum Token {
+        BEGIN_OBJECT, END_OBJECT, BEGIN_ARRAY, END_ARRAY, NAME, STRING, NUMBER, BOOLEAN, NULL, END_DOCUMENT
+    }
+
+    private static final int MAX_DEPTH = 256;
+
+    private final Reader reader;
+    private final char[] buffer = new char[8192];
+    private int pos;
+    private int limit;
+    private long consumed;
+
+    private final StringBuilder text = new StringBuilder();
+    private Token peeked;
+
+    // Контекст на каждом уровне вложенности: true - объект, false - массив
+    private final boolean[] objectStack = new boolean[MAX_DEPTH];
+    // Ожидается ли на уровне первый элемент (без запятой впереди)
+    private final boolean[] firstStack = new boolean[MAX_DEPTH];
+    private int depth;
+    private boolean expectValueAfterName;
+    private boolean documentStarted;
+
+    public JsonStreamReader(InputStream in) {
+        this(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    public JsonStreamReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    public Token peek() throws IOException {
+        if (peeked == null) {
+            peeked = advance();
+        }
+        return peeked;
+    }
+
+    public Token next() throws IOException {
+        Token token = peek();
+        peeked = null;
+        return token;
+    }
+
+    /**
+     * Текст последнего токена NAME, STRING, NUMBER или BOOLEAN. Действителен до следующего вызова next().
+     */
+    public String text() {
+        return text.toString();
+    }
+
+    public CharSequence textView() {
+        return text;
+    }
+
+    public int depth() {
+        return depth;
+    }
+
+    public long position() {
+        return consumed + pos;
+    }
+
+    public void expect(Token expected) throws IOException {
+        Token actual = next();
+        if (actual != expected) {
+            throw error("expected " + expected + " but was " + actual);
+        }
+    }
+
+    /**
+     * Пропускает следующее значение целиком, в том числе вложенные объекты и массивы.
+     */
+    public void skipValue() throws IOException {
+        // Глубина меняется уже при peek(), поэтому заглянутое открытие контейнера не считаем
+        int start = peeked == Token.BEGIN_OBJECT || peeked == Token.BEGIN_ARRAY ? depth - 1 : depth;
+        do {
+            Token token = next();
+            if (token == Token.END_DOCUMENT) {
+                throw error("unexpected end of document");
+            }
+        } while (depth > start);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private Token advance() throws IOException {
+        int c = nextNonWhitespace();
+        if (expectValueAfterName) {
+            expectValueAfterName = false;
+            return value(c);
+        }
+        if (depth == 0) {
+            if (c == -1) {
+                if (!documentStarted) {
+                    throw error("empty document");
+                }
+                return Token.END_DOCUMENT;
+            }
+            if (documentStarted) {
+                throw error("unexpected trailing content");
+            }
+            documentStarted = true;
+            return value(c);
+        }
+        boolean inObject = objectStack[depth];
+        if (c == (inObject ? '}' : ']')) {
+            depth--;
+            return inObject ? Token.END_OBJECT : Token.END_ARRAY;
+        }
+        if (firstStack[depth]) {
+            firstStack[depth] = false;
+        } else if (c == ',') {
+            c = nextNonWhitespace();
+        } else {
+            throw error("expected ',' or '" + (inObject ? '}' : ']') + "'");
+        }
+        if (!inObject) {
+            return value(c);
+        }
+        if (c != '"') {
+            throw error("expected field name");
+        }
+        readString();
+        if (nextNonWhitespace() != ':') {
+            throw error("expected ':'");
+        }
+        expectValueAfterName = true;
+        return Token.NAME;
+    }
+
+    private Token value(int c) throws IOException {
+        switch (c) {
+            case '{':
+                return open(true);
+            case '[':
+                return open(false);
+            case '"':
+                readString();
+                return Token.STRING;
+            case 't':
+                readLiteral("true");
+                return Token.BOOLEAN;
+            case 'f':
+                readLiteral("false");
+                return Token.BOOLEAN;
+            case 'n':
+                readLiteral("null");
+                return Token.NULL;
+            case -1:
+                throw error("unexpected end of document");
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    readNumber((char) c);
+                    return Token.NUMBER;
+                }
+                throw error("unexpected character '" + (char) c + "'");
+        }
+    }
+
+    private Token open(boolean object) throws IOException {
+        if (++depth >= MAX_DEPTH) {
+            throw error("nesting is too deep");
+        }
+        objectStack[depth] = object;
+        firstStack[depth] = true;
+        return object ? Token.BEGIN_OBJECT : Token.BEGIN_ARRAY;
+    }
+
+    private void readString() throws IOException {
+        text.setLength(0);
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                throw error("unterminated string");
+            }
+            if (c == '"') {
+                return;
+            }
+            if (c < 0x20) {
+                throw error("control character in string");
+            }
+            if (c != '\\') {
+                text.append((char) c);
+                continue;
+            }
+            int escaped = read();
+            switch (escaped) {
+                case '"', '\\', '/' -> text.append((char) escaped);
+                case 'b' -> text.append('\b');
+                case 'f' -> text.append('\f');
+                case 'n' -> text.append('\n');
+                case 'r' -> text.append('\r');
+                case 't' -> text.append('\t');
+                case 'u' -> {
+                    int code = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int digit = Character.digit(read(), 16);
+                        if (digit < 0) {
+                            throw error("invalid unicode escape");
+                        }
+                        code = code * 16 + digit;
+                    }
+                    text.append((char) code);
+                }
+                default -> throw error("invalid escape");
+            }
+        }
+    }
+
+    private void readNumber(char first) throws IOException {
+        text.setLength(0);
+        text.append(first);
+        while (true) {
+            int c = peekChar();
+            if ((c >= '0' && c <= '9') || c == '.' || c == 'e' || c == 'E' || c == '+' || c == '-') {
+                text.append((char) c);
+                pos++;
+            } else {
+                break;
+            }
+        }
+        char last = text.charAt(text.length() - 1);
+        if (last < '0' || last > '9') {
+            throw error("malformed number '" + text + "'");
+        }
+    }
+
+    private void readLiteral(String word) throws IOException {
+        for (int i = 1; i < word.length(); i++) {
+            if (read() != word.charAt(i)) {
+                throw error("unexpected literal");
+            }
+        }
+        text.setLength(0);
+        text.append(word);
+    }
+
+    private int nextNonWhitespace() throws IOException {
+        int c;
+        do {
+            c = read();
+        } while (c == ' ' || c == '\n' || c == '\r' || c == '\t');
+        return c;
+    }
+
+    private int peekChar() throws IOException {
+        if (pos == limit && !fill()) {
+            return -1;
+        }
+        return buffer[pos];
+    }
+
+    private int read() throws IOException {
+        if (pos == limit && !fill()) {
+            return -1;
+        }
+        return buffer[pos++];
+    }
+
+    private boolean fill() throws IOException {
+        consumed += limit;
+        pos = 0;
+        limit = 0;
+        int read = reader.read(buffer, 0, buffer.length);
+        if (read <= 0) {
+            return false;
+        }
+        limit = read;
+        return true;
+    }
+
+    private IOException error(String message) {
+        return new IOException("Malformed JSON: " + message + " at character " + position());
+    }
+}
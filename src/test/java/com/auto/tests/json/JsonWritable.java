@@ -0,0 +1,13 @@
+package com.auto.tests.json;
+
+/**
+ * Модель, которая умеет сама записать себя в {@link JsonWriter} без промежуточных строк.
+ */
+public interface JsonWritable {
+
+    void writeJson(JsonWriter out);
+
+    default byte[] toJson() {
+        return JsonWriter.toBytes(this);
+    }
+}
@@ -0,0 +1,302 @@
+package com.auto.tests.json;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Потоковый JSON-писатель прямо в UTF-8 байты. toBytes берет писатель из небольшого общего пула, а не из
+ * ThreadLocal: сидер и нагрузка пишут тела в новых виртуальных потоках, и буфер потока выбрасывался бы после
+ * одного запроса. Наружу отдается одна копия точного размера, которую можно передать в body() запроса.
+ */
+public final class JsonWriter {
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes();
+    private static final int POOL_SIZE = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+    // буфер крупнее (пачка сидера на тысячи пользователей) в пул не возвращается, чтобы не держать память
+    private static final int MAX_POOLED_BYTES = 1 << 20;
+    private static final BlockingQueue<JsonWriter> POOL = new ArrayBlockingQueue<>(POOL_SIZE);
+
+    private byte[] buffer;
+    private int size;
+    // Бит на уровень вложенности: 1 - на этом уровне уже есть элемент и перед следующим нужна запятая
+    private long commaBits;
+    private int depth;
+    private boolean afterName;
+
+    public JsonWriter(int initialCapacity) {
+        buffer = new byte[initialCapacity];
+    }
+
+    public static byte[] toBytes(JsonWritable value) {
+        JsonWriter out = borrow();
+        try {
+            value.writeJson(out);
+            return out.toByteArray();
+        } finally {
+            release(out);
+        }
+    }
+
+    public static byte[] toBytes(Collection<? extends JsonWritable> values) {
+        JsonWriter out = borrow();
+        try {
+            out.beginArray();
+            for (JsonWritable value : values) {
+                value.writeJson(out);
+            }
+            out.endArray();
+            return out.toByteArray();
+        } finally {
+            release(out);
+        }
+    }
+
+    private static JsonWriter borrow() {
+        JsonWriter out = POOL.poll();
+        return out == null ? new JsonWriter(4096) : out.reset();
+    }
+
+    private static void release(JsonWriter out) {
+        if (out.buffer.length <= MAX_POOLED_BYTES) {
+            POOL.offer(out);
+        }
+    }
+
+    public JsonWriter reset() {
+        size = 0;
+        commaBits = 0;
+        depth = 0;
+        afterName = false;
+        return this;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public byte[] buffer() {
+        return buffer;
+    }
+
+    public JsonWriter beginObject() {
+        beforeValue();
+        return open('{');
+    }
+
+    public JsonWriter endObject() {
+        return close('}');
+    }
+
+    public JsonWriter beginArray() {
+        beforeValue();
+        return open('[');
+    }
+
+    public JsonWriter endArray() {
+        return close(']');
+    }
+
+    public JsonWriter name(String name) {
+        beforeValue();
+        writeString(name);
+        put((byte) ':');
+        afterName = true;
+        return this;
+    }
+
+    public JsonWriter value(String value) {
+        beforeValue();
+        if (value == null) {
+            writeAscii("null");
+        } else {
+            writeString(value);
+        }
+        return this;
+    }
+
+    public JsonWriter value(long value) {
+        beforeValue();
+        if (value == Long.MIN_VALUE) {
+            writeAscii(Long.toString(value));
+            return this;
+        }
+        if (value < 0) {
+            put((byte) '-');
+            value = -value;
+        }
+        int digits = 1;
+        for (long rest = value / 10; rest != 0; rest /= 10) {
+            digits++;
+        }
+        ensure(digits);
+        for (int i = size + digits - 1; i >= size; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        size += digits;
+        return this;
+    }
+
+    public JsonWriter value(boolean value) {
+        beforeValue();
+        writeAscii(value ? "true" : "false");
+        return this;
+    }
+
+    public JsonWriter value(JsonWritable value) {
+        if (value == null) {
+            beforeValue();
+            writeAscii("null");
+        } else {
+            value.writeJson(this);
+        }
+        return this;
+    }
+
+    // Поля со значением null пропускаются: так же ведут себя исходные JSON-строки тестов
+    public JsonWriter field(String name, String value) {
+        return value == null ? this : name(name).value(value);
+    }
+
+    public JsonWriter field(String name, Long value) {
+        return value == null ? this : name(name).value(value.longValue());
+    }
+
+    public JsonWriter field(String name, Integer value) {
+        return value == null ? this : name(name).value(value.longValue());
+    }
+
+    public JsonWriter field(String name, Boolean value) {
+        return value == null ? this : name(name).value(value.booleanValue());
+    }
+
+    public JsonWriter field(String name, JsonWritable value) {
+        return value == null ? this : name(name).value(value);
+    }
+
+    public JsonWriter stringArray(String name, Collection<String> values) {
+        if (values == null) {
+            return this;
+        }
+        name(name).beginArray();
+        for (String value : values) {
+            value(value);
+        }
+        return endArray();
+    }
+
+    public JsonWriter array(String name, Collection<? extends JsonWritable> values) {
+        if (values == null) {
+            return this;
+        }
+        name(name).beginArray();
+        for (JsonWritable value : values) {
+            value(value);
+        }
+        return endArray();
+    }
+
+    private void beforeValue() {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        long bit = 1L << depth;
+        if ((commaBits & bit) != 0) {
+            put((byte) ',');
+        }
+        commaBits |= bit;
+    }
+
+    private JsonWriter open(char bracket) {
+        put((byte) bracket);
+        depth++;
+        if (depth >= Long.SIZE) {
+            throw new IllegalStateException("JSON nesting is too deep");
+        }
+        commaBits &= ~(1L << depth);
+        return this;
+    }
+
+    private JsonWriter close(char bracket) {
+        commaBits &= ~(1L << depth);
+        depth--;
+        put((byte) bracket);
+        return this;
+    }
+
+    private void writeString(String value) {
+        ensure(value.length() + 2);
+        buffer[size++] = '"';
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 0x20 && c < 0x80 && c != '"' && c != '\\') {
+                put((byte) c);
+            } else if (c == '"' || c == '\\') {
+                put((byte) '\\');
+                put((byte) c);
+            } else if (c < 0x20) {
+                escapeControl(c);
+            } else if (c < 0x800) {
+                put((byte) (0xC0 | c >> 6));
+                put((byte) (0x80 | c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                put((byte) (0xF0 | codePoint >> 18));
+                put((byte) (0x80 | codePoint >> 12 & 0x3F));
+                put((byte) (0x80 | codePoint >> 6 & 0x3F));
+                put((byte) (0x80 | codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // одиночная половина суррогатной пары в UTF-8 невалидна, вместо нее пишем U+FFFD
+                put((byte) 0xEF);
+                put((byte) 0xBF);
+                put((byte) 0xBD);
+            } else {
+                put((byte) (0xE0 | c >> 12));
+                put((byte) (0x80 | c >> 6 & 0x3F));
+                put((byte) (0x80 | c & 0x3F));
+            }
+        }
+        put((byte) '"');
+    }
+
+    private void escapeControl(char c) {
+        switch (c) {
+            case '\n' -> writeAscii("\\n");
+            case '\r' -> writeAscii("\\r");
+            case '\t' -> writeAscii("\\t");
+            default -> {
+                writeAscii("\\u00");
+                put(HEX[c >> 4]);
+                put(HEX[c & 0xF]);
+            }
+        }
+    }
+
+    private void writeAscii(String text) {
+        ensure(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            buffer[size++] = (byte) text.charAt(i);
+        }
+    }
+
+    private void put(byte b) {
+        if (size == buffer.length) {
+            ensure(1);
+        }
+        buffer[size++] = b;
+    }
+
+    private void ensure(int extra) {
+        if (size + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.auto.tests.json;
+
+import com.auto.tests.model.Category;
+import com.auto.tests.model.Pet;
+import com.auto.tests.model.Tag;
+import com.auto.tests.model.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class JsonWriterTest {
+
+    @Test
+    @DisplayName("Модели сериализуются в валидный JSON с пропуском пустых полей")
+    public void testModelsRoundTrip() {
+        Pet pet = Pet.builder()
+                .id(123450L)
+                .category(new Category(1L, "Собаки"))
+                .name("Igor \"the dog\"\n")
+                .photoUrls(List.of("http://example.ru/1.png"))
+                .tags(List.of(new Tag(7L, "tag"), new Tag(8L, null)))
+                .build();
+
+        Map<?, ?> parsed = (Map<?, ?>) Json.parse(new String(pet.toJson(), StandardCharsets.UTF_8));
+
+        assertThat(parsed.get("id"), equalTo(123450L));
+        assertThat(parsed.get("name"), equalTo("Igor \"the dog\"\n"));
+        assertThat(((Map<?, ?>) parsed.get("category")).get("name"), equalTo("Собаки"));
+        assertThat((List<?>) parsed.get("tags"), hasSize(2));
+        assertThat(parsed.containsKey("status"), is(false));
+    }
+
+    @Test
+    @DisplayName("Массив пользователей пишется одним буфером, числа и знаки сохраняются")
+    public void testUserArray() {
+        List<User> users = List.of(
+                User.builder().id(-5L).username("a😀").userStatus(0).build(),
+                User.builder().id(Long.MAX_VALUE).username("b").build());
+
+        List<?> parsed = (List<?>) Json.parse(new String(JsonWriter.toBytes(users), StandardCharsets.UTF_8));
+
+        assertThat(parsed, hasSize(2));
+        assertThat(((Map<?, ?>) parsed.get(0)).get("id"), equalTo(-5L));
+        assertThat(((Map<?, ?>) parsed.get(0)).get("username"), equalTo("a😀"));
+        assertThat(((Map<?, ?>) parsed.get(1)).get("id"), equalTo(Long.MAX_VALUE));
+    }
+
+    @Test
+    @DisplayName("Разбор принимает только ASCII-цифры и пробелы JSON")
+    public void testParseRejectsNonJsonDigitsAndWhitespace() {
+        assertThat(Json.parse(" \t\r\n[1, 2.5e1]\n"), equalTo(List.of(1L, 25.0)));
+        assertThrows(Json.ParseException.class, () -> Json.parse("[\u0661]"));
+        assertThrows(Json.ParseException.class, () -> Json.parse("\u00a0{}"));
+        assertThrows(Json.ParseException.class, () -> Json.parse("[1\u000b]"));
+    }
+
+    @Test
+    @DisplayName("Одиночный суррогат пишется как U+FFFD, а не как невалидный UTF-8")
+    public void testLoneSurrogate() {
+        String value = "a\ud83d" + "b\ude00";
+        byte[] bytes = new JsonWriter(16).beginArray().value(value).endArray().toByteArray();
+
+        assertThat(bytes, equalTo(new byte[]{'[', '"', 'a', (byte) 0xEF, (byte) 0xBF, (byte) 0xBD,
+                'b', (byte) 0xEF, (byte) 0xBF, (byte) 0xBD, '"', ']'}));
+        assertThat(Json.parse(new String(bytes, StandardCharsets.UTF_8)), equalTo(List.of("a\ufffdb\ufffd")));
+    }
+
+    @Test
+    @DisplayName("Писатели из общего пула не смешивают тела, записанные в разных виртуальных потоках")
+    public void testPooledWritersAcrossVirtualThreads() throws Exception {
+        List<Future<byte[]>> bodies = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < 500; i++) {
+                User user = User.builder().id(i).username("u" + i).build();
+                bodies.add(executor.submit(() -> JsonWriter.toBytes(user)));
+            }
+        }
+        for (int i = 0; i < bodies.size(); i++) {
+            Map<?, ?> parsed = (Map<?, ?>) Json.parse(new String(bodies.get(i).get(), StandardCharsets.UTF_8));
+            assertThat(parsed.get("username"), equalTo("u" + i));
+        }
+    }
+}
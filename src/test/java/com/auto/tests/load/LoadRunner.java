@@ -0,0 +1,245 @@
+package com.auto.tests.load;
+
+import com.auto.tests.BaseClass;
+import com.auto.tests.json.Json;
+import com.auto.tests.metrics.ConnectionPoolMetrics;
+import com.auto.tests.metrics.LatencyHistogram;
+import com.auto.tests.metrics.LatencyRegistry;
+import com.auto.tests.ratelimit.RateLimitFilter;
+import com.auto.tests.support.RunReportListener;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Нагрузочный прогон сценариев {@link Scenarios} по открытой модели: итерации стартуют с заданной частотой
+ * независимо от того, успели ли завершиться предыдущие. Время ответа считается от запланированного момента
+ * старта (поправка на coordinated omission), время обслуживания - от фактического.
+ *
+ * <p>Параметры (системные свойства): load.rps, load.durationSeconds, load.mix ("pet=3,order=1"),
+ * load.maxInFlight, load.maxErrorRate.
+ */
+public final class LoadRunner {
+
+    private final double rps;
+    private final Duration duration;
+    private final int maxInFlight;
+    private final List<ScenarioStats> scenarios;
+    private final int[] cumulativeWeights;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong peakInFlight = new AtomicLong();
+
+    // выше этой частоты планировщик с одним потоком запуска все равно не успевает, а интервал теряет точность
+    static final double MAX_RPS = 1_000_000;
+
+    public LoadRunner(double rps, Duration duration, Map<String, Integer> mix, int maxInFlight) {
+        if (!(rps > 0 && rps <= MAX_RPS)) {
+            throw new IllegalArgumentException("load.rps must be in (0, " + (long) MAX_RPS + "], got " + rps);
+        }
+        if (duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("load.durationSeconds must be positive, got " + duration.toSeconds());
+        }
+        Map<String, Runnable> available = Scenarios.all();
+        this.rps = rps;
+        this.duration = duration;
+        this.maxInFlight = maxInFlight;
+        this.scenarios = mix.keySet().stream().map(name -> {
+            Runnable body = available.get(name);
+            if (body == null) {
+                throw new IllegalArgumentException("Unknown scenario '" + name + "', expected one of " + available.keySet());
+            }
+            return new ScenarioStats(name, body);
+        }).toList();
+        this.cumulativeWeights = new int[scenarios.size()];
+        int sum = 0;
+        int i = 0;
+        for (int weight : mix.values()) {
+            sum += weight;
+            cumulativeWeights[i++] = sum;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        LoadRunner runner = new LoadRunner(
+                Double.parseDouble(System.getProperty("load.rps", "50")),
+                Duration.ofSeconds(Long.getLong("load.durationSeconds", 30)),
+                parseMix(System.getProperty("load.mix", "pet=1,order=1")),
+                Integer.getInteger("load.maxInFlight", 10_000));
+        double maxErrorRate = Double.parseDouble(System.getProperty("load.maxErrorRate", "0.01"));
+
+        BaseClass.globalSetup();
+        Map<String, Object> report = runner.run();
+
+        Path dir = RunReportListener.reportsDir();
+        Files.createDirectories(dir);
+        Files.writeString(dir.resolve("load.json"), Json.write(report));
+        LatencyRegistry.writeReport(dir);
+        ConnectionPoolMetrics.writeReport(dir);
+        RateLimitFilter.writeReport(dir);
+        runner.print();
+
+        double errorRate = runner.errorRate();
+        System.out.printf("Доля ошибок: %.4f (допустимо %.4f), отчеты: %s%n", errorRate, maxErrorRate, dir.toAbsolutePath());
+        System.exit(errorRate > maxErrorRate ? 1 : 0);
+    }
+
+    public Map<String, Object> run() {
+        double intervalNanos = 1e9 / rps;
+        long durationNanos = duration.toNanos();
+        long start = System.nanoTime();
+        Random random = new Random();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; ; i++) {
+                // смещение от старта в double: без округления интервала до целых наносекунд и без переполнения
+                double offset = i * intervalNanos;
+                if (offset >= durationNanos) {
+                    break;
+                }
+                long intended = start + (long) offset;
+                for (long wait; (wait = intended - System.nanoTime()) > 0; ) {
+                    LockSupport.parkNanos(wait);
+                }
+                ScenarioStats scenario = pick(random);
+                if (inFlight.incrementAndGet() > maxInFlight) {
+                    inFlight.decrementAndGet();
+                    scenario.dropped.increment();
+                    continue;
+                }
+                peakInFlight.accumulateAndGet(inFlight.get(), Math::max);
+                workers.execute(() -> scenario.execute(intended, inFlight));
+            }
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("targetRps", rps);
+        report.put("durationSeconds", duration.toSeconds());
+        report.put("elapsedSeconds", Math.round(elapsedSeconds * 100) / 100.0);
+        report.put("peakInFlight", peakInFlight.get());
+        Map<String, Object> perScenario = new LinkedHashMap<>();
+        for (ScenarioStats scenario : scenarios) {
+            perScenario.put(scenario.name, scenario.toMap(elapsedSeconds));
+        }
+        report.put("scenarios", perScenario);
+        return report;
+    }
+
+    public double errorRate() {
+        long started = 0;
+        long failed = 0;
+        for (ScenarioStats scenario : scenarios) {
+            started += scenario.completed.sum() + scenario.errors.sum() + scenario.dropped.sum();
+            failed += scenario.errors.sum() + scenario.dropped.sum();
+        }
+        return started == 0 ? 0 : (double) failed / started;
+    }
+
+    public void print() {
+        System.out.printf("%-8s %9s %7s %8s %10s %10s %10s %10s %10s%n",
+                "scenario", "completed", "errors", "dropped", "resp p50", "resp p90", "resp p99", "resp max", "svc p99");
+        for (ScenarioStats s : scenarios) {
+            System.out.printf("%-8s %9d %7d %8d %8.2fms %8.2fms %8.2fms %8.2fms %8.2fms%n",
+                    s.name, s.completed.sum(), s.errors.sum(), s.dropped.sum(),
+                    LatencyRegistry.millis(s.response.percentile(50)), LatencyRegistry.millis(s.response.percentile(90)),
+                    LatencyRegistry.millis(s.response.percentile(99)), LatencyRegistry.millis(s.response.max()),
+                    LatencyRegistry.millis(s.service.percentile(99)));
+            if (s.firstError != null) {
+                System.out.println("  первая ошибка: " + s.firstError);
+            }
+        }
+    }
+
+    private ScenarioStats pick(Random random) {
+        int roll = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return scenarios.get(i);
+            }
+        }
+        return scenarios.get(scenarios.size() - 1);
+    }
+
+    public static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split("=");
+            int weight = pair.length > 1 ? Integer.parseInt(pair[1].trim()) : 1;
+            if (weight > 0) {
+                weights.put(pair[0].trim(), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Empty scenario mix: '" + mix + "'");
+        }
+        return weights;
+    }
+
+    private static final class ScenarioStats {
+        final String name;
+        final Runnable body;
+        final LatencyHistogram response = new LatencyHistogram();
+        final LatencyHistogram service = new LatencyHistogram();
+        final LongAdder completed = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder dropped = new LongAdder();
+        volatile String firstError;
+
+        ScenarioStats(String name, Runnable body) {
+            this.name = name;
+            this.body = body;
+        }
+
+        void execute(long intendedStart, AtomicInteger inFlight) {
+            long actualStart = System.nanoTime();
+            try {
+                body.run();
+                completed.increment();
+            } catch (Throwable e) {
+                errors.increment();
+                if (firstError == null) {
+                    firstError = e.toString().lines().findFirst().orElse(e.getClass().getName());
+                }
+            } finally {
+                long done = System.nanoTime();
+                response.record(done - intendedStart);
+                service.record(done - actualStart);
+                inFlight.decrementAndGet();
+            }
+        }
+
+        Map<String, Object> toMap(double elapsedSeconds) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("completed", completed.sum());
+            map.put("errors", errors.sum());
+            map.put("dropped", dropped.sum());
+            map.put("achievedRps", Math.round(completed.sum() / elapsedSeconds * 100) / 100.0);
+            map.put("responseTime", percentiles(response));
+            map.put("serviceTime", percentiles(service));
+            if (firstError != null) {
+                map.put("firstError", firstError);
+            }
+            return map;
+        }
+
+        private static Map<String, Object> percentiles(LatencyHistogram histogram) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("p50Ms", LatencyRegistry.millis(histogram.percentile(50)));
+            map.put("p90Ms", LatencyRegistry.millis(histogram.percentile(90)));
+            map.put("p99Ms", LatencyRegistry.millis(histogram.percentile(99)));
+            map.put("maxMs", LatencyRegistry.millis(histogram.max()));
+            return map;
+        }
+    }
+}
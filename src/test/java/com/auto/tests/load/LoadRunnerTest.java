@@ -0,0 +1,33 @@
+package com.auto.tests.load;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class LoadRunnerTest {
+
+    private static final Map<String, Integer> MIX = Map.of("pet", 1);
+
+    @Test
+    @DisplayName("Нулевая, отрицательная, NaN и нереальная частота отклоняются до запуска")
+    public void testRejectsInvalidRate() {
+        for (double rps : new double[]{0, -5, Double.NaN, Double.POSITIVE_INFINITY, 2e9}) {
+            assertThrows(IllegalArgumentException.class, () -> new LoadRunner(rps, Duration.ofSeconds(1), MIX, 10));
+        }
+        assertThrows(IllegalArgumentException.class, () -> new LoadRunner(10, Duration.ZERO, MIX, 10));
+    }
+
+    @Test
+    @DisplayName("Дробная частота допустима, неизвестный сценарий - ошибка")
+    public void testMixAndFractionalRate() {
+        new LoadRunner(0.5, Duration.ofSeconds(1), MIX, 10);
+        assertThrows(IllegalArgumentException.class, () -> new LoadRunner(1, Duration.ofSeconds(1), Map.of("cart", 1), 10));
+        assertThat(LoadRunner.parseMix("pet=3, order=0,user"), equalTo(Map.of("pet", 3, "user", 1)));
+    }
+}
@@ -0,0 +1,64 @@
+package com.auto.tests.load;
+
+import com.auto.tests.model.Order;
+import com.auto.tests.model.Pet;
+import com.auto.tests.model.User;
+import com.auto.tests.steps.PetSteps;
+import com.auto.tests.steps.StoreSteps;
+import com.auto.tests.steps.UserSteps;
+import com.auto.tests.support.RunIds;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Пользовательские сценарии из функциональных тестов в виде одной итерации для нагрузки: сценарий
+ * собран из тех же шагов {@code steps} с теми же проверками, что и PetTests/StoreTests/UsersTests, и
+ * повторяет порядок их шагов по @DependsOn. Каждая итерация работает со своими сущностями, поэтому
+ * итерации можно запускать параллельно.
+ */
+public final class Scenarios {
+
+    private Scenarios() {
+    }
+
+    public static Map<String, Runnable> all() {
+        Map<String, Runnable> scenarios = new LinkedHashMap<>();
+        scenarios.put("pet", Scenarios::petLifecycle);
+        scenarios.put("order", Scenarios::orderLifecycle);
+        scenarios.put("user", Scenarios::userLifecycle);
+        return scenarios;
+    }
+
+    // PetTests: добавление -> получение -> обновление статуса -> загрузка изображения -> удаление
+    public static void petLifecycle() {
+        long petId = RunIds.nextId();
+        Pet pet = Pet.builder().id(petId).name("Igor").status("available").build();
+        PetSteps.add(pet);
+        PetSteps.get(petId);
+        PetSteps.update(pet.toBuilder().status("sold").build());
+        PetSteps.uploadImage(petId);
+        PetSteps.delete(petId);
+    }
+
+    // StoreTests: размещение заказа -> получение по ID -> удаление
+    public static void orderLifecycle() {
+        long orderId = RunIds.nextId();
+        StoreSteps.place(Order.builder().id(orderId).petId(RunIds.nextId()).quantity(2)
+                .shipDate("2025-11-08T16:07:21.524Z").status("placed").complete(true).build());
+        StoreSteps.get(orderId);
+        StoreSteps.delete(orderId);
+    }
+
+    // UsersTests: создание -> получение -> обновление -> вход и выход -> удаление
+    public static void userLifecycle() {
+        String username = RunIds.username("soak");
+        User user = User.builder().id(RunIds.nextId()).username(username).firstName("Andrey").lastName("Andreev")
+                .email("andrew@example.ru").password("123321").phone("123-456-7890").userStatus(1).build();
+        UserSteps.create(user);
+        UserSteps.get(username);
+        UserSteps.update(username, user.toBuilder().firstName("Andrew").build());
+        UserSteps.logout(username, "123321");
+        UserSteps.delete(username);
+    }
+}
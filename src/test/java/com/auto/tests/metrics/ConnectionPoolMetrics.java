@@ -0,0 +1,71 @@
+package com.auto.tests.metrics;
+
+import com.auto.tests.json.Json;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Счетчики общего пула соединений за прогон: выдачи уже открытого соединения (hit), открытия нового (miss),
+ * TLS-рукопожатия и ожидание свободного соединения в пуле.
+ */
+public final class ConnectionPoolMetrics {
+
+    private static final LongAdder HITS = new LongAdder();
+    private static final LongAdder MISSES = new LongAdder();
+    private static final LongAdder HANDSHAKES = new LongAdder();
+    private static final LatencyHistogram WAIT = new LatencyHistogram();
+
+    private ConnectionPoolMetrics() {
+    }
+
+    static void lease(boolean reused, long waitNanos) {
+        (reused ? HITS : MISSES).increment();
+        WAIT.record(waitNanos);
+    }
+
+    static void handshake() {
+        HANDSHAKES.increment();
+    }
+
+    public static long hits() {
+        return HITS.sum();
+    }
+
+    public static long misses() {
+        return MISSES.sum();
+    }
+
+    public static long handshakes() {
+        return HANDSHAKES.sum();
+    }
+
+    public static Map<String, Object> snapshot() {
+        long hits = hits();
+        long leases = hits + misses();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("leases", leases);
+        stats.put("hits", hits);
+        stats.put("misses", misses());
+        stats.put("reuseRatio", leases == 0 ? 0.0 : Math.round(hits * 10_000.0 / leases) / 10_000.0);
+        stats.put("tlsHandshakes", handshakes());
+        stats.put("waitP99Ms", LatencyRegistry.millis(WAIT.percentile(99)));
+        stats.put("waitMaxMs", LatencyRegistry.millis(WAIT.max()));
+        stats.put("waitTotalMs", LatencyRegistry.millis((long) (WAIT.mean() * WAIT.count())));
+        return stats;
+    }
+
+    public static void writeReport(Path dir) throws IOException {
+        if (hits() + misses() == 0) {
+            return;
+        }
+        Map<String, Object> stats = snapshot();
+        Files.createDirectories(dir);
+        Files.writeString(dir.resolve("connections.json"), Json.write(stats));
+        System.out.println("Пул соединений: " + stats);
+    }
+}
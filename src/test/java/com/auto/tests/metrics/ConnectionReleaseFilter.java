@@ -0,0 +1,53 @@
+package com.auto.tests.metrics;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.internal.RestAssuredResponseOptionsImpl;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Дочитывает тело ответа сразу, чтобы соединение вернулось в общий пул, даже если тест проверяет только статус.
+ * Тела больше petstore.http.bufferBytes остаются потоковыми (например, большой findByStatus) - соединение
+ * освобождается, когда поток дочитан или закрыт.
+ */
+public class ConnectionReleaseFilter implements Filter {
+
+    private static final int BUFFER_BYTES = Integer.getInteger("petstore.http.bufferBytes", 1 << 20);
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        Response response = ctx.next(requestSpec, responseSpec);
+        if (!(response instanceof RestAssuredResponseOptionsImpl<?> impl)) {
+            return response;
+        }
+        InputStream body = response.asInputStream();
+        if (body == null) {
+            return response;
+        }
+        try {
+            byte[] head = body.readNBytes(BUFFER_BYTES);
+            int next = head.length < BUFFER_BYTES ? -1 : body.read();
+            if (next < 0) {
+                body.close();
+                impl.setContent(head);
+            } else {
+                impl.setContent(new SequenceInputStream(
+                        new ByteArrayInputStream(head),
+                        new SequenceInputStream(new ByteArrayInputStream(new byte[]{(byte) next}), body)));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return response;
+    }
+}
@@ -0,0 +1,51 @@
+package com.auto.tests.metrics;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+/**
+ * Глобальный фильтр RestAssured: пишет фазы каждого запроса в {@link LatencyRegistry}
+ * с ключом "метод + шаблон пути", например "GET /pet/{petId}". Ответы из кассеты не записываются:
+ * их время - не задержка сервиса, а отчеты задержек читают проверка и пробник.
+ */
+public class LatencyFilter implements Filter {
+
+    private final boolean record;
+
+    public LatencyFilter(boolean record) {
+        this.record = record;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        boolean first = StartupTiming.firstRequest();
+        RequestTiming timing = RequestTiming.begin();
+        try {
+            return ctx.next(requestSpec, responseSpec);
+        } finally {
+            if (first) {
+                StartupTiming.mark("firstResponse");
+            }
+            long total = System.nanoTime() - timing.startNanos;
+            RequestTiming.end();
+            if (record) {
+                LatencyRegistry.endpoint(endpointKey(requestSpec))
+                        .record(timing.dnsNanos, timing.connectNanos, timing.firstByteNanos == 0 ? total : timing.firstByteNanos, total);
+            }
+        }
+    }
+
+    public static String endpointKey(FilterableRequestSpecification requestSpec) {
+        String path = requestSpec.getUserDefinedPath();
+        if (path == null || path.isEmpty()) {
+            path = requestSpec.getDerivedPath();
+        }
+        int query = path.indexOf('?');
+        return requestSpec.getMethod() + " " + (query < 0 ? path : path.substring(0, query));
+    }
+}
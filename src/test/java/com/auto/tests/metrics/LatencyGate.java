@@ -0,0 +1,206 @@
+package com.auto.tests.metrics;
+
+import com.auto.tests.json.Json;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Проверка задержек прогона против сохраненной базы (gradle/latency-baseline.json) по эндпоинтам.
+ * Одна выборка ничего не доказывает, поэтому регрессией считается только сдвиг, который одновременно
+ * статистически значим и заметен: доля запросов медленнее перцентиля базы выросла по одностороннему
+ * z-тесту двух долей с уровнем alpha, перцентиль вырос больше чем на tolerance и больше чем на minDeltaMs.
+ *
+ * <p>Аргументы: check|accept, файл базы, каталог отчетов (build/reports). Гистограммы берутся из
+ * latency-histograms.json в каталогах отчетов latency.reports ("petstore-latencyProbe"): сравниваются только замеры
+ * пробника, снятые подряд на одной машине, без холодных и параллельных прогонов тестов и шардов.
+ * Параметры (системные свойства): latency.percentile (95), latency.tolerance (0.2), latency.alpha (0.01),
+ * latency.minSamples (20), latency.minDeltaMs (5). Функциональные тесты вызывают большинство эндпоинтов по
+ * разу, выборку набирает {@link LatencyProbe}; эндпоинт, у которого в базе или прогоне меньше minSamples
+ * замеров, проверить нельзя, и проверка падает (latency.failOnLowSamples=false - только предупреждает).
+ */
+public final class LatencyGate {
+
+    public static final String HISTOGRAMS_FILE = "latency-histograms.json";
+
+    private final double percentile = Double.parseDouble(System.getProperty("latency.percentile", "95"));
+    private final double tolerance = Double.parseDouble(System.getProperty("latency.tolerance", "0.2"));
+    private final double alpha = Double.parseDouble(System.getProperty("latency.alpha", "0.01"));
+    private final long minSamples = Long.getLong("latency.minSamples", 20);
+    private final long minDeltaNanos = Long.getLong("latency.minDeltaMs", 5) * 1_000_000;
+    private final List<String> lowSamples = new ArrayList<>();
+
+    LatencyGate() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path baselineFile = Path.of(args[1]);
+        Map<String, LatencyHistogram> current = readReports(Path.of(args[2]),
+                System.getProperty("latency.reports", "petstore-latencyProbe"));
+        if (current.isEmpty()) {
+            System.out.println("Нет " + HISTOGRAMS_FILE + " в " + Path.of(args[2]).toAbsolutePath() + ", сначала нужен прогон тестов");
+            System.exit(1);
+        }
+        if (args[0].equals("accept")) {
+            if (Boolean.getBoolean("latency.acceptMerge") && Files.exists(baselineFile)) {
+                readHistograms(baselineFile).forEach((endpoint, histogram) ->
+                        current.computeIfAbsent(endpoint, k -> new LatencyHistogram()).add(histogram));
+            }
+            writeHistograms(baselineFile, current);
+            System.out.printf("База задержек обновлена: %s (%d эндпоинтов)%n", baselineFile, current.size());
+            return;
+        }
+        if (!Files.exists(baselineFile)) {
+            System.out.println("Нет базы " + baselineFile + ", создайте ее задачей acceptLatencyBaseline");
+            System.exit(1);
+        }
+        LatencyGate gate = new LatencyGate();
+        List<String> regressions = gate.compare(readHistograms(baselineFile), current);
+        boolean failOnLowSamples = Boolean.parseBoolean(System.getProperty("latency.failOnLowSamples", "true"));
+        System.exit(regressions.isEmpty() && (gate.lowSamples().isEmpty() || !failOnLowSamples) ? 0 : 1);
+    }
+
+    /** Печатает таблицу сравнения и возвращает эндпоинты с регрессией. */
+    List<String> compare(Map<String, LatencyHistogram> baseline, Map<String, LatencyHistogram> current) {
+        List<String> regressions = new ArrayList<>();
+        String p = "p" + (percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile));
+        System.out.printf("%-45s %13s %12s %12s %8s %9s  %s%n", "Эндпоинт", "n база/прогон",
+                p + " база", p + " прогон", "Δ", "p-value", "");
+        for (String endpoint : union(baseline, current)) {
+            LatencyHistogram before = baseline.get(endpoint);
+            LatencyHistogram after = current.get(endpoint);
+            if (before == null || after == null) {
+                System.out.printf("%-45s %13s %s%n", endpoint, before == null ? "-/" + after.count() : before.count() + "/-",
+                        before == null ? "нет в базе" : "не вызывался в прогоне");
+                continue;
+            }
+            long was = before.percentile(percentile);
+            long now = after.percentile(percentile);
+            double pValue = tailShiftPValue(before, after, was);
+            String verdict;
+            if (before.count() < minSamples || after.count() < minSamples) {
+                verdict = "мало данных";
+                lowSamples.add(endpoint);
+            } else if (now > was * (1 + tolerance) && now - was > minDeltaNanos && pValue < alpha) {
+                verdict = "РЕГРЕССИЯ";
+                regressions.add(endpoint);
+            } else {
+                verdict = "ok";
+            }
+            System.out.printf("%-45s %13s %9.3f мс %9.3f мс %+7.0f%% %9.4f  %s%n", endpoint,
+                    before.count() + "/" + after.count(), LatencyRegistry.millis(was), LatencyRegistry.millis(now),
+                    was == 0 ? 0 : (now - was) * 100.0 / was, pValue, verdict);
+        }
+        if (!lowSamples.isEmpty()) {
+            System.out.printf("ВНИМАНИЕ: %d из %d эндпоинтов не проверены, меньше %d замеров в базе или прогоне "
+                    + "(нужен прогон latencyProbe и база, принятая после него): %s%n",
+                    lowSamples.size(), union(baseline, current).size(), minSamples, lowSamples);
+        }
+        if (regressions.isEmpty()) {
+            System.out.println("Регрессий задержек нет" + (lowSamples.isEmpty() ? "" : " среди проверенных эндпоинтов"));
+        } else {
+            System.out.printf("Регрессия %s больше чем на %.0f%% (и %d мс) при alpha=%s: %s%n", p, tolerance * 100,
+                    minDeltaNanos / 1_000_000, alpha, regressions);
+        }
+        return regressions;
+    }
+
+    /** Эндпоинты последнего {@link #compare}, для которых не хватило замеров. */
+    List<String> lowSamples() {
+        return lowSamples;
+    }
+
+    /**
+     * Односторонний z-тест двух долей: H0 - доля запросов медленнее threshold в прогоне не больше, чем в базе.
+     * Корзины гистограмм одинаковые, поэтому доли считаются точно по корзинам без восстановления выборок.
+     */
+    static double tailShiftPValue(LatencyHistogram baseline, LatencyHistogram current, long threshold) {
+        double n1 = baseline.count();
+        double n2 = current.count();
+        if (n1 == 0 || n2 == 0) {
+            return 1;
+        }
+        double q1 = baseline.fractionAbove(threshold);
+        double q2 = current.fractionAbove(threshold);
+        double pooled = (q1 * n1 + q2 * n2) / (n1 + n2);
+        double se = Math.sqrt(pooled * (1 - pooled) * (1 / n1 + 1 / n2));
+        if (se == 0) {
+            return q2 > q1 ? 0 : 1;
+        }
+        return NormalDistribution.upperTail((q2 - q1) / se);
+    }
+
+    private static TreeSet<String> union(Map<String, ?> a, Map<String, ?> b) {
+        TreeSet<String> keys = new TreeSet<>(a.keySet());
+        keys.addAll(b.keySet());
+        return keys;
+    }
+
+    static Map<String, LatencyHistogram> readReports(Path root, String patterns) throws IOException {
+        Map<String, LatencyHistogram> merged = new TreeMap<>();
+        if (!Files.isDirectory(root)) {
+            return merged;
+        }
+        for (String pattern : patterns.split(",")) {
+            try (DirectoryStream<Path> dirs = Files.newDirectoryStream(root, pattern.trim())) {
+                for (Path dir : dirs) {
+                    Path file = dir.resolve(HISTOGRAMS_FILE);
+                    if (Files.exists(file)) {
+                        readHistograms(file).forEach((endpoint, histogram) ->
+                                merged.computeIfAbsent(endpoint, k -> new LatencyHistogram()).add(histogram));
+                    }
+                }
+            }
+        }
+        return merged;
+    }
+
+    static Map<String, LatencyHistogram> readHistograms(Path file) throws IOException {
+        Map<String, LatencyHistogram> result = new TreeMap<>();
+        ((Map<?, ?>) Json.parse(Files.readString(file))).forEach((endpoint, value) -> {
+            Map<?, ?> json = (Map<?, ?>) value;
+            Map<Integer, Long> buckets = new TreeMap<>();
+            ((Map<?, ?>) json.get("buckets")).forEach((index, count) ->
+                    buckets.put(Integer.parseInt((String) index), ((Number) count).longValue()));
+            result.put((String) endpoint, LatencyHistogram.fromBuckets(buckets, ((Number) json.get("max")).longValue()));
+        });
+        return result;
+    }
+
+    /** Пишет гистограммы total по эндпоинтам, по строке на эндпоинт, чтобы изменения базы читались в diff. */
+    static void writeHistograms(Path file, Map<String, LatencyHistogram> histograms) {
+        StringBuilder out = new StringBuilder("{\n");
+        boolean first = true;
+        for (Map.Entry<String, LatencyHistogram> entry : new TreeMap<>(histograms).entrySet()) {
+            if (!first) {
+                out.append(",\n");
+            }
+            first = false;
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("count", entry.getValue().count());
+            json.put("max", entry.getValue().max());
+            json.put("buckets", entry.getValue().buckets());
+            Json.quote(out, entry.getKey());
+            out.append(':');
+            Json.write(out, json);
+        }
+        out.append("\n}\n");
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Files.writeString(file, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.auto.tests.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class LatencyGateTest {
+
+    private static LatencyHistogram sample(long seed, double meanMillis, int count) {
+        Random random = new Random(seed);
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < count; i++) {
+            histogram.record((long) (meanMillis * 1_000_000 * (0.5 + random.nextDouble())));
+        }
+        return histogram;
+    }
+
+    @Test
+    @DisplayName("Повтор того же распределения - не регрессия, сдвиг хвоста вдвое - регрессия")
+    public void testTailShiftDetected() {
+        LatencyHistogram baseline = sample(1, 40, 200);
+
+        assertThat(new LatencyGate().compare(Map.of("GET /store/inventory", baseline),
+                Map.of("GET /store/inventory", sample(2, 40, 200))), empty());
+        assertThat(new LatencyGate().compare(Map.of("GET /store/inventory", baseline),
+                Map.of("GET /store/inventory", sample(3, 80, 200))), contains("GET /store/inventory"));
+    }
+
+    @Test
+    @DisplayName("Гистограмма переживает сохранение в файл без потери перцентилей")
+    public void testHistogramRoundTrip() throws Exception {
+        Path file = Files.createTempFile("latency", ".json");
+        LatencyHistogram histogram = sample(4, 10, 500);
+        LatencyGate.writeHistograms(file, Map.of("GET /pet/{petId}", histogram));
+
+        LatencyHistogram restored = LatencyGate.readHistograms(file).get("GET /pet/{petId}");
+        assertThat(restored.count(), equalTo(500L));
+        assertThat(restored.percentile(95), equalTo(histogram.percentile(95)));
+        assertThat(NormalDistribution.upperTail(1.96), closeTo(0.025, 1e-4));
+        assertThat(NormalDistribution.upperTail(-1.96), closeTo(0.975, 1e-4));
+    }
+
+    @Test
+    @DisplayName("Эндпоинт с выборкой меньше minSamples не проверяется и попадает в список непроверенных")
+    public void testLowSamplesReported() {
+        LatencyGate gate = new LatencyGate();
+        List<String> regressions = gate.compare(
+                Map.of("GET /store/inventory", sample(5, 40, 3), "GET /pet/{petId}", sample(6, 40, 200)),
+                Map.of("GET /store/inventory", sample(7, 400, 3), "GET /pet/{petId}", sample(8, 40, 200)));
+
+        assertThat(regressions, empty());
+        assertThat(gate.lowSamples(), contains("GET /store/inventory"));
+    }
+}
@@ -0,0 +1,132 @@
+package com.auto.tests.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free гистограмма задержек в наносекундах с лог-линейными корзинами:
+ * 32 подкорзины на каждую степень двойки, относительная погрешность перцентилей не больше ~3%.
+ * Запись - одно атомарное увеличение счетчика, поэтому ее можно вызывать из любого числа потоков.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        counts.incrementAndGet(indexOf(value));
+        total.increment();
+        sum.add(value);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    public long count() {
+        return total.sum();
+    }
+
+    public long max() {
+        return max.get();
+    }
+
+    public double mean() {
+        long count = count();
+        return count == 0 ? 0 : (double) sum.sum() / count;
+    }
+
+    /**
+     * Значение, не меньше которого оказались (100 - percentile)% записей; для пустой гистограммы - 0.
+     */
+    public long percentile(double percentile) {
+        long count = count();
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(upperBound(i), max());
+            }
+        }
+        return max();
+    }
+
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            long value = other.counts.get(i);
+            if (value != 0) {
+                counts.addAndGet(i, value);
+            }
+        }
+        total.add(other.total.sum());
+        sum.add(other.sum.sum());
+        max.accumulateAndGet(other.max(), Math::max);
+    }
+
+    /** Непустые корзины (индекс - число записей) для сохранения гистограммы в файл. */
+    public Map<Integer, Long> buckets() {
+        Map<Integer, Long> buckets = new TreeMap<>();
+        for (int i = 0; i < BUCKETS; i++) {
+            long value = counts.get(i);
+            if (value != 0) {
+                buckets.put(i, value);
+            }
+        }
+        return buckets;
+    }
+
+    /** Восстанавливает гистограмму из {@link #buckets()}; среднее у такой гистограммы не определено. */
+    public static LatencyHistogram fromBuckets(Map<Integer, Long> buckets, long max) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        buckets.forEach((index, value) -> {
+            histogram.counts.addAndGet(index, value);
+            histogram.total.add(value);
+        });
+        histogram.max.set(max);
+        return histogram;
+    }
+
+    /** Доля записей в корзинах строго выше корзины значения nanos. */
+    public double fractionAbove(long nanos) {
+        long count = count();
+        if (count == 0) {
+            return 0;
+        }
+        long above = 0;
+        for (int i = indexOf(nanos) + 1; i < BUCKETS; i++) {
+            above += counts.get(i);
+        }
+        return (double) above / count;
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int msb = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (msb - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (msb - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    static long upperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int msb = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int sub = index % SUB_BUCKETS;
+        long width = 1L << (msb - SUB_BUCKET_BITS);
+        long lower = (1L << msb) | (sub * width);
+        return lower + width - 1;
+    }
+}
@@ -0,0 +1,37 @@
+package com.auto.tests.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("Перцентили гистограммы задержек укладываются в погрешность корзин")
+    public void testPercentilesWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value * 1_000);
+        }
+
+        assertThat(histogram.count(), equalTo(100_000L));
+        assertThat(histogram.max(), equalTo(100_000_000L));
+        assertThat((double) histogram.percentile(50), closeTo(50_000_000, 50_000_000 * 0.035));
+        assertThat((double) histogram.percentile(99), closeTo(99_000_000, 99_000_000 * 0.035));
+        assertThat(histogram.percentile(100), equalTo(100_000_000L));
+    }
+
+    @Test
+    @DisplayName("Границы корзин согласованы с индексами для всего диапазона long")
+    public void testBucketBoundsMatchIndexes() {
+        for (long value : new long[]{0, 1, 31, 32, 33, 63, 64, 1_000_003, Long.MAX_VALUE}) {
+            int index = LatencyHistogram.indexOf(value);
+            assertThat(LatencyHistogram.upperBound(index), greaterThanOrEqualTo(value));
+            if (index > 0) {
+                assertThat(LatencyHistogram.upperBound(index - 1), lessThan(value));
+            }
+        }
+    }
+}
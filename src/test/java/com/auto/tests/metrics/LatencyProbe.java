@@ -0,0 +1,64 @@
+package com.auto.tests.metrics;
+
+import com.auto.tests.BaseClass;
+import com.auto.tests.load.Scenarios;
+import com.auto.tests.model.Pet;
+import com.auto.tests.model.User;
+import com.auto.tests.seed.BulkSeeder;
+import com.auto.tests.steps.PetSteps;
+import com.auto.tests.steps.StoreSteps;
+import com.auto.tests.steps.UserSteps;
+import com.auto.tests.support.RunIds;
+import com.auto.tests.support.RunReportListener;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.hamcrest.Matchers.anyOf;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * Выборка задержек для {@link LatencyGate}: функциональные тесты вызывают большинство эндпоинтов по разу,
+ * а перцентиль и z-тест по трем замерам ничего не значат. Пробник последовательно проходит latency.probe.samples
+ * (30) раз сценарии {@link Scenarios} и шаги остальных эндпоинтов, которые вызывают тесты, и пишет
+ * latency-histograms.json в свой каталог отчетов. Базу и проверку нужно снимать на одной машине.
+ */
+public final class LatencyProbe {
+
+    private LatencyProbe() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int samples = Integer.getInteger("latency.probe.samples", 30);
+        BaseClass.globalSetup();
+        for (int i = 0; i < samples; i++) {
+            Scenarios.all().values().forEach(Runnable::run);
+            catalog();
+        }
+        Path dir = RunReportListener.reportsDir();
+        LatencyRegistry.writeReport(dir);
+        System.out.printf("Пробник задержек: %d проходов, отчет: %s%n", samples, dir.toAbsolutePath());
+        System.exit(0);
+    }
+
+    // эндпоинты тестов, которых нет в сценариях нагрузки
+    private static void catalog() {
+        StoreSteps.inventory();
+        PetSteps.findByStatus("available", equalTo("available"));
+        PetSteps.findByStatus("available,sold", anyOf(equalTo("available"), equalTo("sold")));
+
+        long petId = RunIds.nextId();
+        PetSteps.add(Pet.builder().id(petId).name("Igor").status("available").build());
+        PetSteps.updateWithForm(petId, "Murzik", "sold");
+        PetSteps.delete(petId);
+
+        List<User> array = List.of(BulkSeeder.user(0), BulkSeeder.user(1));
+        List<User> list = List.of(BulkSeeder.user(2), BulkSeeder.user(3));
+        UserSteps.createWithArray(array);
+        UserSteps.createWithList(list);
+        UserSteps.login(array.get(0).username(), array.get(0).password());
+        array.forEach(user -> UserSteps.delete(user.username()));
+        list.forEach(user -> UserSteps.delete(user.username()));
+    }
+}
@@ -0,0 +1,101 @@
+package com.auto.tests.metrics;
+
+import com.auto.tests.json.Json;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Гистограммы задержек по эндпоинтам за весь прогон и отчет p50/p90/p99/max в JSON и CSV,
+ * плюс сами гистограммы total для {@link LatencyGate}.
+ */
+public final class LatencyRegistry {
+
+    public static final String[] PHASES = {"dns", "connect", "ttfb", "total"};
+    private static final double[] PERCENTILES = {50, 90, 99};
+
+    private static final ConcurrentMap<String, Endpoint> ENDPOINTS = new ConcurrentHashMap<>();
+
+    private LatencyRegistry() {
+    }
+
+    public static Endpoint endpoint(String key) {
+        return ENDPOINTS.computeIfAbsent(key, k -> new Endpoint());
+    }
+
+    public static Map<String, Endpoint> snapshot() {
+        return new TreeMap<>(ENDPOINTS);
+    }
+
+    public static void writeReport(Path dir) throws IOException {
+        if (ENDPOINTS.isEmpty()) {
+            return;
+        }
+        Map<String, Object> json = new LinkedHashMap<>();
+        StringBuilder csv = new StringBuilder("endpoint,phase,count,p50_ms,p90_ms,p99_ms,max_ms\n");
+        snapshot().forEach((key, endpoint) -> {
+            Map<String, Object> phases = new LinkedHashMap<>();
+            for (int i = 0; i < PHASES.length; i++) {
+                LatencyHistogram histogram = endpoint.phases[i];
+                Map<String, Object> stats = new LinkedHashMap<>();
+                stats.put("count", histogram.count());
+                csv.append('"').append(key).append("\",").append(PHASES[i]).append(',').append(histogram.count());
+                for (double percentile : PERCENTILES) {
+                    double millis = millis(histogram.percentile(percentile));
+                    stats.put("p" + (int) percentile + "Ms", millis);
+                    csv.append(',').append(millis);
+                }
+                stats.put("maxMs", millis(histogram.max()));
+                csv.append(',').append(millis(histogram.max())).append('\n');
+                phases.put(PHASES[i], stats);
+            }
+            json.put(key, phases);
+        });
+        Files.createDirectories(dir);
+        Files.writeString(dir.resolve("latency.json"), Json.write(json));
+        Files.writeString(dir.resolve("latency.csv"), csv);
+        Map<String, LatencyHistogram> totals = new TreeMap<>();
+        snapshot().forEach((key, endpoint) -> totals.put(key, endpoint.total()));
+        LatencyGate.writeHistograms(dir.resolve(LatencyGate.HISTOGRAMS_FILE), totals);
+    }
+
+    public static double millis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+
+    public static final class Endpoint {
+        private final LatencyHistogram[] phases = new LatencyHistogram[PHASES.length];
+
+        Endpoint() {
+            for (int i = 0; i < phases.length; i++) {
+                phases[i] = new LatencyHistogram();
+            }
+        }
+
+        public void record(long dnsNanos, long connectNanos, long ttfbNanos, long totalNanos) {
+            phases[0].record(dnsNanos);
+            phases[1].record(connectNanos);
+            phases[2].record(ttfbNanos);
+            phases[3].record(totalNanos);
+        }
+
+        public LatencyHistogram total() {
+            return phases[3];
+        }
+
+        public LatencyHistogram phase(String name) {
+            for (int i = 0; i < PHASES.length; i++) {
+                if (PHASES[i].equals(name)) {
+                    return phases[i];
+                }
+            }
+            throw new IllegalArgumentException("Unknown phase: " + name);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.auto.tests.metrics;
+
+/**
+ * Хвост стандартного нормального распределения для проверок значимости: сдвига хвоста задержек
+ * (LatencyGate) и роста метрик в soak-прогоне (Trend).
+ */
+public final class NormalDistribution {
+
+    private NormalDistribution() {
+    }
+
+    // P(Z > z), Абрамовиц-Стиган 26.2.17, погрешность меньше 7.5e-8
+    public static double upperTail(double z) {
+        double t = 1 / (1 + 0.2316419 * Math.abs(z));
+        double density = Math.exp(-z * z / 2) / Math.sqrt(2 * Math.PI);
+        double tail = density * t * (0.319381530 + t * (-0.356563782 + t * (1.781477937 + t * (-1.821255978 + t * 1.330274429))));
+        return z >= 0 ? tail : 1 - tail;
+    }
+}
@@ -0,0 +1,46 @@
+package com.auto.tests.metrics;
+
+/**
+ * Фазы текущего HTTP-запроса. RestAssured выполняет запрос синхронно в вызывающем потоке,
+ * поэтому фильтр открывает замер, а хуки HTTP-клиента дописывают в него DNS, соединение и первый байт.
+ */
+final class RequestTiming {
+
+    private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+
+    final long startNanos = System.nanoTime();
+    long dnsNanos;
+    long connectNanos;
+    long firstByteNanos;
+
+    static RequestTiming begin() {
+        RequestTiming timing = new RequestTiming();
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    static void addDns(long nanos) {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.dnsNanos += nanos;
+        }
+    }
+
+    static void addConnect(long nanos) {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.connectNanos += nanos;
+        }
+    }
+
+    static void markFirstByte() {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null && timing.firstByteNanos == 0) {
+            timing.firstByteNanos = System.nanoTime() - timing.startNanos;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.auto.tests.metrics;
+
+import com.auto.tests.json.Json;
+import com.sun.management.HotSpotDiagnosticMXBean;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Старт JVM тестов: миллисекунды от запуска процесса до открытия сессии JUnit, начала прогона, первого
+ * HTTP-запроса и ответа на него, сколько классов было загружено к первому запросу, сколько шел прогрев
+ * RestAssured и с каким архивом AppCDS запущена JVM. Сравнение - startup.json прогонов с -Pcds=off
+ * -Ppetstore.warmup=false и без них.
+ */
+public final class StartupTiming {
+
+    private static final long PROCESS_START = ProcessHandle.current().info().startInstant()
+            .map(Instant::toEpochMilli).orElse(ManagementFactory.getRuntimeMXBean().getStartTime());
+    private static final Map<String, Object> MARKS = new LinkedHashMap<>();
+    private static final AtomicBoolean FIRST_REQUEST = new AtomicBoolean();
+
+    private StartupTiming() {
+    }
+
+    /** Отметка этапа старта; повторные отметки того же этапа не учитываются. */
+    public static synchronized void mark(String stage) {
+        MARKS.putIfAbsent(stage + "Ms", System.currentTimeMillis() - PROCESS_START);
+    }
+
+    /** Длительность фонового прогрева RestAssured, см. RestAssuredWarmup. */
+    public static synchronized void warmup(long nanos) {
+        MARKS.put("warmupMs", LatencyRegistry.millis(nanos));
+    }
+
+    /** Вызывается на каждом запросе, true - для первого: после его ответа нужно отметить firstResponse. */
+    static boolean firstRequest() {
+        if (FIRST_REQUEST.get() || !FIRST_REQUEST.compareAndSet(false, true)) {
+            return false;
+        }
+        mark("firstRequest");
+        synchronized (StartupTiming.class) {
+            MARKS.put("classesAtFirstRequest", ManagementFactory.getClassLoadingMXBean().getTotalLoadedClassCount());
+        }
+        return true;
+    }
+
+    public static synchronized Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>(MARKS);
+        // без готового архива JVM сбрасывает SharedArchiveFile и пишет архив при выходе
+        String requested = ManagementFactory.getRuntimeMXBean().getInputArguments().stream()
+                .filter(arg -> arg.startsWith("-XX:SharedArchiveFile=")).map(arg -> arg.substring(arg.indexOf('=') + 1))
+                .findFirst().orElse("off");
+        String mapped = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class)
+                .getVMOption("SharedArchiveFile").getValue();
+        snapshot.put("cdsArchive", requested);
+        snapshot.put("cdsMapped", !mapped.isEmpty());
+        return snapshot;
+    }
+
+    public static void writeReport(Path dir) throws IOException {
+        if (!FIRST_REQUEST.get()) {
+            return;
+        }
+        Map<String, Object> snapshot = snapshot();
+        Files.createDirectories(dir);
+        Files.writeString(dir.resolve("startup.json"), Json.write(snapshot));
+        System.out.println("Старт JVM: " + snapshot);
+    }
+}
@@ -0,0 +1,205 @@
+package com.auto.tests.metrics;
+
+import com.auto.tests.jfr.WaitEvent;
+import io.restassured.config.HttpClientConfig;
+import org.apache.http.client.params.ClientPNames;
+import org.apache.http.conn.ClientConnectionRequest;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.DnsResolver;
+import org.apache.http.conn.ManagedClientConnection;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.scheme.PlainSocketFactory;
+import org.apache.http.conn.scheme.Scheme;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.conn.scheme.SchemeSocketFactory;
+import org.apache.http.conn.ssl.SSLSocketFactory;
+import org.apache.http.impl.client.AbstractHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.impl.conn.SystemDefaultDnsResolver;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.params.HttpParams;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Фабрика HTTP-клиента RestAssured, которая замеряет разрешение имени, установку соединения (вместе с TLS)
+ * и время до первого байта ответа. Все клиенты работают поверх одного пула keep-alive соединений на JVM,
+ * лимиты и таймауты задаются свойствами petstore.http.* (см. поля ниже), счетчики пула - {@link ConnectionPoolMetrics}.
+ */
+// HttpClientFactory в RestAssured 5.3 требует AbstractHttpClient, поэтому клиент, пул и схемы - устаревший API httpclient 4.x
+@SuppressWarnings("deprecation")
+public class TimedHttpClientFactory implements HttpClientConfig.HttpClientFactory {
+
+    private static final int MAX_PER_ROUTE = Integer.getInteger("petstore.http.maxPerRoute", 32);
+    private static final int MAX_TOTAL = Integer.getInteger("petstore.http.maxTotal", 128);
+    private static final int CONNECT_TIMEOUT_MS = Integer.getInteger("petstore.http.connectTimeoutMs", 5_000);
+    private static final int SOCKET_TIMEOUT_MS = Integer.getInteger("petstore.http.socketTimeoutMs", 30_000);
+    private static final long POOL_WAIT_TIMEOUT_MS = Long.getLong("petstore.http.poolWaitTimeoutMs", 30_000);
+    private static final long KEEP_ALIVE_MS = Long.getLong("petstore.http.keepAliveMs", 30_000);
+
+    private static final DnsResolver TIMED_DNS = host -> {
+        long start = System.nanoTime();
+        try {
+            return SystemDefaultDnsResolver.INSTANCE.resolve(host);
+        } finally {
+            RequestTiming.addDns(System.nanoTime() - start);
+        }
+    };
+
+    private static final PoolingClientConnectionManager POOL = pool();
+
+    // RestAssured создает клиента на каждый запрос: клиент дешевый, соединения живут в общем пуле
+    @Override
+    public AbstractHttpClient createHttpClient() {
+        DefaultHttpClient client = new DefaultHttpClient(POOL);
+        HttpParams params = client.getParams();
+        HttpConnectionParams.setConnectionTimeout(params, CONNECT_TIMEOUT_MS);
+        HttpConnectionParams.setSoTimeout(params, SOCKET_TIMEOUT_MS);
+        params.setLongParameter(ClientPNames.CONN_MANAGER_TIMEOUT, POOL_WAIT_TIMEOUT_MS);
+        client.setKeepAliveStrategy((response, context) -> {
+            long duration = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return duration < 0 ? KEEP_ALIVE_MS : Math.min(duration, KEEP_ALIVE_MS);
+        });
+        client.addResponseInterceptor((response, context) -> RequestTiming.markFirstByte());
+        // пустое тело (Content-Length: 0, например 405 или 404 на DELETE) RestAssured не дочитывает, и соединение
+        // висело бы занятым до таймаута пула; без сущности клиент возвращает соединение в пул сразу
+        client.addResponseInterceptor((response, context) -> {
+            if (response.getEntity() != null && response.getEntity().getContentLength() == 0) {
+                response.setEntity(null);
+            }
+        });
+        return client;
+    }
+
+    /** Соединения, выданные из пула и еще не возвращенные: растущее число в долгом прогоне - утечка ответов. */
+    public static int leasedConnections() {
+        return POOL.getTotalStats().getLeased();
+    }
+
+    private static PoolingClientConnectionManager pool() {
+        PoolingClientConnectionManager pool = new GatedPool();
+        pool.setDefaultMaxPerRoute(MAX_PER_ROUTE);
+        pool.setMaxTotal(MAX_TOTAL);
+        return pool;
+    }
+
+    /**
+     * Пул httpcore ждет свободное соединение внутри synchronized, что на виртуальных потоках (нагрузка, заливка)
+     * занимает поток-носитель и может остановить всю JVM вместе со встроенным стендом. Поэтому очередь за
+     * соединением держим на семафорах: до пула доходят только запросы, для которых соединение гарантированно есть.
+     */
+    private static final class GatedPool extends PoolingClientConnectionManager {
+
+        private final Semaphore total = new Semaphore(MAX_TOTAL, true);
+        private final ConcurrentMap<HttpRoute, Semaphore> perRoute = new ConcurrentHashMap<>();
+        private final ConcurrentMap<ManagedClientConnection, Semaphore> leased = new ConcurrentHashMap<>();
+
+        GatedPool() {
+            super(schemeRegistry(), KEEP_ALIVE_MS, TimeUnit.MILLISECONDS, TIMED_DNS);
+        }
+
+        @Override
+        public ClientConnectionRequest requestConnection(HttpRoute route, Object state) {
+            Semaphore routePermits = perRoute.computeIfAbsent(route, r -> new Semaphore(MAX_PER_ROUTE, true));
+            return new ClientConnectionRequest() {
+                @Override
+                public ManagedClientConnection getConnection(long timeout, TimeUnit unit)
+                        throws InterruptedException, ConnectionPoolTimeoutException {
+                    long start = System.nanoTime();
+                    WaitEvent event = WaitEvent.start("connectionPool", route.getTargetHost().toHostString());
+                    long waitNanos = timeout > 0 ? unit.toNanos(timeout) : Long.MAX_VALUE;
+                    if (!routePermits.tryAcquire(waitNanos, TimeUnit.NANOSECONDS)) {
+                        event.finish(1, false);
+                        throw new ConnectionPoolTimeoutException("Timeout waiting for connection to " + route);
+                    }
+                    ManagedClientConnection connection;
+                    try {
+                        if (!total.tryAcquire(waitNanos - (System.nanoTime() - start), TimeUnit.NANOSECONDS)) {
+                            throw new ConnectionPoolTimeoutException("Timeout waiting for connection from pool");
+                        }
+                        // пулу остается только неизрасходованная на семафорах часть таймаута, 0 - ждать без ограничения
+                        long remaining = timeout > 0 ? waitNanos - (System.nanoTime() - start) : 0;
+                        if (timeout > 0 && remaining <= 0) {
+                            total.release();
+                            throw new ConnectionPoolTimeoutException("Timeout waiting for connection from pool");
+                        }
+                        try {
+                            connection = GatedPool.super.requestConnection(route, state)
+                                    .getConnection(remaining, TimeUnit.NANOSECONDS);
+                        } catch (InterruptedException | ConnectionPoolTimeoutException | RuntimeException e) {
+                            total.release();
+                            throw e;
+                        }
+                    } catch (InterruptedException | ConnectionPoolTimeoutException | RuntimeException e) {
+                        routePermits.release();
+                        event.finish(1, false);
+                        throw e;
+                    }
+                    event.finish(1, true);
+                    leased.put(connection, routePermits);
+                    ConnectionPoolMetrics.lease(connection.isOpen(), System.nanoTime() - start);
+                    return connection;
+                }
+
+                @Override
+                public void abortRequest() {
+                }
+            };
+        }
+
+        @Override
+        public void releaseConnection(ManagedClientConnection connection, long keepAlive, TimeUnit unit) {
+            try {
+                super.releaseConnection(connection, keepAlive, unit);
+            } finally {
+                Semaphore routePermits = leased.remove(connection);
+                if (routePermits != null) {
+                    total.release();
+                    routePermits.release();
+                }
+            }
+        }
+    }
+
+    static SchemeRegistry schemeRegistry() {
+        SchemeRegistry registry = new SchemeRegistry();
+        registry.register(new Scheme("http", 80, new TimedSocketFactory(PlainSocketFactory.getSocketFactory())));
+        registry.register(new Scheme("https", 443, new TimedSocketFactory(SSLSocketFactory.getSocketFactory())));
+        return registry;
+    }
+
+    private record TimedSocketFactory(SchemeSocketFactory delegate) implements SchemeSocketFactory {
+
+        @Override
+        public Socket createSocket(HttpParams params) throws IOException {
+            return delegate.createSocket(params);
+        }
+
+        @Override
+        public Socket connectSocket(Socket socket, InetSocketAddress remote, InetSocketAddress local,
+                                    HttpParams params) throws IOException {
+            long start = System.nanoTime();
+            try {
+                return delegate.connectSocket(socket, remote, local, params);
+            } finally {
+                RequestTiming.addConnect(System.nanoTime() - start);
+                if (delegate instanceof SSLSocketFactory) {
+                    ConnectionPoolMetrics.handshake();
+                }
+            }
+        }
+
+        @Override
+        public boolean isSecure(Socket socket) {
+            return delegate.isSecure(socket);
+        }
+    }
+}
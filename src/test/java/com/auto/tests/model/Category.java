@@ -0,0 +1,15 @@
+package com.auto.tests.model;
+
+import com.auto.tests.json.JsonWritable;
+import com.auto.tests.json.JsonWriter;
+
+public record Category(Long id, String name) implements JsonWritable {
+
+    @Override
+    public void writeJson(JsonWriter out) {
+        out.beginObject()
+                .field("id", id)
+                .field("name", name)
+                .endObject();
+    }
+}
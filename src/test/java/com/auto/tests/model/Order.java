@@ -0,0 +1,74 @@
+package com.auto.tests.model;
+
+import com.auto.tests.json.JsonWritable;
+import com.auto.tests.json.JsonWriter;
+
+public record Order(Long id, Long petId, Integer quantity, String shipDate, String status, Boolean complete)
+        implements JsonWritable {
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Builder toBuilder() {
+        return new Builder().id(id).petId(petId).quantity(quantity).shipDate(shipDate).status(status).complete(complete);
+    }
+
+    @Override
+    public void writeJson(JsonWriter out) {
+        out.beginObject()
+                .field("id", id)
+                .field("petId", petId)
+                .field("quantity", quantity)
+                .field("shipDate", shipDate)
+                .field("status", status)
+                .field("complete", complete)
+                .endObject();
+    }
+
+    public static final class Builder {
+        private Long id;
+        private Long petId;
+        private Integer quantity;
+        private String shipDate;
+        private String status;
+        private Boolean complete;
+
+        private Builder() {
+        }
+
+        public Builder id(Long id) {
+            this.id = id;
+            return this;
+        }
+
+        public Builder petId(Long petId) {
+            this.petId = petId;
+            return this;
+        }
+
+        public Builder quantity(Integer quantity) {
+            this.quantity = quantity;
+            return this;
+        }
+
+        public Builder shipDate(String shipDate) {
+            this.shipDate = shipDate;
+            return this;
+        }
+
+        public Builder status(String status) {
+            this.status = status;
+            return this;
+        }
+
+        public Builder complete(Boolean complete) {
+            this.complete = complete;
+            return this;
+        }
+
+        public Order build() {
+            return new Order(id, petId, quantity, shipDate, status, complete);
+        }
+    }
+}
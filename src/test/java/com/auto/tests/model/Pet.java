@@ -0,0 +1,76 @@
+package com.auto.tests.model;
+
+import com.auto.tests.json.JsonWritable;
+import com.auto.tests.json.JsonWriter;
+
+import java.util.List;
+
+public record Pet(Long id, Category category, String name, List<String> photoUrls, List<Tag> tags, String status)
+        implements JsonWritable {
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Builder toBuilder() {
+        return new Builder().id(id).category(category).name(name).photoUrls(photoUrls).tags(tags).status(status);
+    }
+
+    @Override
+    public void writeJson(JsonWriter out) {
+        out.beginObject()
+                .field("id", id)
+                .field("category", category)
+                .field("name", name)
+                .stringArray("photoUrls", photoUrls)
+                .array("tags", tags)
+                .field("status", status)
+                .endObject();
+    }
+
+    public static final class Builder {
+        private Long id;
+        private Category category;
+        private String name;
+        private List<String> photoUrls;
+        private List<Tag> tags;
+        private String status;
+
+        private Builder() {
+        }
+
+        public Builder id(Long id) {
+            this.id = id;
+            return this;
+        }
+
+        public Builder category(Category category) {
+            this.category = category;
+            return this;
+        }
+
+        public Builder name(String name) {
+            this.name = name;
+            return this;
+        }
+
+        public Builder photoUrls(List<String> photoUrls) {
+            this.photoUrls = photoUrls;
+            return this;
+        }
+
+        public Builder tags(List<Tag> tags) {
+            this.tags = tags;
+            return this;
+        }
+
+        public Builder status(String status) {
+            this.status = status;
+            return this;
+        }
+
+        public Pet build() {
+            return new Pet(id, category, name, photoUrls, tags, status);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.auto.tests.model;
+
+import com.auto.tests.json.JsonWritable;
+import com.auto.tests.json.JsonWriter;
+
+public record User(Long id, String username, String firstName, String lastName, String email,
+                   String password, String phone, Integer userStatus) implements JsonWritable {
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Builder toBuilder() {
+        return new Builder().id(id).username(username).firstName(firstName).lastName(lastName)
+                .email(email).password(password).phone(phone).userStatus(userStatus);
+    }
+
+    @Override
+    public void writeJson(JsonWriter out) {
+        out.beginObject()
+                .field("id", id)
+                .field("username", username)
+                .field("firstName", firstName)
+                .field("lastName", lastName)
+                .field("email", email)
+                .field("password", password)
+                .field("phone", phone)
+                .field("userStatus", userStatus)
+                .endObject();
+    }
+
+    public static final class Builder {
+        private Long id;
+        private String username;
+        private String firstName;
+        private String lastName;
+        private String email;
+        private String password;
+        private String phone;
+        private Integer userStatus;
+
+        private Builder() {
+        }
+
+        public Builder id(Long id) {
+            this.id = id;
+            return this;
+        }
+
+        public Builder username(String username) {
+            this.username = username;
+            return this;
+        }
+
+        public Builder firstName(String firstName) {
+            this.firstName = firstName;
+            return this;
+        }
+
+        public Builder lastName(String lastName) {
+            this.lastName = lastName;
+            return this;
+        }
+
+        public Builder email(String email) {
+            this.email = email;
+            return this;
+        }
+
+        public Builder password(String password) {
+            this.password = password;
+            return this;
+        }
+
+        public Builder phone(String phone) {
+            this.phone = phone;
+            return this;
+        }
+
+        public Builder userStatus(Integer userStatus) {
+            this.userStatus = userStatus;
+            return this;
+        }
+
+        public User build() {
+            return new User(id, username, firstName, lastName, email, password, phone, userStatus);
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.auto.tests.ratelimit;
+
+import com.auto.tests.jfr.WaitEvent;
+import com.auto.tests.json.Json;
+import com.auto.tests.metrics.LatencyFilter;
+import com.auto.tests.metrics.LatencyHistogram;
+import com.auto.tests.metrics.LatencyRegistry;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Глобальный фильтр RestAssured: узнает лимиты сервиса из заголовков X-Rate-Limit (запросов за окно)
+ * и X-Expires-After (конец окна) и выдерживает темп запросов чуть ниже объявленного.
+ * Корзины раздельные по группам эндпоинтов (первый сегмент пути: pet, store, user), чтобы потоки разных
+ * групп не делили одну точку синхронизации. Лимит, объявленный в ответе группы, действует на нее,
+ * остальные группы берут последний объявленный. Ответ 429 ставит группу на паузу по Retry-After
+ * и вдвое снижает темп до следующего объявления лимита - один раз на паузу: запросы, отправленные до нее,
+ * возвращают 429 пачкой, и каждый из них не должен снова делить темп.
+ *
+ * <p>Параметры (системные свойства): petstore.rateLimit.enforce (по умолчанию false - лимиты только
+ * собираются в отчет, темп держится лишь после 429), petstore.rateLimit.headroom (0.9 - доля лимита),
+ * petstore.rateLimit.burst (5 - запросов подряд после простоя), petstore.rateLimit.minRps (0.1 - ниже
+ * этого темпа 429 его не снижают).
+ */
+public class RateLimitFilter implements Filter {
+
+    public static final String LIMIT_HEADER = "X-Rate-Limit";
+    public static final String EXPIRES_HEADER = "X-Expires-After";
+
+    static final boolean ENFORCE = Boolean.getBoolean("petstore.rateLimit.enforce");
+    static final double HEADROOM = Double.parseDouble(System.getProperty("petstore.rateLimit.headroom", "0.9"));
+    static final int BURST = Integer.getInteger("petstore.rateLimit.burst", 5);
+    static final double MIN_RPS = Double.parseDouble(System.getProperty("petstore.rateLimit.minRps", "0.1"));
+
+    // Swagger Petstore объявляет X-Rate-Limit как число запросов в час
+    private static final Duration DEFAULT_WINDOW = Duration.ofHours(1);
+    private static final Duration DEFAULT_RETRY_AFTER = Duration.ofSeconds(1);
+    private static final DateTimeFormatter EXPIRES_FORMAT =
+            DateTimeFormatter.ofPattern("EEE MMM dd HH:mm:ss zzz yyyy", Locale.US);
+
+    private static final ConcurrentMap<String, Group> GROUPS = new ConcurrentHashMap<>();
+    private static volatile Advertised lastAdvertised;
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        String endpoint = LatencyFilter.endpointKey(requestSpec);
+        acquire(endpoint);
+        Response response = ctx.next(requestSpec, responseSpec);
+        observe(endpoint, response.statusCode(), response::header);
+        return response;
+    }
+
+    /** Ждет слот группы эндпоинта; для клиентов мимо RestAssured (FanOut) вместе с {@link #observe}. */
+    public static void acquire(String endpointKey) {
+        group(groupName(endpointKey)).acquire();
+    }
+
+    /** Учитывает ответ: объявленный лимит и 429 с Retry-After; header - значение заголовка ответа или null. */
+    public static void observe(String endpointKey, int status, Function<String, String> header) {
+        Group group = group(groupName(endpointKey));
+        Advertised advertised = Advertised.parse(header.apply(LIMIT_HEADER), header.apply(EXPIRES_HEADER));
+        if (advertised != null) {
+            advertise(group, advertised);
+        }
+        if (status == 429) {
+            group.throttled(retryAfter(header.apply("Retry-After")));
+        }
+    }
+
+    static String groupName(String endpointKey) {
+        int start = endpointKey.indexOf('/') + 1;
+        if (start == 0) {
+            return "";
+        }
+        int end = endpointKey.indexOf('/', start);
+        return end < 0 ? endpointKey.substring(start) : endpointKey.substring(start, end);
+    }
+
+    private static Group group(String name) {
+        return GROUPS.computeIfAbsent(name, key -> {
+            Group group = new Group(key);
+            Advertised advertised = lastAdvertised;
+            if (advertised != null) {
+                group.apply(advertised);
+            }
+            return group;
+        });
+    }
+
+    private static void advertise(Group source, Advertised advertised) {
+        source.own = true;
+        source.apply(advertised);
+        lastAdvertised = advertised;
+        for (Group group : GROUPS.values()) {
+            if (!group.own) {
+                group.apply(advertised);
+            }
+        }
+    }
+
+    private static Duration retryAfter(String header) {
+        if (header != null) {
+            try {
+                return Duration.ofSeconds(Long.parseLong(header.trim()));
+            } catch (NumberFormatException ignored) {
+                // дата вместо секунд встречается редко, хватит паузы по умолчанию
+            }
+        }
+        return DEFAULT_RETRY_AFTER;
+    }
+
+    public static Map<String, Object> snapshot() {
+        Map<String, Object> json = new LinkedHashMap<>();
+        new TreeMap<>(GROUPS).forEach((name, group) -> json.put(name, group.stats()));
+        return json;
+    }
+
+    public static void writeReport(Path dir) throws IOException {
+        if (GROUPS.isEmpty()) {
+            return;
+        }
+        Map<String, Object> json = snapshot();
+        Files.createDirectories(dir);
+        Files.writeString(dir.resolve("ratelimit.json"), Json.write(json));
+        System.out.println("Ограничение частоты: " + json);
+    }
+
+    /** Разбирает X-Expires-After в формате Petstore ("Sat Oct 18 12:00:00 UTC 2026"), null - если формат другой. */
+    public static Instant parseExpires(String header) {
+        if (header == null) {
+            return null;
+        }
+        try {
+            return ZonedDateTime.parse(header.trim(), EXPIRES_FORMAT).toInstant();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    record Advertised(long limit, Duration window) {
+
+        static Advertised parse(String limit, String expires) {
+            if (limit == null) {
+                return null;
+            }
+            long calls;
+            try {
+                calls = Long.parseLong(limit.trim());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            Duration window = DEFAULT_WINDOW;
+            Instant end = parseExpires(expires);
+            if (end != null && Duration.between(Instant.now(), end).toSeconds() > 0) {
+                window = Duration.between(Instant.now(), end);
+            }
+            return calls > 0 ? new Advertised(calls, window) : null;
+        }
+
+        double pace(double headroom) {
+            return headroom * limit / (window.toMillis() / 1000.0);
+        }
+    }
+
+    private static final class Group {
+        private final String name;
+        private final TokenBucket bucket = new TokenBucket(System::nanoTime);
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder waited = new LongAdder();
+        private final LongAdder tooMany = new LongAdder();
+        private final LatencyHistogram waits = new LatencyHistogram();
+        private volatile Advertised advertised;
+        private volatile boolean own;
+
+        Group(String name) {
+            this.name = name;
+        }
+
+        void apply(Advertised advertised) {
+            this.advertised = advertised;
+            if (ENFORCE) {
+                bucket.setRate(advertised.pace(HEADROOM), BURST);
+            }
+        }
+
+        void acquire() {
+            requests.increment();
+            long wait = bucket.reserve();
+            if (wait <= 0) {
+                return;
+            }
+            waited.increment();
+            waits.record(wait);
+            WaitEvent event = WaitEvent.start("rateLimit", name);
+            try {
+                Thread.sleep(Duration.ofNanos(wait));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Прервано ожидание лимита частоты", e);
+            } finally {
+                event.finish(1, !Thread.currentThread().isInterrupted());
+            }
+        }
+
+        void throttled(Duration retryAfter) {
+            tooMany.increment();
+            bucket.backOff(System.nanoTime() + retryAfter.toNanos(), BURST, MIN_RPS);
+        }
+
+        Map<String, Object> stats() {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            Advertised current = advertised;
+            stats.put("advertisedLimit", current == null ? null : current.limit());
+            stats.put("windowSeconds", current == null ? null : current.window().toSeconds());
+            stats.put("paceRps", Math.round(bucket.rate() * 1000) / 1000.0);
+            stats.put("requests", requests.sum());
+            stats.put("throttled", waited.sum());
+            stats.put("status429", tooMany.sum());
+            stats.put("waitP99Ms", LatencyRegistry.millis(waits.percentile(99)));
+            stats.put("waitMaxMs", LatencyRegistry.millis(waits.max()));
+            stats.put("waitTotalMs", LatencyRegistry.millis((long) (waits.mean() * waits.count())));
+            return stats;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.auto.tests.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Корзина токенов в форме GCRA: все состояние - момент следующего свободного слота, поэтому резерв - один CAS
+ * без блокировок. Пока скорость не задана, корзина пропускает запросы сразу и держит только паузы после 429.
+ */
+final class TokenBucket {
+
+    private final LongSupplier clock;
+    private final AtomicLong nextSlot;
+    private volatile long intervalNanos;
+    private volatile long burstNanos;
+    private long backOffUntil;
+
+    TokenBucket(LongSupplier clock) {
+        this.clock = clock;
+        this.nextSlot = new AtomicLong(clock.getAsLong());
+        this.backOffUntil = nextSlot.get();
+    }
+
+    /**
+     * Задает скорость в запросах в секунду; burst - сколько запросов можно отправить подряд после простоя.
+     * Неположительная скорость снимает ограничение.
+     */
+    void setRate(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0) {
+            intervalNanos = 0;
+            burstNanos = 0;
+            return;
+        }
+        long interval = Math.max(1, (long) (1e9 / permitsPerSecond));
+        burstNanos = interval * (Math.max(1, burst) - 1);
+        intervalNanos = interval;
+    }
+
+    double rate() {
+        long interval = intervalNanos;
+        return interval == 0 ? 0 : 1e9 / interval;
+    }
+
+    /** Занимает слот и возвращает, сколько наносекунд ждать до него (0 - можно отправлять сразу). */
+    long reserve() {
+        while (true) {
+            long now = clock.getAsLong();
+            long next = nextSlot.get();
+            long interval = intervalNanos;
+            if (interval == 0) {
+                return Math.max(0, next - now);
+            }
+            long slot = Math.max(next, now - burstNanos);
+            if (nextSlot.compareAndSet(next, slot + interval)) {
+                return Math.max(0, slot - now);
+            }
+        }
+    }
+
+    /** Не выдает слоты раньше момента until (по часам корзины). */
+    void pauseUntil(long until) {
+        nextSlot.accumulateAndGet(until, Math::max);
+    }
+
+    /**
+     * Ответ 429: пауза до until и вдвое меньший темп, но не ниже minRate. Темп снижается один раз на паузу -
+     * 429 на запросы, ушедшие до ее начала, только продлевают ее. Возвращает, снижен ли темп.
+     */
+    synchronized boolean backOff(long until, int burst, double minRate) {
+        long now = clock.getAsLong();
+        pauseUntil(until);
+        boolean halve = now - backOffUntil >= 0;
+        backOffUntil = halve ? until : Math.max(backOffUntil, until);
+        double rate = rate();
+        if (!halve || rate <= 0 || rate <= minRate) {
+            return false;
+        }
+        setRate(Math.max(rate / 2, minRate), burst);
+        return true;
+    }
+}
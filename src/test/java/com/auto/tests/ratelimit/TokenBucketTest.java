@@ -0,0 +1,78 @@
+package com.auto.tests.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    @DisplayName("После простоя корзина пропускает burst запросов сразу, дальше - по одному на интервал")
+    public void testBurstThenPaced() {
+        AtomicLong clock = new AtomicLong(100 * SECOND);
+        TokenBucket bucket = new TokenBucket(clock::get);
+        bucket.setRate(10, 3);
+        clock.addAndGet(5 * SECOND);
+
+        assertThat(bucket.reserve(), equalTo(0L));
+        assertThat(bucket.reserve(), equalTo(0L));
+        assertThat(bucket.reserve(), equalTo(0L));
+        assertThat(bucket.reserve(), equalTo(SECOND / 10));
+        assertThat(bucket.reserve(), equalTo(2 * SECOND / 10));
+    }
+
+    @Test
+    @DisplayName("Без скорости корзина не ждет, но держит паузу после 429 для всех запросов одинаково")
+    public void testPauseWithoutRate() {
+        AtomicLong clock = new AtomicLong(0);
+        TokenBucket bucket = new TokenBucket(clock::get);
+        assertThat(bucket.reserve(), equalTo(0L));
+
+        bucket.pauseUntil(2 * SECOND);
+        assertThat(bucket.reserve(), equalTo(2 * SECOND));
+        assertThat(bucket.reserve(), equalTo(2 * SECOND));
+
+        clock.set(3 * SECOND);
+        assertThat(bucket.reserve(), equalTo(0L));
+    }
+
+    @Test
+    @DisplayName("Лимит 5000 запросов в час с запасом 0.9 дает темп 1.25 запроса в секунду")
+    public void testAdvertisedPace() {
+        RateLimitFilter.Advertised advertised = RateLimitFilter.Advertised.parse("5000", null);
+        assertThat(advertised.limit(), equalTo(5000L));
+        assertThat(advertised.pace(0.9), closeTo(1.25, 1e-9));
+        assertThat(RateLimitFilter.Advertised.parse("unlimited", null), nullValue());
+        assertThat(RateLimitFilter.groupName("GET /pet/{petId}"), equalTo("pet"));
+        assertThat(RateLimitFilter.groupName("POST /user"), equalTo("user"));
+    }
+
+    @Test
+    @DisplayName("Пачка 429 за одну паузу снижает темп один раз, новая пауза - еще раз, но не ниже минимума")
+    public void testBackOffOncePerPause() {
+        AtomicLong clock = new AtomicLong(0);
+        TokenBucket bucket = new TokenBucket(clock::get);
+        bucket.setRate(8, 1);
+
+        assertThat(bucket.backOff(SECOND, 1, 1), equalTo(true));
+        for (int i = 0; i < 10; i++) {
+            clock.addAndGet(SECOND / 100);
+            assertThat(bucket.backOff(clock.get() + SECOND, 1, 1), equalTo(false));
+        }
+        assertThat(bucket.rate(), closeTo(4, 1e-6));
+
+        clock.addAndGet(2 * SECOND);
+        assertThat(bucket.backOff(clock.get() + SECOND, 1, 1), equalTo(true));
+        clock.addAndGet(2 * SECOND);
+        bucket.backOff(clock.get() + SECOND, 1, 1);
+        clock.addAndGet(2 * SECOND);
+        bucket.backOff(clock.get() + SECOND, 1, 1);
+        assertThat(bucket.rate(), closeTo(1, 1e-6));
+    }
+}
@@ -0,0 +1,95 @@
+package com.auto.tests.replay;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Режимы petstore.cassette: record - каждый обмен дописывается в кассету, replay - ответы берутся из кассеты
+ * без обращения к сети. Файл задается petstore.cassette.file.
+ */
+public final class CassetteFilter implements Filter {
+
+    public enum Mode {
+        OFF, RECORD, REPLAY;
+
+        public static Mode current() {
+            return Mode.valueOf(System.getProperty("petstore.cassette", "off").toUpperCase(java.util.Locale.ROOT));
+        }
+    }
+
+    private final Mode mode;
+    private final CassetteRecorder recorder;
+    private final CassetteIndex index;
+    private final ConcurrentMap<String, AtomicInteger> occurrences = new ConcurrentHashMap<>();
+
+    private CassetteFilter(Mode mode, Path file) {
+        this.mode = mode;
+        this.recorder = mode == Mode.RECORD ? new CassetteRecorder(file) : null;
+        this.index = mode == Mode.REPLAY ? new CassetteIndex(file) : null;
+        if (recorder != null) {
+            Runtime.getRuntime().addShutdownHook(new Thread(recorder::close, "cassette-close"));
+        }
+    }
+
+    public static CassetteFilter create(Mode mode) {
+        return new CassetteFilter(mode, Path.of(System.getProperty("petstore.cassette.file", "build/cassettes/petstore.cassette")));
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        String key = Exchange.key(requestSpec);
+        int occurrence = occurrences.computeIfAbsent(key, k -> new AtomicInteger()).getAndIncrement();
+        if (mode == Mode.REPLAY) {
+            Exchange exchange = index.find(key, occurrence);
+            if (exchange == null) {
+                throw new IllegalStateException("Обмен не записан в кассете: " + key.replace('\n', ' '));
+            }
+            return toResponse(exchange);
+        }
+        Response response = ctx.next(requestSpec, responseSpec);
+        if (mode == Mode.RECORD) {
+            List<String[]> headers = new ArrayList<>();
+            for (Header header : response.getHeaders()) {
+                headers.add(new String[]{header.getName(), header.getValue()});
+            }
+            byte[] body = response.asByteArray();
+            recorder.append(key, new Exchange(response.getStatusCode(), headers, body == null ? Exchange.NO_BODY : body));
+        }
+        return response;
+    }
+
+    private static Response toResponse(Exchange exchange) {
+        List<Header> headers = new ArrayList<>();
+        String contentType = null;
+        for (String[] header : exchange.headers()) {
+            headers.add(new Header(header[0], header[1]));
+            if (header[0].equalsIgnoreCase("Content-Type")) {
+                contentType = header[1];
+            }
+        }
+        ResponseBuilder builder = new ResponseBuilder()
+                .setStatusCode(exchange.status())
+                .setStatusLine("HTTP/1.1 " + exchange.status())
+                .setHeaders(new Headers(headers))
+                .setBody(exchange.body());
+        if (contentType != null) {
+            builder.setContentType(contentType);
+        }
+        return builder.build();
+    }
+}
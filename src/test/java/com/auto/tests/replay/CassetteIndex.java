@@ -0,0 +1,142 @@
+package com.auto.tests.replay;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Кассета, отображенная в память только для чтения, с хеш-индексом по ключу обмена.
+ * Индекс - открытая адресация по 64-битному хешу; повторы одного ключа связаны в цепочку в порядке записи,
+ * чтобы n-й одинаковый запрос при воспроизведении получил n-й записанный ответ.
+ */
+public final class CassetteIndex {
+
+    private final MappedByteBuffer data;
+    private final long[] slotHashes;
+    private final int[] slotRecords;
+    private final int[] recordOffsets;
+    private final int[] nextSameKey;
+    private final int mask;
+
+    public CassetteIndex(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось открыть кассету: " + file, e);
+        }
+        byte[] magic = new byte[CassetteRecorder.MAGIC.length];
+        if (data.limit() < magic.length || !Arrays.equals(magic(data, magic), CassetteRecorder.MAGIC)) {
+            throw new IllegalStateException("Файл не является кассетой: " + file);
+        }
+
+        List<Integer> offsets = new ArrayList<>();
+        for (int pos = magic.length; pos + Integer.BYTES <= data.limit(); pos += Integer.BYTES + data.getInt(pos)) {
+            offsets.add(pos);
+        }
+        recordOffsets = offsets.stream().mapToInt(Integer::intValue).toArray();
+        nextSameKey = new int[recordOffsets.length];
+        Arrays.fill(nextSameKey, -1);
+
+        int capacity = Integer.highestOneBit(Math.max(16, recordOffsets.length * 2 - 1)) << 1;
+        mask = capacity - 1;
+        slotHashes = new long[capacity];
+        slotRecords = new int[capacity];
+        Arrays.fill(slotRecords, -1);
+        int[] lastSameKey = new int[capacity];
+
+        for (int record = 0; record < recordOffsets.length; record++) {
+            int slot = findSlot(data.getLong(recordOffsets[record] + Integer.BYTES), record);
+            if (slotRecords[slot] < 0) {
+                slotHashes[slot] = data.getLong(recordOffsets[record] + Integer.BYTES);
+                slotRecords[slot] = record;
+            } else {
+                nextSameKey[lastSameKey[slot]] = record;
+            }
+            lastSameKey[slot] = record;
+        }
+    }
+
+    public int size() {
+        return recordOffsets.length;
+    }
+
+    /**
+     * Возвращает occurrence-й записанный ответ на ключ (с нуля), последний - если повторов записано меньше,
+     * или null, если ключа в кассете нет.
+     */
+    public Exchange find(String key, int occurrence) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        long hash = Exchange.hash(keyBytes);
+        for (int slot = (int) mix(hash) & mask; slotRecords[slot] >= 0; slot = (slot + 1) & mask) {
+            int record = slotRecords[slot];
+            if (slotHashes[slot] == hash && keyEquals(record, keyBytes)) {
+                for (int i = 0; i < occurrence && nextSameKey[record] >= 0; i++) {
+                    record = nextSameKey[record];
+                }
+                return read(recordOffsets[record]);
+            }
+        }
+        return null;
+    }
+
+    private int findSlot(long hash, int record) {
+        int slot = (int) mix(hash) & mask;
+        while (slotRecords[slot] >= 0 && !(slotHashes[slot] == hash && sameKey(slotRecords[slot], record))) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private boolean sameKey(int a, int b) {
+        ByteBuffer keyA = keyOf(a);
+        ByteBuffer keyB = keyOf(b);
+        return keyA.equals(keyB);
+    }
+
+    private boolean keyEquals(int record, byte[] key) {
+        return keyOf(record).equals(ByteBuffer.wrap(key));
+    }
+
+    private ByteBuffer keyOf(int record) {
+        int offset = recordOffsets[record] + Integer.BYTES + Long.BYTES;
+        int length = data.getInt(offset);
+        return data.slice(offset + Integer.BYTES, length);
+    }
+
+    private Exchange read(int offset) {
+        ByteBuffer in = data.duplicate().position(offset + Integer.BYTES + Long.BYTES);
+        in.position(in.position() + Integer.BYTES + in.getInt(in.position()));
+        int status = in.getInt();
+        int headerCount = in.getShort();
+        List<String[]> headers = new ArrayList<>(headerCount);
+        for (int i = 0; i < headerCount; i++) {
+            headers.add(new String[]{string(in), string(in)});
+        }
+        byte[] body = new byte[in.getInt()];
+        in.get(body);
+        return new Exchange(status, headers, body);
+    }
+
+    private static String string(ByteBuffer in) {
+        byte[] bytes = new byte[in.getShort()];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] magic(ByteBuffer data, byte[] into) {
+        data.get(0, into);
+        return into;
+    }
+
+    private static long mix(long hash) {
+        return hash ^ (hash >>> 32);
+    }
+}
@@ -0,0 +1,47 @@
+package com.auto.tests.replay;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class CassetteIndexTest {
+
+    @Test
+    @DisplayName("Повторы одного ключа воспроизводятся в порядке записи, последний ответ повторяется")
+    public void testOccurrencesReplayInOrder(@TempDir Path dir) {
+        Path file = dir.resolve("test.cassette");
+        try (CassetteRecorder recorder = new CassetteRecorder(file)) {
+            recorder.append("GET /v2/pet/1", exchange(404, "{\"message\":\"Pet not found\"}"));
+            recorder.append("DELETE /v2/pet/1", exchange(200, ""));
+            recorder.append("GET /v2/pet/1", exchange(200, "{\"id\":1}"));
+        }
+
+        CassetteIndex index = new CassetteIndex(file);
+
+        assertThat(index.size(), equalTo(3));
+        assertThat(index.find("GET /v2/pet/1", 0).status(), equalTo(404));
+        assertThat(index.find("GET /v2/pet/1", 1).status(), equalTo(200));
+        assertThat(new String(index.find("GET /v2/pet/1", 5).body(), StandardCharsets.UTF_8), equalTo("{\"id\":1}"));
+        assertThat(index.find("DELETE /v2/pet/1", 0).headers().get(0), arrayContaining("Content-Type", "application/json"));
+        assertThat(index.find("GET /v2/pet/2", 0), nullValue());
+    }
+
+    @Test
+    @DisplayName("Тело JSON нормализуется: порядок полей и пробелы не влияют на ключ")
+    public void testBodyNormalization() {
+        assertThat(Exchange.normalizeBody("{ \"b\": [1, {\"y\":2,\"x\":1}],\n \"a\": \"s\" }"),
+                equalTo(Exchange.normalizeBody("{\"a\":\"s\",\"b\":[1,{\"x\":1,\"y\":2}]}")));
+    }
+
+    private static Exchange exchange(int status, String body) {
+        return new Exchange(status, List.<String[]>of(new String[]{"Content-Type", "application/json"}),
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,76 @@
+package com.auto.tests.replay;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Дописывает обмены в конец файла кассеты. Формат записи (big-endian):
+ * <pre>
+ * int длина записи без этого поля | long хеш ключа | int длина ключа | ключ UTF-8
+ * | int статус | short число заголовков | (short длина, имя, short длина, значение)* | int длина тела | тело
+ * </pre>
+ */
+public final class CassetteRecorder implements AutoCloseable {
+
+    static final byte[] MAGIC = "PSCASSETTE1\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final FileChannel channel;
+
+    public CassetteRecorder(Path file) {
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            channel.write(ByteBuffer.wrap(MAGIC));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось открыть кассету для записи: " + file, e);
+        }
+    }
+
+    public synchronized void append(String key, Exchange exchange) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        int size = Long.BYTES + Integer.BYTES + keyBytes.length + Integer.BYTES + Short.BYTES + Integer.BYTES
+                + exchange.body().length;
+        byte[][] headerBytes = new byte[exchange.headers().size() * 2][];
+        for (int i = 0; i < exchange.headers().size(); i++) {
+            headerBytes[2 * i] = exchange.headers().get(i)[0].getBytes(StandardCharsets.UTF_8);
+            headerBytes[2 * i + 1] = exchange.headers().get(i)[1].getBytes(StandardCharsets.UTF_8);
+        }
+        for (byte[] part : headerBytes) {
+            size += Short.BYTES + part.length;
+        }
+        ByteBuffer record = ByteBuffer.allocate(Integer.BYTES + size);
+        record.putInt(size)
+                .putLong(Exchange.hash(keyBytes))
+                .putInt(keyBytes.length).put(keyBytes)
+                .putInt(exchange.status())
+                .putShort((short) exchange.headers().size());
+        for (byte[] part : headerBytes) {
+            record.putShort((short) part.length).put(part);
+        }
+        record.putInt(exchange.body().length).put(exchange.body()).flip();
+        try {
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            channel.force(false);
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
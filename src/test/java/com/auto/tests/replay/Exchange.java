@@ -0,0 +1,71 @@
+package com.auto.tests.replay;
+
+import com.auto.tests.json.Json;
+import io.restassured.specification.FilterableRequestSpecification;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Ключ и содержимое одного HTTP-обмена в кассете. Ключ - метод, путь, отсортированные query-параметры
+ * и нормализованное тело: JSON приводится к каноническому виду (ключи по алфавиту, без пробелов),
+ * поэтому форматирование тела в тестах на совпадение не влияет. Хост и порт в ключ не входят.
+ */
+public record Exchange(int status, List<String[]> headers, byte[] body) {
+
+    static final byte[] NO_BODY = new byte[0];
+
+    public static String key(FilterableRequestSpecification request) {
+        URI uri = URI.create(request.getURI());
+        StringBuilder key = new StringBuilder(request.getMethod()).append(' ').append(uri.getRawPath());
+        if (uri.getRawQuery() != null) {
+            String[] params = uri.getRawQuery().split("&");
+            java.util.Arrays.sort(params);
+            key.append('?').append(String.join("&", params));
+        }
+        new TreeMap<>(request.getFormParams()).forEach((name, value) -> key.append("\nform:").append(name).append('=').append(value));
+        request.getMultiPartParams().forEach(part -> key.append("\npart:").append(part.getControlName())
+                .append('=').append(part.getContent()));
+        Object body = request.getBody();
+        if (body != null) {
+            key.append('\n').append(normalizeBody(body));
+        }
+        return key.toString();
+    }
+
+    static String normalizeBody(Object body) {
+        String text = body instanceof byte[] bytes ? new String(bytes, StandardCharsets.UTF_8) : body.toString();
+        try {
+            return Json.write(sortKeys(Json.parse(text)));
+        } catch (Json.ParseException e) {
+            return text.strip().replaceAll("\\s+", " ");
+        }
+    }
+
+    private static Object sortKeys(Object value) {
+        if (value instanceof Map<?, ?> map) {
+            Map<String, Object> sorted = new TreeMap<>();
+            map.forEach((k, v) -> sorted.put(String.valueOf(k), sortKeys(v)));
+            return sorted;
+        }
+        if (value instanceof List<?> list) {
+            return list.stream().map(Exchange::sortKeys).toList();
+        }
+        return value;
+    }
+
+    /**
+     * 64-битный FNV-1a по UTF-8 байтам ключа.
+     */
+    static long hash(byte[] key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
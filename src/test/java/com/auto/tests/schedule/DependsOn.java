@@ -0,0 +1,18 @@
+package com.auto.tests.schedule;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Тестовые методы того же класса, чьи данные нужны этому шагу (например, удаление созданного ранее питомца).
+ * {@link HistoryMethodOrderer} не ставит шаг раньше них, а {@link ScheduleExtension} пропускает его,
+ * если хотя бы один из них в этом прогоне упал или был пропущен. Шаги без аннотации независимы.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface DependsOn {
+
+    String[] value();
+}
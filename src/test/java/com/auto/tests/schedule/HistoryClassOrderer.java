@@ -0,0 +1,27 @@
+package com.auto.tests.schedule;
+
+import org.junit.jupiter.api.ClassDescriptor;
+import org.junit.jupiter.api.ClassOrderer;
+import org.junit.jupiter.api.ClassOrdererContext;
+
+import java.util.Comparator;
+
+/**
+ * Порядок запуска тестовых классов по {@link TestHistory}: сначала классы с недавно падавшими методами,
+ * затем более короткие по сумме длительностей методов. При параллельном выполнении свободные потоки пула берут
+ * классы с начала этого списка, но поток-владелец - с конца, поэтому строго по порядку классы идут только
+ * в режиме fail-fast, где build.gradle выполняет их по очереди. Подключен в junit-platform.properties.
+ */
+public class HistoryClassOrderer implements ClassOrderer {
+
+    @Override
+    public void orderClasses(ClassOrdererContext context) {
+        if (HistoryMethodOrderer.DECLARED) {
+            return;
+        }
+        TestHistory history = TestHistory.shared();
+        context.getClassDescriptors().sort(Comparator
+                .<ClassDescriptor>comparingInt(d -> history.classFailedRunsAgo(d.getTestClass().getName()))
+                .thenComparingDouble(d -> history.classDurationMs(d.getTestClass().getName())));
+    }
+}
@@ -0,0 +1,83 @@
+package com.auto.tests.schedule;
+
+import com.auto.tests.json.Json;
+import com.auto.tests.support.RunReportListener;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Пишет результаты прогона в {@link TestHistory} и schedule.json: с какого порядка начали, какой тест упал
+ * первым и через сколько секунд от старта - время до первого красного сигнала, ради которого порядок меняется.
+ */
+public class HistoryListener implements TestExecutionListener {
+
+    private final ConcurrentMap<String, Long> started = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, TestHistory.Result> results = new ConcurrentHashMap<>();
+    private final AtomicReference<Map<String, Object>> firstFailure = new AtomicReference<>();
+    private volatile long planStarted;
+
+    @Override
+    public void testPlanExecutionStarted(TestPlan testPlan) {
+        planStarted = System.nanoTime();
+    }
+
+    @Override
+    public void executionStarted(TestIdentifier identifier) {
+        if (identifier.isTest()) {
+            started.put(identifier.getUniqueId(), System.nanoTime());
+        }
+    }
+
+    @Override
+    public void executionFinished(TestIdentifier identifier, TestExecutionResult result) {
+        Long start = started.remove(identifier.getUniqueId());
+        if (start == null || result.getStatus() == TestExecutionResult.Status.ABORTED
+                || !(identifier.getSource().orElse(null) instanceof MethodSource source)) {
+            return;
+        }
+        long now = System.nanoTime();
+        String key = TestHistory.key(source.getClassName(), source.getMethodName());
+        boolean failed = result.getStatus() == TestExecutionResult.Status.FAILED;
+        results.merge(key, new TestHistory.Result(failed, (now - start) / 1e6), TestHistory.Result::merge);
+        if (failed) {
+            Map<String, Object> failure = new LinkedHashMap<>();
+            failure.put("test", key);
+            failure.put("afterSeconds", Math.round((now - planStarted) / 1e7) / 100.0);
+            firstFailure.compareAndSet(null, failure);
+        }
+    }
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan) {
+        if (results.isEmpty()) {
+            return;
+        }
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("order", HistoryMethodOrderer.DECLARED ? "declared" : "history");
+        report.put("historyRuns", TestHistory.shared().runs());
+        report.put("failFast", ScheduleExtension.FAIL_FAST);
+        report.put("tests", results.size());
+        report.put("failed", results.values().stream().filter(TestHistory.Result::failed).count());
+        report.put("firstFailure", firstFailure.get());
+        report.put("totalSeconds", Math.round((System.nanoTime() - planStarted) / 1e7) / 100.0);
+        TestHistory.save(TestHistory.FILE, results);
+        try {
+            Files.createDirectories(RunReportListener.reportsDir());
+            Files.writeString(RunReportListener.reportsDir().resolve("schedule.json"), Json.write(report));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.auto.tests.schedule;
+
+import org.junit.jupiter.api.MethodDescriptor;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.MethodOrdererContext;
+import org.junit.jupiter.api.Order;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Порядок шагов класса по {@link TestHistory}: первыми идут недавно падавшие (чем свежее падение, тем раньше),
+ * затем дешевые, при равенстве - по {@link Order}, поэтому без истории порядок совпадает с объявленным.
+ * Шаг не ставится раньше шагов из его {@link DependsOn}, а падавший шаг тянет свои зависимости вперед вместе
+ * с собой - иначе он не сможет выполниться раньше. -Ppetstore.schedule.order=declared возвращает порядок по
+ * {@link Order} как у {@link MethodOrderer.OrderAnnotation}; так же идут запись и воспроизведение кассеты
+ * (petstore.cassette): детерминированные номера RunIds и порядок обменов зависят от порядка методов, а запись
+ * сама меняет историю.
+ */
+public class HistoryMethodOrderer implements MethodOrderer {
+
+    static final boolean DECLARED = declared(System.getProperty("petstore.schedule.order", "history"),
+            System.getProperty("petstore.cassette", "off"));
+
+    record Step(String name, int order, List<String> dependsOn) {
+    }
+
+    @Override
+    public void orderMethods(MethodOrdererContext context) {
+        if (DECLARED) {
+            new MethodOrderer.OrderAnnotation().orderMethods(context);
+            return;
+        }
+        String className = context.getTestClass().getName();
+        List<Step> steps = context.getMethodDescriptors().stream().map(HistoryMethodOrderer::step).toList();
+        Map<String, Integer> position = new HashMap<>();
+        List<String> planned = plan(steps, name -> TestHistory.key(className, name), TestHistory.shared());
+        for (int i = 0; i < planned.size(); i++) {
+            position.put(planned.get(i), i);
+        }
+        context.getMethodDescriptors().sort(Comparator.comparingInt(d -> position.get(d.getMethod().getName())));
+    }
+
+    static boolean declared(String order, String cassette) {
+        return "declared".equals(order) || !"off".equals(cassette);
+    }
+
+    private static Step step(MethodDescriptor descriptor) {
+        return new Step(descriptor.getMethod().getName(),
+                descriptor.findAnnotation(Order.class).map(Order::value).orElse(Order.DEFAULT),
+                descriptor.findAnnotation(DependsOn.class).map(d -> List.of(d.value())).orElse(List.of()));
+    }
+
+    /**
+     * Топологический порядок шагов: из готовых (все зависимости уже стоят) каждый раз берется лучший
+     * по истории. Зависимость на отсутствующий метод или цикл - ошибка в объявлении теста.
+     */
+    static List<String> plan(List<Step> steps, Function<String, String> key, TestHistory history) {
+        Map<String, Step> byName = new LinkedHashMap<>();
+        steps.forEach(step -> byName.put(step.name(), step));
+        for (Step step : steps) {
+            for (String dependency : step.dependsOn()) {
+                if (!byName.containsKey(dependency)) {
+                    throw new IllegalArgumentException("@DependsOn(\"" + dependency + "\") on " + step.name()
+                            + ": no such test method, expected one of " + byName.keySet());
+                }
+            }
+        }
+
+        // падение шага поднимает все шаги, от которых он зависит
+        Map<String, Integer> failedRunsAgo = new HashMap<>();
+        steps.forEach(step -> failedRunsAgo.put(step.name(), history.failedRunsAgo(key.apply(step.name()))));
+        for (Step step : steps) {
+            int rank = failedRunsAgo.get(step.name());
+            for (String dependency : prerequisites(step, byName)) {
+                failedRunsAgo.merge(dependency, rank, Math::min);
+            }
+        }
+
+        Comparator<Step> priority = Comparator.<Step>comparingInt(step -> failedRunsAgo.get(step.name()))
+                .thenComparingDouble(step -> history.durationMs(key.apply(step.name())))
+                .thenComparingInt(Step::order)
+                .thenComparingInt(steps::indexOf);
+        Map<String, Integer> waiting = new HashMap<>();
+        Map<String, List<Step>> dependents = new HashMap<>();
+        PriorityQueue<Step> ready = new PriorityQueue<>(priority);
+        for (Step step : steps) {
+            Set<String> unique = Set.copyOf(step.dependsOn());
+            waiting.put(step.name(), unique.size());
+            unique.forEach(dependency -> dependents.computeIfAbsent(dependency, d -> new ArrayList<>()).add(step));
+            if (unique.isEmpty()) {
+                ready.add(step);
+            }
+        }
+        List<String> planned = new ArrayList<>();
+        while (!ready.isEmpty()) {
+            Step next = ready.poll();
+            planned.add(next.name());
+            for (Step dependent : dependents.getOrDefault(next.name(), List.of())) {
+                if (waiting.merge(dependent.name(), -1, Integer::sum) == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+        if (planned.size() < steps.size()) {
+            throw new IllegalArgumentException("@DependsOn cycle between " + steps.stream().map(Step::name)
+                    .filter(name -> !planned.contains(name)).collect(Collectors.joining(", ")));
+        }
+        return planned;
+    }
+
+    private static Set<String> prerequisites(Step step, Map<String, Step> byName) {
+        Set<String> seen = new HashSet<>();
+        List<String> queue = new ArrayList<>(step.dependsOn());
+        while (!queue.isEmpty()) {
+            String name = queue.remove(queue.size() - 1);
+            if (seen.add(name)) {
+                queue.addAll(byName.get(name).dependsOn());
+            }
+        }
+        return seen;
+    }
+}
@@ -0,0 +1,119 @@
+package com.auto.tests.schedule;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class HistoryMethodOrdererTest {
+
+    private static final List<HistoryMethodOrderer.Step> STEPS = List.of(
+            new HistoryMethodOrderer.Step("create", 1, List.of()),
+            new HistoryMethodOrderer.Step("get", 2, List.of("create")),
+            new HistoryMethodOrderer.Step("invalid", 3, List.of()),
+            new HistoryMethodOrderer.Step("slowSearch", 4, List.of()),
+            new HistoryMethodOrderer.Step("delete", 5, List.of("get")));
+
+    private static final Function<String, String> KEY = name -> TestHistory.key("Suite", name);
+
+    private static TestHistory history(long runs, Map<String, TestHistory.Entry> entries) {
+        Map<String, TestHistory.Entry> keyed = new TreeMap<>();
+        entries.forEach((name, entry) -> keyed.put(KEY.apply(name), entry));
+        return new TestHistory(runs, keyed);
+    }
+
+    @Test
+    @DisplayName("Без истории порядок совпадает с @Order")
+    public void testDeclaredOrderWithoutHistory() {
+        assertThat(HistoryMethodOrderer.plan(STEPS, KEY, history(0, Map.of())),
+                contains("create", "get", "invalid", "slowSearch", "delete"));
+    }
+
+    @Test
+    @DisplayName("Недавно упавший тест идет первым, затем дешевые раньше дорогих")
+    public void testRecentlyFailedThenFastest() {
+        TestHistory history = history(10, Map.of(
+                "create", new TestHistory.Entry(10, 0, 40),
+                "get", new TestHistory.Entry(10, 0, 30),
+                "invalid", new TestHistory.Entry(10, 10, 20),
+                "slowSearch", new TestHistory.Entry(10, 0, 5),
+                "delete", new TestHistory.Entry(10, 0, 10)));
+
+        assertThat(HistoryMethodOrderer.plan(STEPS, KEY, history),
+                contains("invalid", "slowSearch", "create", "get", "delete"));
+    }
+
+    @Test
+    @DisplayName("Упавший шаг тянет вперед шаги, от которых зависит, но не обгоняет их")
+    public void testFailedDependentPullsPrerequisites() {
+        TestHistory history = history(10, Map.of(
+                "create", new TestHistory.Entry(10, 0, 400),
+                "get", new TestHistory.Entry(10, 0, 300),
+                "invalid", new TestHistory.Entry(10, 8, 20),
+                "slowSearch", new TestHistory.Entry(10, 0, 5),
+                "delete", new TestHistory.Entry(10, 10, 10)));
+
+        assertThat(HistoryMethodOrderer.plan(STEPS, KEY, history),
+                contains("create", "get", "delete", "invalid", "slowSearch"));
+    }
+
+    @Test
+    @DisplayName("Давнее падение за пределами окна не поднимает тест")
+    public void testOldFailureForgotten() {
+        TestHistory history = history(10, Map.of("slowSearch", new TestHistory.Entry(10, 2, 900)));
+
+        assertThat(history.failedRunsAgo(KEY.apply("slowSearch")), equalTo(Integer.MAX_VALUE));
+        assertThat(HistoryMethodOrderer.plan(STEPS, KEY, history).get(0), equalTo("create"));
+    }
+
+    @Test
+    @DisplayName("Зависимость на несуществующий метод и цикл - ошибка объявления")
+    public void testInvalidDependencies() {
+        assertThrows(IllegalArgumentException.class, () -> HistoryMethodOrderer.plan(List.of(
+                new HistoryMethodOrderer.Step("get", 1, List.of("missing"))), KEY, history(0, Map.of())));
+        assertThrows(IllegalArgumentException.class, () -> HistoryMethodOrderer.plan(List.of(
+                new HistoryMethodOrderer.Step("a", 1, List.of("b")),
+                new HistoryMethodOrderer.Step("b", 2, List.of("a"))), KEY, history(0, Map.of())));
+    }
+
+    @Test
+    @DisplayName("Прогон записывает падение и сглаживает длительность")
+    public void testNextRunUpdatesHistory() {
+        TestHistory history = history(3, Map.of("get", new TestHistory.Entry(3, 0, 100)));
+
+        TestHistory next = history.next(Map.of(
+                KEY.apply("get"), new TestHistory.Result(true, 200),
+                KEY.apply("create"), new TestHistory.Result(false, 50)));
+
+        assertThat(next.runs(), equalTo(4L));
+        assertThat(next.failedRunsAgo(KEY.apply("get")), equalTo(1));
+        assertThat(next.durationMs(KEY.apply("get")), closeTo(130, 0.01));
+        assertThat(next.failedRunsAgo(KEY.apply("create")), equalTo(Integer.MAX_VALUE));
+        assertThat(next.classDurationMs("Suite"), closeTo(180, 0.01));
+    }
+
+    @Test
+    @DisplayName("Запись и воспроизведение кассеты идут в объявленном порядке, хотя запись изменила историю")
+    public void testCassetteRecordThenReplayKeepsDeclaredOrder() {
+        TestHistory beforeRecord = history(0, Map.of());
+        TestHistory afterRecord = beforeRecord.next(Map.of(
+                KEY.apply("create"), new TestHistory.Result(false, 400),
+                KEY.apply("invalid"), new TestHistory.Result(true, 20),
+                KEY.apply("slowSearch"), new TestHistory.Result(false, 5)));
+
+        // без кассеты запись переставила бы шаги воспроизведения
+        assertThat(HistoryMethodOrderer.plan(STEPS, KEY, afterRecord),
+                not(equalTo(HistoryMethodOrderer.plan(STEPS, KEY, beforeRecord))));
+        assertThat(HistoryMethodOrderer.declared("history", "record"), equalTo(true));
+        assertThat(HistoryMethodOrderer.declared("history", "replay"), equalTo(true));
+        assertThat(HistoryMethodOrderer.declared("history", "off"), equalTo(false));
+        assertThat(HistoryMethodOrderer.declared("declared", "off"), equalTo(true));
+    }
+}
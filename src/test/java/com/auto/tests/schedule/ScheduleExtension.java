@@ -0,0 +1,66 @@
+package com.auto.tests.schedule;
+
+import org.junit.jupiter.api.extension.ConditionEvaluationResult;
+import org.junit.jupiter.api.extension.ExecutionCondition;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.TestWatcher;
+import org.junit.platform.commons.support.AnnotationSupport;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Пропускает шаг, если не выполнился шаг из его {@link DependsOn}: падение одного создания не размножается
+ * на все следующие шаги. С -Ppetstore.schedule.failFast=true после первого упавшего теста пропускаются
+ * все еще не начатые тесты JVM; вместе с {@link HistoryClassOrderer} и {@link HistoryMethodOrderer}
+ * красный сигнал приходит через секунды. Подключается в {@code BaseClass}.
+ */
+public class ScheduleExtension implements ExecutionCondition, TestWatcher {
+
+    static final boolean FAIL_FAST = Boolean.getBoolean("petstore.schedule.failFast");
+
+    private static final AtomicReference<String> FIRST_FAILURE = new AtomicReference<>();
+    private static final Set<String> NOT_PASSED = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public ConditionEvaluationResult evaluateExecutionCondition(ExtensionContext context) {
+        String failed = FIRST_FAILURE.get();
+        if (FAIL_FAST && failed != null) {
+            return ConditionEvaluationResult.disabled("fail-fast: уже упал " + failed);
+        }
+        Optional<Method> method = context.getTestMethod();
+        Optional<DependsOn> dependsOn = AnnotationSupport.findAnnotation(method, DependsOn.class);
+        if (dependsOn.isPresent()) {
+            String className = context.getRequiredTestClass().getName();
+            for (String dependency : dependsOn.get().value()) {
+                if (NOT_PASSED.contains(TestHistory.key(className, dependency))) {
+                    return ConditionEvaluationResult.disabled("не выполнен шаг " + dependency + ", от которого зависит тест");
+                }
+            }
+        }
+        return ConditionEvaluationResult.enabled("");
+    }
+
+    @Override
+    public void testFailed(ExtensionContext context, Throwable cause) {
+        NOT_PASSED.add(key(context));
+        FIRST_FAILURE.compareAndSet(null, key(context));
+    }
+
+    @Override
+    public void testAborted(ExtensionContext context, Throwable cause) {
+        NOT_PASSED.add(key(context));
+    }
+
+    @Override
+    public void testDisabled(ExtensionContext context, Optional<String> reason) {
+        NOT_PASSED.add(key(context));
+    }
+
+    private static String key(ExtensionContext context) {
+        return TestHistory.key(context.getRequiredTestClass().getName(), context.getRequiredTestMethod().getName());
+    }
+}
@@ -0,0 +1,167 @@
+package com.auto.tests.schedule;
+
+import com.auto.tests.json.Json;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * История прогонов тестов: для каждого метода ("класс#метод") номер последнего прогона, номер прогона
+ * с последним падением и сглаженная длительность. Файл (petstore.schedule.history, по умолчанию
+ * .gradle/petstore-test-history.json - переживает clean и не попадает в git) дописывает {@link HistoryListener}
+ * после каждого прогона; несколько JVM (шарды) сливают свои результаты под блокировкой файла.
+ *
+ * <p>Падение считается недавним в пределах petstore.schedule.recentRuns (5) последних прогонов.
+ */
+public final class TestHistory {
+
+    static final Path FILE = Path.of(System.getProperty("petstore.schedule.history", ".gradle/petstore-test-history.json"));
+    private static final int RECENT_RUNS = Integer.getInteger("petstore.schedule.recentRuns", 5);
+    // тесты, которых нет дольше этого числа прогонов, удалены или переименованы
+    private static final int FORGET_AFTER_RUNS = 50;
+    private static final double SMOOTHING = 0.3;
+
+    private static volatile TestHistory shared;
+
+    record Entry(long lastRun, long lastFailure, double durationMs) {
+    }
+
+    /** Результат метода в текущем прогоне; повторы (@RepeatedTest, параметры) складываются. */
+    record Result(boolean failed, double durationMs) {
+
+        Result merge(Result other) {
+            return new Result(failed || other.failed, durationMs + other.durationMs);
+        }
+    }
+
+    private final long runs;
+    private final Map<String, Entry> entries;
+
+    TestHistory(long runs, Map<String, Entry> entries) {
+        this.runs = runs;
+        this.entries = entries;
+    }
+
+    static String key(String className, String methodName) {
+        return className + "#" + methodName;
+    }
+
+    /** История из файла, прочитанная один раз на JVM: порядок не должен меняться посреди прогона. */
+    static TestHistory shared() {
+        if (shared == null) {
+            synchronized (TestHistory.class) {
+                if (shared == null) {
+                    shared = load(FILE);
+                }
+            }
+        }
+        return shared;
+    }
+
+    static TestHistory load(Path file) {
+        if (!Files.exists(file)) {
+            return new TestHistory(0, new TreeMap<>());
+        }
+        try {
+            Map<?, ?> json = (Map<?, ?>) Json.parse(Files.readString(file));
+            Map<String, Entry> entries = new TreeMap<>();
+            ((Map<?, ?>) json.get("tests")).forEach((key, value) -> {
+                Map<?, ?> entry = (Map<?, ?>) value;
+                entries.put((String) key, new Entry(((Number) entry.get("lastRun")).longValue(),
+                        ((Number) entry.get("lastFailure")).longValue(), ((Number) entry.get("durationMs")).doubleValue()));
+            });
+            return new TestHistory(((Number) json.get("runs")).longValue(), entries);
+        } catch (IOException | RuntimeException e) {
+            // испорченная история не должна ронять прогон: порядок просто вернется к объявленному
+            return new TestHistory(0, new TreeMap<>());
+        }
+    }
+
+    /**
+     * Сколько прогонов назад метод последний раз упал: 1 - в прошлом прогоне; {@link Integer#MAX_VALUE},
+     * если не падал за последние recentRuns прогонов.
+     */
+    int failedRunsAgo(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null || entry.lastFailure() <= 0 || runs - entry.lastFailure() >= RECENT_RUNS) {
+            return Integer.MAX_VALUE;
+        }
+        return (int) (runs - entry.lastFailure() + 1);
+    }
+
+    /** Сглаженная длительность метода, 0 - для нового метода: о нем ничего не известно, пусть идет пораньше. */
+    double durationMs(String key) {
+        Entry entry = entries.get(key);
+        return entry == null ? 0 : entry.durationMs();
+    }
+
+    int classFailedRunsAgo(String className) {
+        return entries.keySet().stream().filter(key -> key.startsWith(className + "#"))
+                .mapToInt(this::failedRunsAgo).min().orElse(Integer.MAX_VALUE);
+    }
+
+    double classDurationMs(String className) {
+        return entries.entrySet().stream().filter(e -> e.getKey().startsWith(className + "#"))
+                .mapToDouble(e -> e.getValue().durationMs()).sum();
+    }
+
+    long runs() {
+        return runs;
+    }
+
+    /** Следующий прогон по результатам текущего: без учета других JVM, их сливает {@link #save}. */
+    TestHistory next(Map<String, Result> results) {
+        long run = runs + 1;
+        Map<String, Entry> updated = new TreeMap<>(entries);
+        results.forEach((key, result) -> {
+            Entry previous = updated.get(key);
+            double duration = previous == null ? result.durationMs()
+                    : previous.durationMs() * (1 - SMOOTHING) + result.durationMs() * SMOOTHING;
+            updated.put(key, new Entry(run, result.failed() ? run : previous == null ? 0 : previous.lastFailure(),
+                    Math.round(duration * 10) / 10.0));
+        });
+        updated.values().removeIf(entry -> run - entry.lastRun() > FORGET_AFTER_RUNS);
+        return new TestHistory(run, updated);
+    }
+
+    static void save(Path file, Map<String, Result> results) {
+        try {
+            Path dir = file.toAbsolutePath().getParent();
+            Files.createDirectories(dir);
+            try (FileChannel lockFile = FileChannel.open(dir.resolve(file.getFileName() + ".lock"),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                // блокировка снимается при закрытии канала
+                lockFile.lock();
+                TestHistory next = load(file).next(results);
+                Path temp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+                Files.writeString(temp, Json.write(next.toMap()));
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Map<String, Object> toMap() {
+        Map<String, Object> tests = new TreeMap<>();
+        entries.forEach((key, entry) -> {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("lastRun", entry.lastRun());
+            map.put("lastFailure", entry.lastFailure());
+            map.put("durationMs", entry.durationMs());
+            tests.put(key, map);
+        });
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("runs", runs);
+        map.put("tests", tests);
+        return map;
+    }
+}
@@ -0,0 +1,204 @@
+package com.auto.tests.seed;
+
+import com.auto.tests.json.JsonWritable;
+import com.auto.tests.json.JsonWriter;
+import com.auto.tests.model.Order;
+import com.auto.tests.model.Pet;
+import com.auto.tests.model.User;
+import com.auto.tests.support.RunIds;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongFunction;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Массовая заливка данных: пользователи пачками через /user/createWithArray или /user/createWithList,
+ * питомцы и заказы - параллельными одиночными POST. Число запросов в полете ограничено concurrency,
+ * в памяти одновременно не больше concurrency сериализованных пачек.
+ *
+ * <p>Если размер пачки не задан, он подбирается по измеренной пропускной способности - созданным пользователям
+ * в секунду, отклоненные пачки (413, 500) не в счет: размер удваивается, пока это дает прирост больше 5% и доля
+ * ошибок не растет, затем оставшиеся пользователи отправляются лучшим размером.
+ */
+public final class BulkSeeder {
+
+    public enum UserEndpoint {
+        CREATE_WITH_ARRAY("/user/createWithArray"),
+        CREATE_WITH_LIST("/user/createWithList");
+
+        private final String path;
+
+        UserEndpoint(String path) {
+            this.path = path;
+        }
+    }
+
+    public static final int AUTO_BATCH_SIZE = 0;
+
+    private static final int INITIAL_BATCH_SIZE = 50;
+    private static final int MAX_BATCH_SIZE = 10_000;
+    private static final int PROBE_BATCHES_PER_WORKER = 2;
+    private static final double MIN_GAIN = 1.05;
+
+    private final int concurrency;
+
+    public BulkSeeder(int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("concurrency must be positive: " + concurrency);
+        }
+        this.concurrency = concurrency;
+    }
+
+    public static User user(long index) {
+        return User.builder()
+                .id(RunIds.nextId())
+                .username(RunIds.username("seed"))
+                .firstName("Seed")
+                .lastName("User" + index)
+                .email("seed" + index + "@example.ru")
+                .password("123321")
+                .phone("123-456-7890")
+                .userStatus(1)
+                .build();
+    }
+
+    public static Pet pet(long index) {
+        return Pet.builder().id(RunIds.nextId()).name("seed-pet-" + index).status("available").build();
+    }
+
+    public static Order order(long index) {
+        return Order.builder().id(RunIds.nextId()).petId(RunIds.nextId()).quantity(1)
+                .shipDate("2025-11-08T16:07:21.524Z").status("placed").complete(false).build();
+    }
+
+    public SeedReport seedUsers(long total, int batchSize, UserEndpoint endpoint, LongFunction<User> generator) {
+        if (batchSize < 0) {
+            throw new IllegalArgumentException("batchSize must be positive or AUTO_BATCH_SIZE, got " + batchSize);
+        }
+        long start = System.nanoTime();
+        Map<Integer, Double> probes = new LinkedHashMap<>();
+        Counters counters = new Counters();
+        long sent = 0;
+        int size = batchSize == AUTO_BATCH_SIZE ? INITIAL_BATCH_SIZE : batchSize;
+
+        if (batchSize == AUTO_BATCH_SIZE) {
+            double best = 0;
+            double bestErrorRate = 0;
+            int bestSize = size;
+            while (sent < total) {
+                long roundUsers = Math.min(total - sent, (long) size * concurrency * PROBE_BATCHES_PER_WORKER);
+                long createdBefore = counters.created.sum();
+                long failedBefore = counters.failed.sum();
+                long roundStart = System.nanoTime();
+                sendUsers(sent, roundUsers, size, endpoint, generator, counters);
+                // быстро отклоненная пачка не должна выглядеть быстрой: считаются только созданные пользователи
+                double rate = (counters.created.sum() - createdBefore) / ((System.nanoTime() - roundStart) / 1e9);
+                double errorRate = (double) (counters.failed.sum() - failedBefore) / roundUsers;
+                probes.put(size, rate);
+                sent += roundUsers;
+                if (rate < best * MIN_GAIN || (best > 0 && errorRate > bestErrorRate)) {
+                    break;
+                }
+                best = rate;
+                bestErrorRate = errorRate;
+                bestSize = size;
+                if (size * 2 > MAX_BATCH_SIZE) {
+                    break;
+                }
+                size *= 2;
+            }
+            size = bestSize;
+        }
+        sendUsers(sent, total - sent, size, endpoint, generator, counters);
+        return new SeedReport("users", total, counters.created.sum(), counters.failed.sum(), size, probes,
+                (System.nanoTime() - start) / 1e9);
+    }
+
+    public SeedReport seedPets(long total, LongFunction<Pet> generator) {
+        return seedSingle("pets", "/pet", total, generator);
+    }
+
+    public SeedReport seedOrders(long total, LongFunction<Order> generator) {
+        return seedSingle("orders", "/store/order", total, generator);
+    }
+
+    private void sendUsers(long from, long count, int batchSize, UserEndpoint endpoint,
+                           LongFunction<User> generator, Counters counters) {
+        Semaphore permits = new Semaphore(concurrency);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long offset = 0; offset < count; offset += batchSize) {
+                int size = (int) Math.min(batchSize, count - offset);
+                acquire(permits);
+                List<User> batch = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    batch.add(generator.apply(from + offset + i));
+                }
+                byte[] body = JsonWriter.toBytes(batch);
+                executor.execute(() -> {
+                    try {
+                        post(endpoint.path, body, size, counters);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+    }
+
+    private SeedReport seedSingle(String entity, String path, long total, LongFunction<? extends JsonWritable> generator) {
+        long start = System.nanoTime();
+        Counters counters = new Counters();
+        Semaphore permits = new Semaphore(concurrency);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < total; i++) {
+                acquire(permits);
+                byte[] body = generator.apply(i).toJson();
+                executor.execute(() -> {
+                    try {
+                        post(path, body, 1, counters);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+        return new SeedReport(entity, total, counters.created.sum(), counters.failed.sum(), 1, Map.of(),
+                (System.nanoTime() - start) / 1e9);
+    }
+
+    private static void post(String path, byte[] body, int entities, Counters counters) {
+        try {
+            int status = given()
+                    .header("Content-Type", "application/json")
+                    .body(body)
+                    .when()
+                    .post(path)
+                    .statusCode();
+            (status == 200 ? counters.created : counters.failed).add(entities);
+        } catch (RuntimeException e) {
+            counters.failed.add(entities);
+        }
+    }
+
+    private static void acquire(Semaphore permits) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Seeding interrupted", e);
+        }
+    }
+
+    private static final class Counters {
+        final LongAdder created = new LongAdder();
+        final LongAdder failed = new LongAdder();
+    }
+}
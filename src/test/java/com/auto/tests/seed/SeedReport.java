@@ -0,0 +1,38 @@
+package com.auto.tests.seed;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Итог заливки одного вида сущностей. probes - пропускная способность (сущностей/с) на пробных размерах пачки.
+ */
+public record SeedReport(String entity, long requested, long created, long failed, int batchSize,
+                         Map<Integer, Double> probes, double seconds) {
+
+    public double perSecond() {
+        return seconds == 0 ? 0 : created / seconds;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("entity", entity);
+        map.put("requested", requested);
+        map.put("created", created);
+        map.put("failed", failed);
+        map.put("batchSize", batchSize);
+        map.put("seconds", Math.round(seconds * 100) / 100.0);
+        map.put("perSecond", Math.round(perSecond()));
+        if (!probes.isEmpty()) {
+            Map<String, Object> probeMap = new LinkedHashMap<>();
+            probes.forEach((size, rate) -> probeMap.put(String.valueOf(size), Math.round(rate)));
+            map.put("probes", probeMap);
+        }
+        return map;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d/%d за %.2fс (%.0f/с), ошибок %d, пачка %d%s", entity, created, requested,
+                seconds, perSecond(), failed, batchSize, probes.isEmpty() ? "" : ", пробы " + probes);
+    }
+}
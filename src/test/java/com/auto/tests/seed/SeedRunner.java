@@ -0,0 +1,70 @@
+package com.auto.tests.seed;
+
+import com.auto.tests.BaseClass;
+import com.auto.tests.json.Json;
+import com.auto.tests.support.RunReportListener;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Точка входа задачи seed. Параметры (системные свойства): seed.users, seed.pets, seed.orders,
+ * seed.batchSize (число или auto), seed.concurrency, seed.endpoint (createWithArray | createWithList).
+ */
+public final class SeedRunner {
+
+    private SeedRunner() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        long users = Long.getLong("seed.users", 100_000);
+        long pets = Long.getLong("seed.pets", 0);
+        long orders = Long.getLong("seed.orders", 0);
+        int batchSize = batchSize(System.getProperty("seed.batchSize", "auto"));
+        BulkSeeder.UserEndpoint endpoint = System.getProperty("seed.endpoint", "createWithArray")
+                .toLowerCase(Locale.ROOT).endsWith("list")
+                ? BulkSeeder.UserEndpoint.CREATE_WITH_LIST
+                : BulkSeeder.UserEndpoint.CREATE_WITH_ARRAY;
+        BulkSeeder seeder = new BulkSeeder(Integer.getInteger("seed.concurrency", 16));
+
+        BaseClass.globalSetup();
+        List<SeedReport> reports = new ArrayList<>();
+        if (users > 0) {
+            reports.add(seeder.seedUsers(users, batchSize, endpoint, BulkSeeder::user));
+        }
+        if (pets > 0) {
+            reports.add(seeder.seedPets(pets, BulkSeeder::pet));
+        }
+        if (orders > 0) {
+            reports.add(seeder.seedOrders(orders, BulkSeeder::order));
+        }
+        reports.forEach(System.out::println);
+
+        Path dir = RunReportListener.reportsDir();
+        Files.createDirectories(dir);
+        List<Map<String, Object>> json = reports.stream().map(SeedReport::toMap).toList();
+        Files.writeString(dir.resolve("seed.json"), Json.write(json));
+        System.exit(reports.stream().anyMatch(report -> report.failed() > 0) ? 1 : 0);
+    }
+
+    static int batchSize(String value) {
+        if (value.equals("auto")) {
+            return BulkSeeder.AUTO_BATCH_SIZE;
+        }
+        int batchSize;
+        try {
+            batchSize = Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("seed.batchSize must be a positive number or auto, got '" + value + "'");
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("seed.batchSize must be a positive number or auto, got " + batchSize);
+        }
+        return batchSize;
+    }
+}
@@ -0,0 +1,32 @@
+package com.auto.tests.session;
+
+import com.auto.tests.metrics.LatencyFilter;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+/**
+ * Глобальный фильтр RestAssured: успешный GET /user/logout сбрасывает сессию из {@link SessionCache}.
+ * Запрос с заголовком сессии закрывает только ее, без заголовка Petstore не знает, чья это сессия,
+ * поэтому сбрасываются все.
+ */
+public class LogoutFilter implements Filter {
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        Response response = ctx.next(requestSpec, responseSpec);
+        if (response.statusCode() == 200 && LatencyFilter.endpointKey(requestSpec).equals("GET /user/logout")) {
+            String token = requestSpec.getHeaders().getValue(Session.HEADER);
+            if (token != null) {
+                SessionCache.shared().invalidateToken(token);
+            } else {
+                SessionCache.shared().invalidateAll();
+            }
+        }
+        return response;
+    }
+}
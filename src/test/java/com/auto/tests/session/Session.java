@@ -0,0 +1,38 @@
+package com.auto.tests.session;
+
+import com.auto.tests.ratelimit.RateLimitFilter;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Сессия пользователя после GET /user/login: идентификатор из сообщения "logged in user session:..."
+ * и момент истечения из X-Expires-After.
+ */
+public record Session(String username, String token, Instant expiresAt) {
+
+    // Petstore описывает ключ доступа заголовком api_key
+    public static final String HEADER = System.getProperty("petstore.session.header", "api_key");
+
+    // если сервис не прислал X-Expires-After, считаем сессию часовой, как у Petstore
+    private static final Duration DEFAULT_TTL = Duration.ofHours(1);
+    private static final Pattern TOKEN = Pattern.compile("session:\\s*(\\S+)");
+
+    static Session from(String username, Response response) {
+        String message = response.path("message");
+        Matcher matcher = TOKEN.matcher(message == null ? "" : message);
+        String token = matcher.find() ? matcher.group(1) : message;
+        Instant expiresAt = RateLimitFilter.parseExpires(response.header(RateLimitFilter.EXPIRES_HEADER));
+        return new Session(username, token, expiresAt != null ? expiresAt : Instant.now().plus(DEFAULT_TTL));
+    }
+
+    /** Спецификация с заголовком сессии, подключается через given().spec(...). */
+    public RequestSpecification spec() {
+        return new RequestSpecBuilder().addHeader(HEADER, token).build();
+    }
+}
@@ -0,0 +1,150 @@
+package com.auto.tests.session;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.LongSupplier;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Общие для потоков сессии по имени пользователя: вход выполняется один раз, сессия живет до момента
+ * незадолго до X-Expires-After. За refreshAhead до истечения первый обратившийся поток запускает
+ * обновление в фоне и сразу получает текущую сессию; одновременные обновления одного пользователя
+ * схлопываются в один вход. Успешный GET /user/logout сбрасывает сессию через {@link LogoutFilter}.
+ *
+ * <p>Параметры (системные свойства): petstore.session.refreshAheadSeconds (60),
+ * petstore.session.expiryMarginSeconds (5 - после этого сессия уже не выдается, ждем нового входа).
+ */
+public final class SessionCache {
+
+    private static final SessionCache SHARED = new SessionCache(SessionCache::login, System::currentTimeMillis,
+            Duration.ofSeconds(Long.getLong("petstore.session.refreshAheadSeconds", 60)),
+            Duration.ofSeconds(Long.getLong("petstore.session.expiryMarginSeconds", 5)));
+
+    private final BiFunction<String, String, Session> login;
+    private final LongSupplier clock;
+    private final long refreshAheadMillis;
+    private final long marginMillis;
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final LongAdder logins = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+
+    SessionCache(BiFunction<String, String, Session> login, LongSupplier clock, Duration refreshAhead, Duration margin) {
+        this.login = login;
+        this.clock = clock;
+        this.refreshAheadMillis = refreshAhead.toMillis();
+        this.marginMillis = margin.toMillis();
+    }
+
+    public static SessionCache shared() {
+        return SHARED;
+    }
+
+    public Session session(String username, String password) {
+        Entry entry = entries.computeIfAbsent(username, name -> new Entry(name, password));
+        Session current = entry.current;
+        long now = clock.getAsLong();
+        if (current != null && now < current.expiresAt().toEpochMilli() - marginMillis) {
+            if (now >= current.expiresAt().toEpochMilli() - refreshAheadMillis) {
+                entry.refresh(true);
+            }
+            hits.increment();
+            return current;
+        }
+        try {
+            return entry.refresh(false).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    /** Сессия из кэша без входа, null - если ее нет. */
+    public Session cached(String username) {
+        Entry entry = entries.get(username);
+        return entry == null ? null : entry.current;
+    }
+
+    public void invalidate(String username) {
+        entries.remove(username);
+    }
+
+    public void invalidateToken(String token) {
+        entries.values().removeIf(entry -> entry.current != null && entry.current.token().equals(token));
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public Map<String, Long> stats() {
+        return Map.of("logins", logins.sum(), "hits", hits.sum());
+    }
+
+    private static Session login(String username, String password) {
+        return Session.from(username, given()
+                .queryParam("username", username)
+                .queryParam("password", password)
+                .when()
+                .get("/user/login")
+                .then()
+                .statusCode(200)
+                .extract()
+                .response());
+    }
+
+    private final class Entry {
+        private final String username;
+        private final String password;
+        private final AtomicReference<CompletableFuture<Session>> inFlight = new AtomicReference<>();
+        private volatile Session current;
+
+        Entry(String username, String password) {
+            this.username = username;
+            this.password = password;
+        }
+
+        CompletableFuture<Session> refresh(boolean background) {
+            while (true) {
+                CompletableFuture<Session> flight = inFlight.get();
+                if (flight != null) {
+                    return flight;
+                }
+                CompletableFuture<Session> created = new CompletableFuture<>();
+                if (!inFlight.compareAndSet(null, created)) {
+                    continue;
+                }
+                Runnable task = () -> {
+                    try {
+                        logins.increment();
+                        Session session = login.apply(username, password);
+                        current = session;
+                        created.complete(session);
+                    } catch (Throwable e) {
+                        created.completeExceptionally(e);
+                    } finally {
+                        inFlight.compareAndSet(created, null);
+                    }
+                };
+                if (background) {
+                    Thread.ofVirtual().name("session-refresh-" + username).start(task);
+                } else {
+                    task.run();
+                }
+                return created;
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.auto.tests.session;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class SessionCacheTest {
+
+    private static final long HOUR = Duration.ofHours(1).toMillis();
+
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+    private final AtomicInteger logins = new AtomicInteger();
+
+    private SessionCache cache(CountDownLatch loginGate) {
+        return new SessionCache((username, password) -> {
+            try {
+                loginGate.await();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            int n = logins.incrementAndGet();
+            return new Session(username, "token-" + n, Instant.ofEpochMilli(clock.get() + HOUR));
+        }, clock::get, Duration.ofSeconds(60), Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("Одновременные запросы сессии одного пользователя выполняют один вход")
+    public void testConcurrentCallersShareSingleLogin() throws InterruptedException {
+        CountDownLatch gate = new CountDownLatch(1);
+        SessionCache cache = cache(gate);
+        List<Thread> threads = new ArrayList<>();
+        List<Session> sessions = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            threads.add(Thread.ofVirtual().start(() -> {
+                Session session = cache.session("andrew02", "123abc");
+                synchronized (sessions) {
+                    sessions.add(session);
+                }
+            }));
+        }
+        Thread.sleep(100);
+        gate.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(logins.get(), equalTo(1));
+        assertThat(sessions.stream().map(Session::token).distinct().toList(), contains("token-1"));
+    }
+
+    @Test
+    @DisplayName("Перед истечением сессия обновляется в фоне, а после сброса - входом заново")
+    public void testRefreshAheadAndInvalidate() throws InterruptedException {
+        CountDownLatch gate = new CountDownLatch(1);
+        SessionCache cache = cache(gate);
+        gate.countDown();
+        Session first = cache.session("andrew02", "123abc");
+
+        clock.addAndGet(HOUR - 30_000);
+        assertThat(cache.session("andrew02", "123abc"), sameInstance(first));
+        for (int i = 0; i < 50 && cache.cached("andrew02") == first; i++) {
+            Thread.sleep(10);
+        }
+        assertThat(cache.cached("andrew02").token(), equalTo("token-2"));
+
+        cache.invalidateToken("token-2");
+        assertThat(cache.cached("andrew02"), nullValue());
+        assertThat(cache.session("andrew02", "123abc").token(), equalTo("token-3"));
+    }
+}
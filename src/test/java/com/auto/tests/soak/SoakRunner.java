@@ -0,0 +1,283 @@
+package com.auto.tests.soak;
+
+import com.auto.tests.BaseClass;
+import com.auto.tests.json.Json;
+import com.auto.tests.load.LoadRunner;
+import com.auto.tests.load.Scenarios;
+import com.auto.tests.metrics.ConnectionPoolMetrics;
+import com.auto.tests.metrics.LatencyHistogram;
+import com.auto.tests.metrics.LatencyRegistry;
+import com.auto.tests.metrics.TimedHttpClientFactory;
+import com.auto.tests.support.Eventually;
+import com.auto.tests.support.RunReportListener;
+import com.sun.management.UnixOperatingSystemMXBean;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Длительный прогон сценариев {@link Scenarios} (PetTests, StoreTests, UsersTests) по кругу на concurrency
+ * виртуальных потоках. Раз в интервал снимается замер: куча после сборки мусора, живые платформенные потоки,
+ * открытые дескрипторы и сокеты процесса, занятые соединения пула и задержка итераций за интервал. После прогона
+ * каждый ряд без разогрева проверяется на монотонный рост {@link Trend}: медленная утечка памяти, потоков,
+ * соединений или дрейф задержки видны только на длинной дистанции и только статистически.
+ *
+ * <p>Параметры (системные свойства): soak.durationSeconds (600), soak.intervalSeconds (10),
+ * soak.warmupSeconds (60), soak.concurrency (4), soak.mix ("pet=1,order=1,user=1"),
+ * soak.forceGc (true - System.gc() перед замером кучи, иначе берется куча после последней сборки),
+ * soak.alpha (0.01), soak.minGrowth (0.1), soak.maxErrorRate (0.01).
+ */
+public final class SoakRunner {
+
+    static final List<String> METRICS = List.of(
+            "heapAfterGcMb", "threads", "openFds", "sockets", "leasedConnections", "p50Ms", "p99Ms");
+
+    private final Duration duration;
+    private final Duration interval;
+    private final Duration warmup;
+    private final int concurrency;
+    private final boolean forceGc;
+    private final Map<String, Integer> mix;
+    private final List<Map.Entry<String, Runnable>> weighted = new ArrayList<>();
+    private final Map<String, LongAdder> completed = new LinkedHashMap<>();
+    private final Map<String, LongAdder> failed = new LinkedHashMap<>();
+    private final AtomicReference<LatencyHistogram> window = new AtomicReference<>(new LatencyHistogram());
+    private final AtomicLong windowErrors = new AtomicLong();
+    private final List<Map<String, Object>> samples = new ArrayList<>();
+    private volatile String firstError;
+
+    public SoakRunner(Duration duration, Duration interval, Duration warmup, int concurrency,
+                      Map<String, Integer> mix, boolean forceGc) {
+        Map<String, Runnable> available = Scenarios.all();
+        this.duration = duration;
+        this.interval = interval;
+        this.warmup = warmup;
+        this.concurrency = concurrency;
+        this.forceGc = forceGc;
+        this.mix = mix;
+        mix.forEach((name, weight) -> {
+            Runnable body = available.get(name);
+            if (body == null) {
+                throw new IllegalArgumentException("Unknown scenario '" + name + "', expected one of " + available.keySet());
+            }
+            for (int i = 0; i < weight; i++) {
+                weighted.add(Map.entry(name, body));
+            }
+            completed.put(name, new LongAdder());
+            failed.put(name, new LongAdder());
+        });
+    }
+
+    public static void main(String[] args) throws IOException {
+        SoakRunner runner = new SoakRunner(
+                Duration.ofSeconds(Long.getLong("soak.durationSeconds", 600)),
+                Duration.ofSeconds(Long.getLong("soak.intervalSeconds", 10)),
+                Duration.ofSeconds(Long.getLong("soak.warmupSeconds", 60)),
+                Integer.getInteger("soak.concurrency", 4),
+                LoadRunner.parseMix(System.getProperty("soak.mix", "pet=1,order=1,user=1")),
+                Boolean.parseBoolean(System.getProperty("soak.forceGc", "true")));
+        double alpha = Double.parseDouble(System.getProperty("soak.alpha", "0.01"));
+        double minGrowth = Double.parseDouble(System.getProperty("soak.minGrowth", "0.1"));
+        double maxErrorRate = Double.parseDouble(System.getProperty("soak.maxErrorRate", "0.01"));
+
+        BaseClass.globalSetup();
+        runner.run();
+        Map<String, Trend> trends = runner.trends();
+        List<String> growing = trends.entrySet().stream()
+                .filter(e -> e.getValue().growing(alpha, minGrowth)).map(Map.Entry::getKey).toList();
+
+        Map<String, Object> report = runner.report(trends, alpha, minGrowth);
+        report.put("growing", growing);
+        Path dir = RunReportListener.reportsDir();
+        Files.createDirectories(dir);
+        Files.writeString(dir.resolve("soak.json"), Json.write(report));
+        Files.writeString(dir.resolve("soak.csv"), runner.csv());
+        LatencyRegistry.writeReport(dir);
+        ConnectionPoolMetrics.writeReport(dir);
+        Eventually.writeReport(dir);
+        runner.print(trends, alpha, minGrowth);
+
+        double errorRate = runner.errorRate();
+        System.out.printf("Растут: %s, доля ошибок %.4f (допустимо %.4f), отчеты: %s%n",
+                growing.isEmpty() ? "ничего" : String.join(", ", growing), errorRate, maxErrorRate, dir.toAbsolutePath());
+        System.exit(growing.isEmpty() && errorRate <= maxErrorRate ? 0 : 1);
+    }
+
+    public void run() {
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                workers.execute(() -> loop(end));
+            }
+            for (long tick = 1; start + tick * interval.toNanos() <= end; tick++) {
+                long at = start + tick * interval.toNanos();
+                for (long wait; (wait = at - System.nanoTime()) > 0; ) {
+                    LockSupport.parkNanos(wait);
+                }
+                Map<String, Object> sample = sample(tick * interval.toSeconds());
+                samples.add(sample);
+                System.out.printf("%5ds: куча %s МБ, потоков %s, fd %s, сокетов %s, соединений %s, итераций %s (ошибок %s), p50 %sms, p99 %sms%n",
+                        sample.values().toArray());
+            }
+        }
+    }
+
+    private void loop(long end) {
+        while (System.nanoTime() < end) {
+            Map.Entry<String, Runnable> scenario = weighted.get(ThreadLocalRandom.current().nextInt(weighted.size()));
+            long started = System.nanoTime();
+            try {
+                scenario.getValue().run();
+                completed.get(scenario.getKey()).increment();
+            } catch (Throwable e) {
+                failed.get(scenario.getKey()).increment();
+                windowErrors.incrementAndGet();
+                if (firstError == null) {
+                    firstError = scenario.getKey() + ": " + e.toString().lines().findFirst().orElse(e.getClass().getName());
+                }
+            } finally {
+                window.get().record(System.nanoTime() - started);
+            }
+        }
+    }
+
+    private Map<String, Object> sample(long elapsedSeconds) {
+        LatencyHistogram latency = window.getAndSet(new LatencyHistogram());
+        long errors = windowErrors.getAndSet(0);
+        if (forceGc) {
+            System.gc();
+        }
+        Map<String, Object> sample = new LinkedHashMap<>();
+        sample.put("elapsedSeconds", elapsedSeconds);
+        sample.put("heapAfterGcMb", Math.round(heapAfterGc() / 1024.0 / 1024.0 * 100) / 100.0);
+        sample.put("threads", ManagementFactory.getThreadMXBean().getThreadCount());
+        sample.put("openFds", ManagementFactory.getOperatingSystemMXBean() instanceof UnixOperatingSystemMXBean unix
+                ? unix.getOpenFileDescriptorCount() : -1);
+        sample.put("sockets", sockets());
+        sample.put("leasedConnections", TimedHttpClientFactory.leasedConnections());
+        sample.put("iterations", latency.count());
+        sample.put("errors", errors);
+        sample.put("p50Ms", LatencyRegistry.millis(latency.percentile(50)));
+        sample.put("p99Ms", LatencyRegistry.millis(latency.percentile(99)));
+        return sample;
+    }
+
+    // занятость пулов кучи сразу после последней сборки: мусор между сборками не мешает видеть живой объем
+    private static long heapAfterGc() {
+        long used = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            MemoryUsage afterGc = pool.getCollectionUsage();
+            if (pool.getType() == MemoryType.HEAP && afterGc != null) {
+                used += afterGc.getUsed();
+            }
+        }
+        return used;
+    }
+
+    // сокеты процесса по ссылкам /proc/self/fd, вне Linux - -1 (ряд не проверяется)
+    private static long sockets() {
+        Path fds = Path.of("/proc/self/fd");
+        if (!Files.isDirectory(fds)) {
+            return -1;
+        }
+        try (Stream<Path> links = Files.list(fds)) {
+            return links.filter(link -> {
+                try {
+                    return Files.readSymbolicLink(link).toString().startsWith("socket:");
+                } catch (IOException e) {
+                    return false; // дескриптор закрылся, пока мы его читали
+                }
+            }).count();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    /** Тренды по замерам после разогрева; ряды, недоступные на этой платформе, пропускаются. */
+    Map<String, Trend> trends() {
+        List<Map<String, Object>> measured = samples.stream()
+                .filter(s -> ((Number) s.get("elapsedSeconds")).longValue() > warmup.toSeconds()).toList();
+        Map<String, Trend> trends = new LinkedHashMap<>();
+        for (String metric : METRICS) {
+            List<Map<String, Object>> points = metric.endsWith("Ms")
+                    ? measured.stream().filter(s -> ((Number) s.get("iterations")).longValue() > 0).toList()
+                    : measured;
+            double[] values = points.stream().mapToDouble(s -> ((Number) s.get(metric)).doubleValue()).toArray();
+            if (values.length > 0 && Arrays.stream(values).noneMatch(v -> v < 0)) {
+                trends.put(metric, Trend.of(values));
+            }
+        }
+        return trends;
+    }
+
+    public double errorRate() {
+        long done = completed.values().stream().mapToLong(LongAdder::sum).sum();
+        long errors = failed.values().stream().mapToLong(LongAdder::sum).sum();
+        return done + errors == 0 ? 0 : (double) errors / (done + errors);
+    }
+
+    private Map<String, Object> report(Map<String, Trend> trends, double alpha, double minGrowth) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("durationSeconds", duration.toSeconds());
+        report.put("intervalSeconds", interval.toSeconds());
+        report.put("warmupSeconds", warmup.toSeconds());
+        report.put("concurrency", concurrency);
+        report.put("mix", mix);
+        report.put("forceGc", forceGc);
+        report.put("alpha", alpha);
+        report.put("minGrowth", minGrowth);
+        Map<String, Object> scenarios = new LinkedHashMap<>();
+        completed.forEach((name, done) -> scenarios.put(name,
+                Map.of("completed", done.sum(), "errors", failed.get(name).sum())));
+        report.put("scenarios", scenarios);
+        report.put("errorRate", Math.round(errorRate() * 10_000) / 10_000.0);
+        if (firstError != null) {
+            report.put("firstError", firstError);
+        }
+        Map<String, Object> trendMaps = new LinkedHashMap<>();
+        trends.forEach((metric, trend) -> trendMaps.put(metric, trend.toMap(alpha, minGrowth, interval.toSeconds())));
+        report.put("trends", trendMaps);
+        report.put("samples", samples);
+        return report;
+    }
+
+    private String csv() {
+        List<String> columns = samples.isEmpty() ? List.of() : List.copyOf(samples.get(0).keySet());
+        StringBuilder csv = new StringBuilder(String.join(",", columns)).append('\n');
+        for (Map<String, Object> sample : samples) {
+            csv.append(columns.stream().map(c -> String.valueOf(sample.get(c))).collect(Collectors.joining(","))).append('\n');
+        }
+        return csv.toString();
+    }
+
+    private void print(Map<String, Trend> trends, double alpha, double minGrowth) {
+        System.out.printf("%-18s %8s %10s %12s %9s %8s%n", "metric", "samples", "start", "slope/hour", "p", "verdict");
+        trends.forEach((metric, trend) -> System.out.printf("%-18s %8d %10.2f %12.3f %9.4f %8s%n",
+                metric, trend.samples, trend.start, trend.slope * 3600 / interval.toSeconds(), trend.pValue,
+                trend.growing(alpha, minGrowth) ? "РОСТ" : "ok"));
+        if (firstError != null) {
+            System.out.println("первая ошибка: " + firstError);
+        }
+    }
+}
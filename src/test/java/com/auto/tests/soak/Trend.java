@@ -0,0 +1,121 @@
+package com.auto.tests.soak;
+
+import com.auto.tests.metrics.NormalDistribution;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Монотонный тренд ряда замеров: непараметрический тест Манна-Кендалла (с поправкой на совпадающие значения,
+ * которых много у счетчиков потоков и дескрипторов) и наклон Тейла-Сена. Оба не чувствительны к выбросам,
+ * поэтому одиночная пауза GC или медленный запрос не выглядят ростом, а пила кучи без роста минимумов - выглядит
+ * шумом. Рост засчитывается, только если он одновременно значим (p меньше alpha) и заметен: прирост по линии Сена
+ * за окно больше minGrowth от начального уровня (но не меньше единицы - счетчики от нуля).
+ */
+final class Trend {
+
+    // попарных наклонов n^2/2: сутки замеров раз в 10 секунд без сжатия заняли бы сотни мегабайт кучи
+    private static final int MAX_POINTS = 1_000;
+
+    final int samples;
+    final double z;
+    final double pValue;
+    final double slope;
+    final double start;
+    final double growth;
+
+    private Trend(int samples, double z, double pValue, double slope, double start) {
+        this.samples = samples;
+        this.z = z;
+        this.pValue = pValue;
+        this.slope = slope;
+        this.start = start;
+        this.growth = slope * Math.max(0, samples - 1);
+    }
+
+    /**
+     * Тренд по равноотстоящим замерам; slope - прирост за один интервал. Длинный ряд сначала сжимается
+     * медианами соседних замеров до {@link #MAX_POINTS} точек.
+     */
+    static Trend of(double[] series) {
+        int step = (series.length + MAX_POINTS - 1) / MAX_POINTS;
+        double[] values = step <= 1 ? series : compress(series, step);
+        int n = values.length;
+        if (n < 3) {
+            return new Trend(series.length, 0, 1, 0, n == 0 ? 0 : values[0]);
+        }
+        long s = 0;
+        double[] slopes = new double[n * (n - 1) / 2];
+        int k = 0;
+        for (int i = 0; i < n - 1; i++) {
+            for (int j = i + 1; j < n; j++) {
+                s += Integer.signum(Double.compare(values[j], values[i]));
+                slopes[k++] = (values[j] - values[i]) / (j - i);
+            }
+        }
+        double variance = (n * (n - 1.0) * (2 * n + 5) - tieCorrection(values)) / 18;
+        double z = variance <= 0 || s == 0 ? 0 : (s - Math.signum(s)) / Math.sqrt(variance);
+        double slope = median(slopes);
+        double[] intercepts = new double[n];
+        for (int i = 0; i < n; i++) {
+            intercepts[i] = values[i] - slope * i;
+        }
+        return new Trend(series.length, z, NormalDistribution.upperTail(z), slope / Math.max(step, 1), median(intercepts));
+    }
+
+    private static double[] compress(double[] series, int step) {
+        double[] points = new double[(series.length + step - 1) / step];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = median(Arrays.copyOfRange(series, i * step, Math.min(series.length, (i + 1) * step)));
+        }
+        return points;
+    }
+
+    boolean growing(double alpha, double minGrowth) {
+        return pValue < alpha && growth > 0 && relativeGrowth() > minGrowth;
+    }
+
+    double relativeGrowth() {
+        return growth / Math.max(Math.abs(start), 1);
+    }
+
+    Map<String, Object> toMap(double alpha, double minGrowth, double intervalSeconds) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("samples", samples);
+        map.put("start", round(start));
+        map.put("slopePerHour", round(slope * 3600 / intervalSeconds));
+        map.put("growth", round(growth));
+        map.put("relativeGrowth", round(relativeGrowth()));
+        map.put("z", round(z));
+        map.put("pValue", pValue < 1e-4 ? pValue : round(pValue));
+        map.put("growing", growing(alpha, minGrowth));
+        return map;
+    }
+
+    private static double tieCorrection(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        double correction = 0;
+        for (int i = 0; i < sorted.length; ) {
+            int j = i;
+            while (j < sorted.length && sorted[j] == sorted[i]) {
+                j++;
+            }
+            long t = j - i;
+            correction += t * (t - 1.0) * (2 * t + 5);
+            i = j;
+        }
+        return correction;
+    }
+
+    private static double median(double[] values) {
+        Arrays.sort(values);
+        int middle = values.length / 2;
+        return values.length % 2 == 1 ? values[middle] : (values[middle - 1] + values[middle]) / 2;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+}
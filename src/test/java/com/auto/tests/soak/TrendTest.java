@@ -0,0 +1,78 @@
+package com.auto.tests.soak;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class TrendTest {
+
+    private static double[] series(int n, double start, double slope, double noise, long seed) {
+        Random random = new Random(seed);
+        double[] values = new double[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = start + slope * i + (random.nextDouble() - 0.5) * 2 * noise;
+        }
+        return values;
+    }
+
+    @Test
+    @DisplayName("Медленный рост под шумом больше шага засчитывается, наклон близок к истинному")
+    public void testSlowLeakUnderNoise() {
+        Trend trend = Trend.of(series(120, 100, 0.2, 5, 1));
+
+        assertThat(trend.growing(0.01, 0.1), is(true));
+        assertThat(trend.slope, closeTo(0.2, 0.05));
+        assertThat(trend.start, closeTo(100, 3));
+    }
+
+    @Test
+    @DisplayName("Стационарный шум и пила без роста минимумов не считаются ростом")
+    public void testNoiseIsNotGrowth() {
+        double[] saw = new double[120];
+        for (int i = 0; i < saw.length; i++) {
+            saw[i] = 28 + (i % 3) * 1.5;
+        }
+
+        assertThat(Trend.of(series(120, 100, 0, 5, 2)).growing(0.01, 0.1), is(false));
+        assertThat(Trend.of(saw).growing(0.01, 0.1), is(false));
+    }
+
+    @Test
+    @DisplayName("Счетчик с одиночными всплесками и совпадающими значениями не растет")
+    public void testTiesAndSpikes() {
+        double[] threads = new double[60];
+        Arrays.fill(threads, 18);
+        threads[10] = 40;
+        threads[59] = 25;
+
+        Trend trend = Trend.of(threads);
+
+        assertThat(trend.slope, equalTo(0.0));
+        assertThat(trend.growing(0.01, 0.1), is(false));
+    }
+
+    @Test
+    @DisplayName("Значимый, но незаметный рост ниже minGrowth не засчитывается")
+    public void testSignificantButSmallGrowth() {
+        Trend trend = Trend.of(series(100, 1000, 0.5, 1, 3));
+
+        assertThat(trend.pValue, lessThan(0.01));
+        assertThat(trend.relativeGrowth(), lessThan(0.1));
+        assertThat(trend.growing(0.01, 0.1), is(false));
+    }
+
+    @Test
+    @DisplayName("Длинный ряд сжимается, наклон остается в единицах одного интервала")
+    public void testLongSeriesCompressed() {
+        Trend trend = Trend.of(series(5_000, 50, 0.01, 1, 4));
+
+        assertThat(trend.samples, equalTo(5_000));
+        assertThat(trend.slope, closeTo(0.01, 0.002));
+        assertThat(trend.growing(0.01, 0.1), is(true));
+    }
+}
@@ -0,0 +1,98 @@
+package com.auto.tests.steps;
+
+import com.auto.tests.model.Pet;
+import com.auto.tests.support.Eventually;
+import com.auto.tests.support.StreamingArrayAssert;
+import org.hamcrest.Matcher;
+
+import java.io.InputStream;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Шаги /pet с проверками: их вызывают и {@link com.auto.tests.PetTests}, и сценарии нагрузки, поэтому
+ * нагрузка проверяет ответы так же, как функциональные тесты.
+ */
+public final class PetSteps {
+
+    private PetSteps() {
+    }
+
+    public static void add(Pet pet) {
+        given()
+                .header("Content-Type", "application/json")
+                .body(pet.toJson())
+                .when()
+                .post("/pet")
+                .then()
+                .statusCode(200)
+                .body("name", equalTo(pet.name()));
+    }
+
+    public static void get(long petId) {
+        given()
+                .when()
+                .get("/pet/{petId}", petId)
+                .then()
+                .statusCode(200)
+                .body("id", equalTo(petId));
+    }
+
+    public static void update(Pet pet) {
+        given()
+                .header("Content-Type", "application/json")
+                .body(pet.toJson())
+                .when()
+                .put("/pet")
+                .then()
+                .statusCode(200)
+                .body("status", equalTo(pet.status()));
+    }
+
+    public static void updateWithForm(long petId, String name, String status) {
+        given()
+                .contentType("application/x-www-form-urlencoded")
+                .formParam("name", name)
+                .formParam("status", status)
+                .when()
+                .post("/pet/{petId}", petId)
+                .then()
+                .statusCode(200);
+    }
+
+    public static void uploadImage(long petId) {
+        given()
+                .multiPart("file", "test.png")
+                .when()
+                .post("/pet/{petId}/uploadImage", petId)
+                .then()
+                .statusCode(200);
+    }
+
+    // Ответ findByStatus проверяется потоково: на заполненном сервере это мегабайты JSON
+    public static void findByStatus(String statuses, Matcher<?> status) {
+        InputStream pets = given()
+                .queryParam("status", statuses)
+                .when()
+                .get("/pet/findByStatus")
+                .then()
+                .statusCode(200)
+                .extract()
+                .asInputStream();
+
+        StreamingArrayAssert.eachElement()
+                .field("id", instanceOf(Number.class))
+                .field("name", anyOf(nullValue(), instanceOf(String.class)))
+                .field("status", status)
+                .verify(pets);
+    }
+
+    public static void delete(long petId) {
+        Eventually.untilAsserted("DELETE /pet/{petId}", () -> given()
+                .when()
+                .delete("/pet/{petId}", petId)
+                .then()
+                .statusCode(200));
+    }
+}
@@ -0,0 +1,52 @@
+package com.auto.tests.steps;
+
+import com.auto.tests.model.Order;
+import com.auto.tests.support.Eventually;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+
+/** Шаги /store с проверками, общие для {@link com.auto.tests.StoreTests} и сценариев нагрузки. */
+public final class StoreSteps {
+
+    private StoreSteps() {
+    }
+
+    public static void inventory() {
+        given()
+                .when()
+                .get("/store/inventory")
+                .then()
+                .statusCode(200)
+                .body("available", greaterThanOrEqualTo(0));
+    }
+
+    public static void place(Order order) {
+        given()
+                .header("Content-Type", "application/json")
+                .body(order.toJson())
+                .when()
+                .post("/store/order")
+                .then()
+                .statusCode(200)
+                .body("status", equalTo(order.status()));
+    }
+
+    // Сразу после создания сервер почти всегда возвращает 404, со второй попытки находит заказ
+    public static void get(long orderId) {
+        Eventually.untilAsserted("GET /store/order/{orderId}", () -> given()
+                .when()
+                .get("/store/order/{orderId}", orderId)
+                .then()
+                .statusCode(200)
+                .body("id", equalTo(orderId)));
+    }
+
+    public static void delete(long orderId) {
+        Eventually.untilAsserted("DELETE /store/order/{orderId}", () -> given()
+                .when()
+                .delete("/store/order/{orderId}", orderId)
+                .then()
+                .statusCode(200));
+    }
+}
@@ -0,0 +1,98 @@
+package com.auto.tests.steps;
+
+import com.auto.tests.json.JsonWriter;
+import com.auto.tests.model.User;
+import com.auto.tests.session.SessionCache;
+import com.auto.tests.support.Eventually;
+
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+
+/** Шаги /user с проверками, общие для {@link com.auto.tests.UsersTests} и сценариев нагрузки. */
+public final class UserSteps {
+
+    private UserSteps() {
+    }
+
+    public static void create(User user) {
+        given()
+                .header("Content-Type", "application/json")
+                .body(user.toJson())
+                .when()
+                .post("/user")
+                .then()
+                .statusCode(200);
+    }
+
+    public static void createWithArray(List<User> users) {
+        given()
+                .header("Content-Type", "application/json")
+                .body(JsonWriter.toBytes(users))
+                .when()
+                .post("/user/createWithArray")
+                .then()
+                .statusCode(200);
+    }
+
+    public static void createWithList(List<User> users) {
+        given()
+                .header("Content-Type", "application/json")
+                .body(JsonWriter.toBytes(users))
+                .when()
+                .post("/user/createWithList")
+                .then()
+                .statusCode(200);
+    }
+
+    // Сразу после создания сервер почти всегда возвращает 404, со второй попытки находит пользователя
+    public static void get(String username) {
+        Eventually.untilAsserted("GET /user/{username}", () -> given()
+                .when()
+                .get("/user/{username}", username)
+                .then()
+                .statusCode(200)
+                .body("username", equalTo(username)));
+    }
+
+    public static void update(String username, User user) {
+        given()
+                .header("Content-Type", "application/json")
+                .body(user.toJson())
+                .when()
+                .put("/user/{username}", username)
+                .then()
+                .statusCode(200);
+    }
+
+    public static void login(String username, String password) {
+        given()
+                .queryParam("username", username)
+                .queryParam("password", password)
+                .when()
+                .get("/user/login")
+                .then()
+                .statusCode(200)
+                .header("X-Expires-After", notNullValue())
+                .header("X-Rate-Limit", notNullValue());
+    }
+
+    /** Выход из закэшированной сессии: вход выполняет {@link SessionCache}, выход сбрасывает ее. */
+    public static void logout(String username, String password) {
+        given()
+                .spec(SessionCache.shared().session(username, password).spec())
+                .when()
+                .get("/user/logout")
+                .then()
+                .statusCode(200);
+    }
+
+    public static void delete(String username) {
+        Eventually.untilAsserted("DELETE /user/{username}", () -> given()
+                .when()
+                .delete("/user/{username}", username)
+                .then()
+                .statusCode(200));
+    }
+}
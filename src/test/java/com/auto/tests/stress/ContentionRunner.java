@@ -0,0 +1,286 @@
+package com.auto.tests.stress;
+
+import com.auto.tests.BaseClass;
+import com.auto.tests.json.Json;
+import com.auto.tests.metrics.ConnectionPoolMetrics;
+import com.auto.tests.metrics.LatencyHistogram;
+import com.auto.tests.metrics.LatencyRegistry;
+import com.auto.tests.model.Pet;
+import com.auto.tests.model.User;
+import com.auto.tests.support.Fixtures;
+import com.auto.tests.support.RunIds;
+import com.auto.tests.support.RunReportListener;
+import io.restassured.response.Response;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Конкурентная запись в одни и те же сущности: N виртуальных потоков вперемешку шлют PUT /pet,
+ * POST /pet/{petId} (форма), PUT /user/{username} и читают эти сущности обратно. Каждая запись кладет
+ * уникальную метку сразу в несколько полей (name и status питомца, firstName, lastName и email пользователя),
+ * поэтому разные метки в полях одного ответа - разорванная запись, а история операций проверяется
+ * {@link History} на устаревшие чтения и потерянные обновления.
+ *
+ * <p>Параметры (системные свойства): stress.threads (32), stress.durationSeconds (10), stress.pets (2),
+ * stress.users (2), stress.readShare (0.4), stress.maxViolations (0).
+ */
+public final class ContentionRunner {
+
+    private final int threads;
+    private final Duration duration;
+    private final double readShare;
+    private final List<Long> petIds = new ArrayList<>();
+    private final List<String> usernames = new ArrayList<>();
+    private final History history = new History();
+    private final Map<String, OpStats> stats = new LinkedHashMap<>();
+    private final List<History.Violation> torn = Collections.synchronizedList(new ArrayList<>());
+
+    public ContentionRunner(int threads, Duration duration, int pets, int users, double readShare) {
+        this.threads = threads;
+        this.duration = duration;
+        this.readShare = readShare;
+        for (int i = 0; i < pets; i++) {
+            petIds.add(RunIds.nextId());
+        }
+        for (int i = 0; i < users; i++) {
+            usernames.add(RunIds.username("stress"));
+        }
+        for (String op : List.of("PUT /pet", "POST /pet/{petId}", "PUT /user/{username}", "GET /pet/{petId}", "GET /user/{username}")) {
+            stats.put(op, new OpStats());
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        ContentionRunner runner = new ContentionRunner(
+                Integer.getInteger("stress.threads", 32),
+                Duration.ofSeconds(Long.getLong("stress.durationSeconds", 10)),
+                Integer.getInteger("stress.pets", 2),
+                Integer.getInteger("stress.users", 2),
+                Double.parseDouble(System.getProperty("stress.readShare", "0.4")));
+        int maxViolations = Integer.getInteger("stress.maxViolations", 0);
+
+        BaseClass.globalSetup();
+        Map<String, Object> report;
+        try {
+            report = runner.run();
+        } finally {
+            Fixtures.teardown();
+        }
+
+        Path dir = RunReportListener.reportsDir();
+        Files.createDirectories(dir);
+        Files.writeString(dir.resolve("stress.json"), Json.write(report));
+        LatencyRegistry.writeReport(dir);
+        ConnectionPoolMetrics.writeReport(dir);
+        runner.print(report);
+        int violations = ((List<?>) report.get("violations")).size();
+        System.out.printf("Нарушений: %d (допустимо %d), отчеты: %s%n", violations, maxViolations, dir.toAbsolutePath());
+        System.exit(violations > maxViolations ? 1 : 0);
+    }
+
+    public Map<String, Object> run() {
+        for (long petId : petIds) {
+            Fixtures.trackPet(petId);
+            putPet(petId, "init-" + petId);
+        }
+        for (String username : usernames) {
+            Fixtures.trackUser(username);
+            putUser(username, "init-" + username);
+        }
+
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                workers.execute(() -> {
+                    long seq = 0;
+                    while (System.nanoTime() < deadline) {
+                        step("t" + thread + "-" + seq++);
+                    }
+                });
+            }
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        Map<String, String> finalValues = new LinkedHashMap<>();
+        for (long petId : petIds) {
+            finalValues.put("pet:" + petId, readPet(petId));
+        }
+        for (String username : usernames) {
+            finalValues.put("user:" + username, readUser(username));
+        }
+        List<History.Violation> violations = new ArrayList<>(torn);
+        violations.addAll(history.check(finalValues));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("threads", threads);
+        report.put("durationSeconds", duration.toSeconds());
+        report.put("elapsedSeconds", Math.round(elapsedSeconds * 100) / 100.0);
+        report.put("operations", history.size());
+        report.put("throughputOps", Math.round(history.size() / elapsedSeconds * 100) / 100.0);
+        Map<String, Object> perOp = new LinkedHashMap<>();
+        stats.forEach((op, s) -> perOp.put(op, s.toMap(elapsedSeconds)));
+        report.put("ops", perOp);
+        Map<String, Long> byKind = new LinkedHashMap<>();
+        violations.forEach(v -> byKind.merge(v.kind(), 1L, Long::sum));
+        report.put("violationsByKind", byKind);
+        report.put("violations", violations.stream().map(History.Violation::toString).toList());
+        return report;
+    }
+
+    private void step(String token) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        boolean pet = random.nextInt(petIds.size() + usernames.size()) < petIds.size();
+        boolean read = random.nextDouble() < readShare;
+        if (pet) {
+            long petId = petIds.get(random.nextInt(petIds.size()));
+            if (read) {
+                readPet(petId);
+            } else if (random.nextBoolean()) {
+                putPet(petId, token);
+            } else {
+                formUpdatePet(petId, token);
+            }
+        } else {
+            String username = usernames.get(random.nextInt(usernames.size()));
+            if (read) {
+                readUser(username);
+            } else {
+                putUser(username, token);
+            }
+        }
+    }
+
+    private void putPet(long petId, String token) {
+        write("PUT /pet", "pet:" + petId, token, () -> given()
+                .header("Content-Type", "application/json")
+                .body(Pet.builder().id(petId).name(token).status(token).build().toJson())
+                .when()
+                .put("/pet"));
+    }
+
+    private void formUpdatePet(long petId, String token) {
+        write("POST /pet/{petId}", "pet:" + petId, token, () -> given()
+                .contentType("application/x-www-form-urlencoded")
+                .formParam("name", token)
+                .formParam("status", token)
+                .when()
+                .post("/pet/{petId}", petId));
+    }
+
+    private void putUser(String username, String token) {
+        write("PUT /user/{username}", "user:" + username, token, () -> given()
+                .header("Content-Type", "application/json")
+                .body(User.builder().username(username).firstName(token).lastName(token)
+                        .email(token + "@stress.test").password("stress").phone("0").userStatus(0).build().toJson())
+                .when()
+                .put("/user/{username}", username));
+    }
+
+    private String readPet(long petId) {
+        return read("GET /pet/{petId}", "pet:" + petId, () -> given().when().get("/pet/{petId}", petId),
+                response -> List.of(response.path("name"), response.path("status")));
+    }
+
+    private String readUser(String username) {
+        return read("GET /user/{username}", "user:" + username, () -> given().when().get("/user/{username}", username),
+                response -> {
+                    String email = response.path("email");
+                    return List.of(response.path("firstName"), response.path("lastName"),
+                            email == null ? "" : email.replace("@stress.test", ""));
+                });
+    }
+
+    private void write(String op, String key, String token, Supplier<Response> request) {
+        OpStats s = stats.get(op);
+        long invoke = System.nanoTime();
+        try {
+            Response response = request.get();
+            long complete = System.nanoTime();
+            s.latency.record(complete - invoke);
+            if (response.statusCode() == 200) {
+                s.ok.increment();
+                history.write(key, token, invoke, complete);
+            } else {
+                s.failed.increment();
+            }
+        } catch (RuntimeException e) {
+            // запрос мог дойти до сервера: исход неизвестен, запись могла примениться в любой момент
+            s.failed.increment();
+            history.write(key, token, invoke, History.UNKNOWN);
+        }
+    }
+
+    private String read(String op, String key, Supplier<Response> request, Function<Response, List<Object>> fields) {
+        OpStats s = stats.get(op);
+        long invoke = System.nanoTime();
+        try {
+            Response response = request.get();
+            long complete = System.nanoTime();
+            s.latency.record(complete - invoke);
+            if (response.statusCode() != 200) {
+                s.failed.increment();
+                return null;
+            }
+            s.ok.increment();
+            List<Object> values = fields.apply(response);
+            String value = Objects.toString(values.get(0));
+            if (values.stream().anyMatch(v -> !Objects.toString(v).equals(value))) {
+                torn.add(new History.Violation("разорванная запись", key, values.toString()));
+            }
+            history.read(key, value, invoke, complete);
+            return value;
+        } catch (RuntimeException e) {
+            s.failed.increment();
+            return null;
+        }
+    }
+
+    public void print(Map<String, Object> report) {
+        System.out.printf("%-22s %8s %7s %10s %10s %10s %10s%n", "operation", "ok", "failed", "ops/s", "p50", "p99", "max");
+        stats.forEach((op, s) -> System.out.printf("%-22s %8d %7d %10.1f %8.2fms %8.2fms %8.2fms%n", op,
+                s.ok.sum(), s.failed.sum(), s.ok.sum() / (Double) report.get("elapsedSeconds"),
+                LatencyRegistry.millis(s.latency.percentile(50)), LatencyRegistry.millis(s.latency.percentile(99)),
+                LatencyRegistry.millis(s.latency.max())));
+        List<?> violations = (List<?>) report.get("violations");
+        violations.stream().limit(20).forEach(v -> System.out.println("  " + v));
+        if (violations.size() > 20) {
+            System.out.println("  ... всего " + violations.size());
+        }
+    }
+
+    private static final class OpStats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder ok = new LongAdder();
+        final LongAdder failed = new LongAdder();
+
+        Map<String, Object> toMap(double elapsedSeconds) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("ok", ok.sum());
+            map.put("failed", failed.sum());
+            map.put("throughputOps", Math.round(ok.sum() / elapsedSeconds * 100) / 100.0);
+            map.put("p50Ms", LatencyRegistry.millis(latency.percentile(50)));
+            map.put("p99Ms", LatencyRegistry.millis(latency.percentile(99)));
+            map.put("maxMs", LatencyRegistry.millis(latency.max()));
+            return map;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.auto.tests.stress;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * История операций над регистрами (одна сущность - один регистр) и ее проверка в духе линеаризуемости.
+ * Каждая запись кладет уникальное значение, поэтому прочитанное значение однозначно указывает на запись,
+ * и для регистра достаточно проверить, что эта запись могла быть последней к моменту чтения:
+ * началась до конца чтения и не была перекрыта записью, целиком уложившейся между ней и началом чтения.
+ * Финальное состояние проверяется как чтение после всех операций, перекрытая запись в нем - потерянное обновление.
+ * Запись с неизвестным исходом (обрыв, таймаут) могла примениться когда угодно после своего начала.
+ */
+final class History {
+
+    static final long UNKNOWN = Long.MAX_VALUE;
+
+    record Op(String key, boolean write, String value, long invoke, long complete) {
+    }
+
+    record Violation(String kind, String key, String detail) {
+        @Override
+        public String toString() {
+            return kind + " " + key + ": " + detail;
+        }
+    }
+
+    private final Queue<Op> ops = new ConcurrentLinkedQueue<>();
+
+    void write(String key, String value, long invoke, long complete) {
+        ops.add(new Op(key, true, value, invoke, complete));
+    }
+
+    void read(String key, String value, long invoke, long complete) {
+        ops.add(new Op(key, false, value, invoke, complete));
+    }
+
+    int size() {
+        return ops.size();
+    }
+
+    /** Проверяет чтения истории и финальные значения (снятые после завершения всех операций). */
+    List<Violation> check(Map<String, String> finalValues) {
+        Map<String, List<Op>> writes = new LinkedHashMap<>();
+        List<Op> reads = new ArrayList<>();
+        for (Op op : ops) {
+            if (op.write()) {
+                writes.computeIfAbsent(op.key(), k -> new ArrayList<>()).add(op);
+            } else {
+                reads.add(op);
+            }
+        }
+        writes.values().forEach(list -> list.sort(Comparator.comparingLong(Op::invoke)));
+        List<Violation> violations = new ArrayList<>();
+        for (Op read : reads) {
+            check(read, writes.getOrDefault(read.key(), List.of()), "устаревшее чтение", violations);
+        }
+        finalValues.forEach((key, value) -> {
+            if (value != null) {
+                check(new Op(key, false, value, UNKNOWN - 1, UNKNOWN - 1),
+                        writes.getOrDefault(key, List.of()), "потерянное обновление", violations);
+            }
+        });
+        return violations;
+    }
+
+    private void check(Op read, List<Op> writes, String staleKind, List<Violation> violations) {
+        Op source = null;
+        for (Op write : writes) {
+            if (write.value().equals(read.value())) {
+                source = write;
+                break;
+            }
+        }
+        if (source == null) {
+            violations.add(new Violation("значение ниоткуда", read.key(), "'" + read.value() + "' никто не записывал"));
+            return;
+        }
+        if (source.invoke() > read.complete()) {
+            violations.add(new Violation("чтение из будущего", read.key(), "'" + read.value() + "' прочитано до начала записи"));
+            return;
+        }
+        for (Op later : writes) {
+            if (later.invoke() > source.complete() && later.complete() < read.invoke()) {
+                violations.add(new Violation(staleKind, read.key(), "'" + read.value() + "' вместо '" + later.value()
+                        + "', начатого через " + (later.invoke() - source.complete()) / 1_000 + " мкс после него"));
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.auto.tests.stress;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class HistoryTest {
+
+    @Test
+    @DisplayName("Чтение, пересекающееся с записями, может вернуть любую из них")
+    public void testConcurrentReadsAccepted() {
+        History history = new History();
+        history.write("pet:1", "a", 0, 10);
+        history.write("pet:1", "b", 5, 20);
+        history.write("pet:1", "c", 15, 30);
+        history.read("pet:1", "a", 12, 25);
+        history.read("pet:1", "b", 12, 25);
+        history.read("pet:1", "c", 12, 25);
+
+        assertThat(history.check(Map.of("pet:1", "c")), empty());
+        assertThat(history.check(Map.of("pet:1", "b")), empty());
+    }
+
+    @Test
+    @DisplayName("Перекрытое значение после завершения следующей записи - устаревшее чтение, в финале - потерянное обновление")
+    public void testStaleReadAndLostUpdate() {
+        History history = new History();
+        history.write("user:u", "a", 0, 10);
+        history.write("user:u", "b", 20, 30);
+        history.read("user:u", "a", 40, 50);
+
+        List<History.Violation> violations = history.check(Map.of("user:u", "a"));
+        assertThat(violations.stream().map(History.Violation::kind).toList(),
+                contains("устаревшее чтение", "потерянное обновление"));
+    }
+
+    @Test
+    @DisplayName("Запись с неизвестным исходом может проявиться позже, а незаписанное значение - нарушение")
+    public void testUnknownOutcomeAndPhantomValue() {
+        History history = new History();
+        history.write("pet:1", "a", 0, History.UNKNOWN);
+        history.write("pet:1", "b", 20, 30);
+        history.read("pet:1", "a", 40, 50);
+        history.read("pet:1", "x", 40, 50);
+
+        assertThat(history.check(Map.of()).stream().map(History.Violation::kind).toList(), contains("значение ниоткуда"));
+    }
+}
@@ -0,0 +1,433 @@
+package com.auto.tests.stub;
+
+import com.auto.tests.json.Json;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Встроенный заменитель https://petstore.swagger.io/v2 для /pet, /store и /user.
+ * Поднимается один раз на JVM, обслуживает запросы на виртуальных потоках и хранит данные в памяти.
+ * Повторяет поведение публичного сервиса, включая известные дефекты валидации,
+ * поэтому негативные тесты ведут себя одинаково на стенде и на реальном сервере.
+ */
+public final class PetstoreStub {
+
+    public static final String BASE_PATH = "/v2";
+
+    static {
+        // заголовки и тело ответа пишутся отдельно: без TCP_NODELAY keep-alive соединение ждет delayed ACK (~40 мс)
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private static final DateTimeFormatter EXPIRES_FORMAT =
+            DateTimeFormatter.ofPattern("EEE MMM dd HH:mm:ss zzz yyyy", Locale.US);
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ConcurrentMap<Long, Map<String, Object>> pets = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Map<String, Object>> orders = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Map<String, Object>> users = new ConcurrentHashMap<>();
+    private final AtomicLong generatedIds = new AtomicLong(9_000_000_000_000_000L);
+
+    private PetstoreStub(int port) throws IOException {
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.setExecutor(executor);
+        server.createContext(BASE_PATH, this::handle);
+        server.start();
+    }
+
+    public static PetstoreStub start(int port) {
+        try {
+            return new PetstoreStub(port);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось запустить локальный стенд Petstore", e);
+        }
+    }
+
+    public static PetstoreStub shared() {
+        return Holder.INSTANCE;
+    }
+
+    public String baseUri() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + BASE_PATH;
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.close();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            Reply reply;
+            try {
+                reply = route(exchange);
+            } catch (Json.ParseException | ClassCastException e) {
+                reply = Reply.message(400, "unknown", "bad input");
+            } catch (RuntimeException e) {
+                // как у публичного сервиса: необработанная ошибка - 500, а не оборванное соединение
+                reply = Reply.message(500, "unknown", "something bad happened");
+            }
+            send(exchange, reply);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private Reply route(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath().substring(BASE_PATH.length());
+        List<String> segments = new ArrayList<>(Arrays.asList(path.split("/", -1)));
+        segments.removeIf(String::isEmpty);
+        if (segments.isEmpty()) {
+            return Reply.notFound();
+        }
+        return switch (segments.get(0)) {
+            case "pet" -> pet(method, segments, exchange);
+            case "store" -> store(method, segments, exchange);
+            case "user" -> user(method, segments, exchange);
+            default -> Reply.notFound();
+        };
+    }
+
+    // ---------------------------------------------------------------- /pet
+
+    private Reply pet(String method, List<String> segments, HttpExchange exchange) throws IOException {
+        if (segments.size() == 1) {
+            if (method.equals("POST") || method.equals("PUT")) {
+                Map<String, Object> pet = normalizePet(readObject(exchange));
+                pets.put(longValue(pet.get("id")), pet);
+                return Reply.ok(pet);
+            }
+            return Reply.methodNotAllowed();
+        }
+        if (segments.size() == 2 && segments.get(1).equals("findByStatus")) {
+            if (!method.equals("GET")) {
+                return Reply.methodNotAllowed();
+            }
+            Set<String> statuses = new HashSet<>();
+            for (String value : query(exchange).getOrDefault("status", List.of())) {
+                statuses.addAll(Arrays.asList(value.split(",")));
+            }
+            List<Map<String, Object>> found = new ArrayList<>();
+            for (Map<String, Object> pet : pets.values()) {
+                if (statuses.contains(String.valueOf(pet.get("status")))) {
+                    found.add(pet);
+                }
+            }
+            return Reply.ok(found);
+        }
+        Long petId = parseId(segments.get(1));
+        if (petId == null) {
+            return numberFormat(segments.get(1));
+        }
+        if (segments.size() == 3 && segments.get(2).equals("uploadImage") && method.equals("POST")) {
+            long bytes = drain(exchange.getRequestBody());
+            return Reply.message(200, "unknown",
+                    "additionalMetadata: null\nFile uploaded to ./upload, " + bytes + " bytes");
+        }
+        if (segments.size() != 2) {
+            return Reply.notFound();
+        }
+        return switch (method) {
+            case "GET" -> {
+                Map<String, Object> pet = pets.get(petId);
+                yield pet != null ? Reply.ok(pet) : Reply.message(404, "error", "Pet not found");
+            }
+            case "POST" -> {
+                Map<String, List<String>> form = parseForm(readBody(exchange));
+                Map<String, Object> updated = pets.computeIfPresent(petId, (id, pet) -> {
+                    Map<String, Object> copy = new LinkedHashMap<>(pet);
+                    form.getOrDefault("name", List.of()).forEach(name -> copy.put("name", name));
+                    form.getOrDefault("status", List.of()).forEach(status -> copy.put("status", status));
+                    return Collections.unmodifiableMap(copy);
+                });
+                yield updated != null
+                        ? Reply.message(200, "unknown", String.valueOf(petId))
+                        : Reply.message(404, "unknown", "not found");
+            }
+            case "DELETE" -> pets.remove(petId) != null
+                    ? Reply.message(200, "unknown", String.valueOf(petId))
+                    : Reply.empty(404);
+            default -> Reply.methodNotAllowed();
+        };
+    }
+
+    private Map<String, Object> normalizePet(Map<String, Object> source) {
+        Map<String, Object> pet = new LinkedHashMap<>();
+        pet.put("id", assignId(source.get("id")));
+        if (source.containsKey("category")) {
+            pet.put("category", source.get("category"));
+        }
+        pet.put("name", source.get("name"));
+        pet.put("photoUrls", source.getOrDefault("photoUrls", List.of()));
+        pet.put("tags", source.getOrDefault("tags", List.of()));
+        if (source.containsKey("status")) {
+            pet.put("status", source.get("status"));
+        }
+        return Collections.unmodifiableMap(pet);
+    }
+
+    // ---------------------------------------------------------------- /store
+
+    private Reply store(String method, List<String> segments, HttpExchange exchange) throws IOException {
+        if (segments.size() == 2 && segments.get(1).equals("inventory")) {
+            if (!method.equals("GET")) {
+                return Reply.methodNotAllowed();
+            }
+            Map<String, Object> inventory = new LinkedHashMap<>();
+            inventory.put("available", 0L);
+            for (Map<String, Object> pet : pets.values()) {
+                Object status = pet.get("status");
+                if (status != null) {
+                    inventory.merge(status.toString(), 1L, (a, b) -> (Long) a + (Long) b);
+                }
+            }
+            return Reply.ok(inventory);
+        }
+        if (segments.size() == 2 && segments.get(1).equals("order")) {
+            if (!method.equals("POST")) {
+                return Reply.methodNotAllowed();
+            }
+            Map<String, Object> source = readObject(exchange);
+            Map<String, Object> order = new LinkedHashMap<>();
+            order.put("id", assignId(source.get("id")));
+            order.put("petId", longValue(source.getOrDefault("petId", 0L)));
+            order.put("quantity", longValue(source.getOrDefault("quantity", 0L)));
+            if (source.containsKey("shipDate")) {
+                order.put("shipDate", source.get("shipDate"));
+            }
+            order.put("status", source.get("status"));
+            order.put("complete", Boolean.TRUE.equals(source.get("complete")));
+            Map<String, Object> stored = Collections.unmodifiableMap(order);
+            orders.put(longValue(stored.get("id")), stored);
+            return Reply.ok(stored);
+        }
+        if (segments.size() == 3 && segments.get(1).equals("order")) {
+            Long orderId = parseId(segments.get(2));
+            if (orderId == null) {
+                return numberFormat(segments.get(2));
+            }
+            return switch (method) {
+                case "GET" -> {
+                    Map<String, Object> order = orders.get(orderId);
+                    yield order != null ? Reply.ok(order) : Reply.message(404, "error", "Order not found");
+                }
+                case "DELETE" -> orders.remove(orderId) != null
+                        ? Reply.message(200, "unknown", String.valueOf(orderId))
+                        : Reply.message(404, "unknown", "Order Not Found");
+                default -> Reply.methodNotAllowed();
+            };
+        }
+        return Reply.notFound();
+    }
+
+    // ---------------------------------------------------------------- /user
+
+    private Reply user(String method, List<String> segments, HttpExchange exchange) throws IOException {
+        if (segments.size() == 1) {
+            if (!method.equals("POST")) {
+                return Reply.methodNotAllowed();
+            }
+            Map<String, Object> user = saveUser(readObject(exchange));
+            return Reply.message(200, "unknown", String.valueOf(user.get("id")));
+        }
+        if (segments.size() != 2) {
+            return Reply.notFound();
+        }
+        String name = segments.get(1);
+        if (method.equals("POST") && (name.equals("createWithArray") || name.equals("createWithList"))) {
+            for (Object item : (List<?>) Json.parse(readBody(exchange))) {
+                saveUser(asObject(item));
+            }
+            return Reply.message(200, "unknown", "ok");
+        }
+        if (method.equals("GET") && name.equals("login")) {
+            ZonedDateTime expires = ZonedDateTime.now(ZoneOffset.UTC).plusHours(1);
+            return Reply.message(200, "unknown", "logged in user session:" + System.currentTimeMillis())
+                    .withHeader("X-Rate-Limit", "5000")
+                    .withHeader("X-Expires-After", EXPIRES_FORMAT.format(expires));
+        }
+        if (method.equals("GET") && name.equals("logout")) {
+            return Reply.message(200, "unknown", "ok");
+        }
+        return switch (method) {
+            case "GET" -> {
+                Map<String, Object> user = users.get(name);
+                yield user != null ? Reply.ok(user) : Reply.message(404, "error", "User not found");
+            }
+            case "PUT" -> {
+                Map<String, Object> user = saveUser(readObject(exchange));
+                yield Reply.message(200, "unknown", String.valueOf(user.get("id")));
+            }
+            case "DELETE" -> users.remove(name) != null
+                    ? Reply.message(200, "unknown", name)
+                    : Reply.empty(404);
+            default -> Reply.methodNotAllowed();
+        };
+    }
+
+    private Map<String, Object> saveUser(Map<String, Object> source) {
+        Map<String, Object> user = new LinkedHashMap<>(source);
+        user.put("id", assignId(source.get("id")));
+        user.putIfAbsent("userStatus", 0L);
+        Map<String, Object> stored = Collections.unmodifiableMap(user);
+        users.put(String.valueOf(stored.get("username")), stored);
+        return stored;
+    }
+
+    // ---------------------------------------------------------------- helpers
+
+    private long assignId(Object id) {
+        long value = id == null ? 0L : longValue(id);
+        return value != 0L ? value : generatedIds.incrementAndGet();
+    }
+
+    private static long longValue(Object value) {
+        if (value instanceof Number number) {
+            return number.longValue();
+        }
+        throw new Json.ParseException("expected number but was " + value);
+    }
+
+    private static Long parseId(String raw) {
+        try {
+            return Long.parseLong(raw);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Reply numberFormat(String raw) {
+        return Reply.message(404, "unknown", "java.lang.NumberFormatException: For input string: \"" + raw + "\"");
+    }
+
+    private static Map<String, Object> readObject(HttpExchange exchange) throws IOException {
+        return asObject(Json.parse(readBody(exchange)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> asObject(Object value) {
+        if (value instanceof Map<?, ?>) {
+            return (Map<String, Object>) value;
+        }
+        throw new Json.ParseException("expected JSON object");
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static long drain(InputStream in) throws IOException {
+        try (in) {
+            byte[] buffer = new byte[64 * 1024];
+            long total = 0;
+            for (int read; (read = in.read(buffer)) != -1; ) {
+                total += read;
+            }
+            return total;
+        }
+    }
+
+    private static Map<String, List<String>> query(HttpExchange exchange) {
+        return parseForm(exchange.getRequestURI().getRawQuery());
+    }
+
+    private static Map<String, List<String>> parseForm(String raw) {
+        Map<String, List<String>> params = new LinkedHashMap<>();
+        if (raw == null || raw.isEmpty()) {
+            return params;
+        }
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            params.computeIfAbsent(key, k -> new ArrayList<>()).add(value);
+        }
+        return params;
+    }
+
+    private static void send(HttpExchange exchange, Reply reply) throws IOException {
+        reply.headers().forEach((name, value) -> exchange.getResponseHeaders().set(name, value));
+        if (reply.body() == null) {
+            exchange.sendResponseHeaders(reply.status(), -1);
+            return;
+        }
+        byte[] bytes = Json.write(reply.body()).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(reply.status(), bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private record Reply(int status, Object body, Map<String, String> headers) {
+
+        static Reply ok(Object body) {
+            return new Reply(200, body, Map.of());
+        }
+
+        static Reply empty(int status) {
+            return new Reply(status, null, Map.of());
+        }
+
+        static Reply message(int code, String type, String message) {
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("code", code);
+            body.put("type", type);
+            body.put("message", message);
+            return new Reply(code, body, Map.of());
+        }
+
+        static Reply notFound() {
+            return message(404, "unknown", "not found");
+        }
+
+        static Reply methodNotAllowed() {
+            return empty(405);
+        }
+
+        Reply withHeader(String name, String value) {
+            Map<String, String> copy = new LinkedHashMap<>(headers);
+            copy.put(name, value);
+            return new Reply(status, body, copy);
+        }
+    }
+
+    private static final class Holder {
+        private static final PetstoreStub INSTANCE = start(0);
+
+        static {
+            Runtime.getRuntime().addShutdownHook(new Thread(INSTANCE::stop, "petstore-stub-shutdown"));
+        }
+    }
+}
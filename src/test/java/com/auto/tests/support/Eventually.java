@@ -0,0 +1,132 @@
+package com.auto.tests.support;
+
+import com.auto.tests.jfr.AssertionEvent;
+import com.auto.tests.jfr.WaitEvent;
+import com.auto.tests.json.Json;
+import org.awaitility.core.ThrowingRunnable;
+import org.awaitility.pollinterval.PollInterval;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Ожидание согласованности "прочитай свою запись" поверх Awaitility.
+ * Первая проверка выполняется сразу, дальше интервал растет экспоненциально со случайным разбросом,
+ * поэтому быстро сходящийся бэкенд не теряет секунду на фиксированном pollInterval.
+ * Бюджет и интервалы настраиваются системными свойствами petstore.consistency.*.
+ */
+public final class Eventually {
+
+    private static final Duration BUDGET = Duration.ofMillis(Long.getLong("petstore.consistency.budgetMs", 6_000));
+    private static final Duration INITIAL_INTERVAL = Duration.ofMillis(Long.getLong("petstore.consistency.initialMs", 5));
+    private static final Duration MAX_INTERVAL = Duration.ofMillis(Long.getLong("petstore.consistency.maxIntervalMs", 500));
+
+    private static final ConcurrentMap<String, Stats> STATS = new ConcurrentHashMap<>();
+
+    private Eventually() {
+    }
+
+    public static void untilAsserted(String endpoint, ThrowingRunnable assertion) {
+        AtomicInteger attempts = new AtomicInteger();
+        WaitEvent wait = WaitEvent.start("eventually", endpoint);
+        long start = System.nanoTime();
+        boolean converged = false;
+        try {
+            // проверка идет в потоке теста: счетчики HTTP для JFR (JfrFilter) и события ассертов привязаны к потоку,
+            // а зависший запрос все равно ограничен таймаутами клиента
+            await(endpoint)
+                    .pollInSameThread()
+                    .atMost(BUDGET)
+                    .pollDelay(Duration.ZERO)
+                    .pollInterval(backoff())
+                    .untilAsserted(() -> {
+                        attempts.incrementAndGet();
+                        AssertionEvent event = AssertionEvent.start("eventually", endpoint);
+                        boolean passed = false;
+                        try {
+                            assertion.run();
+                            passed = true;
+                        } finally {
+                            event.finish(1, passed);
+                        }
+                    });
+            converged = true;
+        } finally {
+            wait.finish(attempts.get(), converged);
+            STATS.computeIfAbsent(endpoint, key -> new Stats())
+                    .record(attempts.get(), System.nanoTime() - start, converged);
+        }
+    }
+
+    public static PollInterval backoff() {
+        return (pollCount, previous) -> {
+            long ceiling = Math.min(MAX_INTERVAL.toNanos(), INITIAL_INTERVAL.toNanos() << Math.min(pollCount - 1, 20));
+            long half = Math.max(ceiling / 2, 1);
+            return Duration.ofNanos(half + ThreadLocalRandom.current().nextLong(half));
+        };
+    }
+
+    public static Map<String, Map<String, Object>> snapshot() {
+        Map<String, Map<String, Object>> result = new TreeMap<>();
+        STATS.forEach((endpoint, stats) -> result.put(endpoint, stats.toMap()));
+        return result;
+    }
+
+    public static void writeReport(Path dir) throws IOException {
+        if (STATS.isEmpty()) {
+            return;
+        }
+        Map<String, Map<String, Object>> snapshot = snapshot();
+        Files.createDirectories(dir);
+        Files.writeString(dir.resolve("consistency.json"), Json.write(snapshot));
+        System.out.println("Согласованность чтения после записи (попыток / время до сходимости):");
+        snapshot.forEach((endpoint, stats) -> System.out.printf("  %-32s calls=%s attempts(avg=%s, max=%s) time(avg=%sms, max=%sms) timeouts=%s%n",
+                endpoint, stats.get("calls"), stats.get("avgAttempts"), stats.get("maxAttempts"),
+                stats.get("avgMillis"), stats.get("maxMillis"), stats.get("timeouts")));
+    }
+
+    private static final class Stats {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder timeouts = new LongAdder();
+        private final LongAdder attempts = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final AtomicLong maxAttempts = new AtomicLong();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        void record(int attemptCount, long elapsedNanos, boolean converged) {
+            calls.increment();
+            if (!converged) {
+                timeouts.increment();
+            }
+            attempts.add(attemptCount);
+            nanos.add(elapsedNanos);
+            maxAttempts.accumulateAndGet(attemptCount, Math::max);
+            maxNanos.accumulateAndGet(elapsedNanos, Math::max);
+        }
+
+        Map<String, Object> toMap() {
+            long count = Math.max(calls.sum(), 1);
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("calls", calls.sum());
+            map.put("timeouts", timeouts.sum());
+            map.put("avgAttempts", Math.round(attempts.sum() * 100.0 / count) / 100.0);
+            map.put("maxAttempts", maxAttempts.get());
+            map.put("avgMillis", Math.round(nanos.sum() / 1e4 / count) / 100.0);
+            map.put("maxMillis", Math.round(maxNanos.get() / 1e4) / 100.0);
+            return map;
+        }
+    }
+}
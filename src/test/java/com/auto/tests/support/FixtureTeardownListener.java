@@ -0,0 +1,32 @@
+package com.auto.tests.support;
+
+import com.auto.tests.json.Json;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestPlan;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.Map;
+
+/**
+ * Удаляет сущности {@link Fixtures} после всех тестов. JUnit вызывает testPlanExecutionFinished в обратном
+ * порядке регистрации, поэтому listener объявлен перед {@link RunReportListener}: отчеты о задержках прогона
+ * пишутся раньше очистки и не содержат ее запросов.
+ */
+public class FixtureTeardownListener implements TestExecutionListener {
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan) {
+        Map<String, Object> summary = Fixtures.teardown();
+        if (summary.isEmpty()) {
+            return;
+        }
+        try {
+            Files.createDirectories(RunReportListener.reportsDir());
+            Files.writeString(RunReportListener.reportsDir().resolve("fixtures.json"), Json.write(summary));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.auto.tests.support;
+
+import com.auto.tests.model.Pet;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Общие сущности прогона. Тест объявляет нужную сущность вызовом, например {@link #availablePet()}:
+ * она создается один раз на JVM при первом обращении из любого класса (остальные потоки ждут того же результата).
+ * Все созданные идентификаторы, в том числе зарегистрированные тестами через track*, удаляются одним
+ * параллельным проходом после прогона ({@link FixtureTeardownListener}), а не в замеряемых тестах.
+ */
+public final class Fixtures {
+
+    private static final int TEARDOWN_CONCURRENCY = Integer.getInteger("petstore.fixtures.teardownConcurrency", 16);
+
+    private static final ConcurrentMap<String, FutureTask<Object>> SHARED = new ConcurrentHashMap<>();
+    private static final Set<Cleanup> CLEANUP = ConcurrentHashMap.newKeySet();
+
+    private Fixtures() {
+    }
+
+    // Питомец в статусе available для проверок чтения и заказов
+    public static Pet availablePet() {
+        return shared("pet:available", () -> createPet(
+                Pet.builder().id(RunIds.nextId()).name("Barbos").status("available").build()));
+    }
+
+    public static Pet createPet(Pet pet) {
+        trackPet(pet.id());
+        given()
+                .header("Content-Type", "application/json")
+                .body(pet.toJson())
+                .when()
+                .post("/pet")
+                .then()
+                .statusCode(200);
+        return pet;
+    }
+
+    public static void trackPet(long petId) {
+        CLEANUP.add(new Cleanup("/pet/{petId}", petId));
+    }
+
+    public static void trackOrder(long orderId) {
+        CLEANUP.add(new Cleanup("/store/order/{orderId}", orderId));
+    }
+
+    public static void trackUser(String username) {
+        CLEANUP.add(new Cleanup("/user/{username}", username));
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> T shared(String key, Supplier<T> factory) {
+        FutureTask<Object> task = new FutureTask<>(factory::get);
+        FutureTask<Object> existing = SHARED.putIfAbsent(key, task);
+        if (existing == null) {
+            existing = task;
+            task.run();
+        }
+        try {
+            return (T) existing.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Прервано ожидание фикстуры " + key, e);
+        } catch (ExecutionException e) {
+            // неудачную попытку не кэшируем: следующий тест попробует создать сущность заново
+            SHARED.remove(key, existing);
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Удаляет все зарегистрированные сущности параллельно (не больше petstore.fixtures.teardownConcurrency запросов
+     * одновременно). Уже удаленные тестами сущности дают 404, это не ошибка. Возвращает сводку для отчета:
+     * deleted - удалено (200), alreadyGone - уже не было (404), failed - остальные ответы и ошибки запроса.
+     */
+    public static Map<String, Object> teardown() {
+        if (CLEANUP.isEmpty()) {
+            return Map.of();
+        }
+        long start = System.nanoTime();
+        Semaphore inFlight = new Semaphore(TEARDOWN_CONCURRENCY);
+        LongAdder deleted = new LongAdder();
+        LongAdder alreadyGone = new LongAdder();
+        LongAdder failed = new LongAdder();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Cleanup cleanup : CLEANUP) {
+                inFlight.acquireUninterruptibly();
+                executor.execute(() -> {
+                    try {
+                        int status = given().when().delete(cleanup.path(), cleanup.id()).statusCode();
+                        switch (status) {
+                            case 200 -> deleted.increment();
+                            case 404 -> alreadyGone.increment();
+                            default -> failed.increment();
+                        }
+                    } catch (RuntimeException e) {
+                        failed.increment();
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        CLEANUP.clear();
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("deleted", deleted.sum());
+        summary.put("alreadyGone", alreadyGone.sum());
+        summary.put("failed", failed.sum());
+        summary.put("millis", (System.nanoTime() - start) / 1_000_000);
+        System.out.println("Удаление фикстур: " + summary);
+        return summary;
+    }
+
+    private record Cleanup(String path, Object id) {
+    }
+}
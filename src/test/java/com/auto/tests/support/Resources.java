@@ -0,0 +1,15 @@
+package com.auto.tests.support;
+
+/**
+ * Ключи {@link org.junit.jupiter.api.parallel.ResourceLock} для параллельного прогона.
+ * Отдельные сущности не пересекаются благодаря {@link RunIds}, блокируются только общие выборки
+ * (инвентарь, поиск по статусу) против изменений соответствующей коллекции и сессия пользователя.
+ */
+public final class Resources {
+
+    public static final String PETS = "petstore.pets";
+    public static final String USER_SESSION = "petstore.user.session";
+
+    private Resources() {
+    }
+}
@@ -0,0 +1,62 @@
+package com.auto.tests.support;
+
+import com.auto.tests.metrics.StartupTiming;
+import com.auto.tests.metrics.TimedHttpClientFactory;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.path.json.JsonPath;
+import org.junit.platform.launcher.LauncherSession;
+import org.junit.platform.launcher.LauncherSessionListener;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
+
+/**
+ * Прогрев RestAssured один раз на JVM: пока JUnit ищет тесты и поднимает стенд, фоновый поток без сети
+ * проверяет готовый ответ теми же средствами, что и тесты - Groovy-разбор JSON и GPath, матчеры Hamcrest,
+ * сборка спецификации запроса и HTTP-клиента. Первый тест не платит за загрузку и компиляцию этих классов.
+ * Прогрев нужен, когда для фонового потока есть свободное ядро: на одном ядре он отнимает процессор у
+ * запуска тестов и первый ответ приходит позже, поэтому по умолчанию включен только при нескольких ядрах.
+ * -Ppetstore.warmup=true/false включает и выключает его явно для сравнения времени до первого запроса (startup.json).
+ */
+public class RestAssuredWarmup implements LauncherSessionListener {
+
+    static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("petstore.warmup",
+            String.valueOf(Runtime.getRuntime().availableProcessors() > 1)));
+
+    private static final String BODY = "{\"id\":1,\"name\":\"warmup\",\"status\":\"available\","
+            + "\"category\":{\"id\":1,\"name\":\"dogs\"},\"tags\":[{\"id\":1,\"name\":\"warmup\"}]}";
+
+    @Override
+    public void launcherSessionOpened(LauncherSession session) {
+        StartupTiming.mark("launcherSession");
+        if (!ENABLED) {
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            long start = System.nanoTime();
+            run();
+            StartupTiming.warmup(System.nanoTime() - start);
+        }, "restassured-warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /** Прогрев в текущем потоке; ошибка прогрева не ломает прогон - тесты просто стартуют холодными. */
+    static boolean run() {
+        try {
+            new ResponseBuilder().setStatusCode(200).setContentType("application/json").setBody(BODY).build()
+                    .then()
+                    .statusCode(200)
+                    .body("id", equalTo(1))
+                    .body("tags.name", hasItem("warmup"));
+            JsonPath.from(BODY).getString("category.name");
+            new RequestSpecBuilder().setBaseUri("http://localhost/v2").addHeader("api_key", "warmup").build();
+            new TimedHttpClientFactory().createHttpClient();
+            return true;
+        } catch (RuntimeException | LinkageError e) {
+            System.err.println("Прогрев RestAssured не удался: " + e);
+            return false;
+        }
+    }
+}
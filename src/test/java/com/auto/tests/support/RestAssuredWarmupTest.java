@@ -0,0 +1,18 @@
+package com.auto.tests.support;
+
+import com.auto.tests.metrics.StartupTiming;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class RestAssuredWarmupTest {
+
+    @Test
+    @DisplayName("Прогрев проходит без сети, отчет о старте знает, с каким архивом CDS запущена JVM")
+    public void testWarmupWithoutNetwork() {
+        assertThat(RestAssuredWarmup.run(), equalTo(true));
+        assertThat(StartupTiming.snapshot(), hasKey("cdsArchive"));
+    }
+}
@@ -0,0 +1,73 @@
+package com.auto.tests.support;
+
+import java.security.SecureRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Выдает идентификаторы сущностей, уникальные в пределах прогона.
+ * База прогона случайна, поэтому параллельные прогоны (в том числе на общем сервере) не пересекаются,
+ * а каждый поток берет себе блок номеров и дальше выдает их без синхронизации.
+ * При записи и воспроизведении кассеты (petstore.cassette) номера детерминированы: база берется из
+ * petstore.runSeed, а счетчик ведется отдельно для каждого вызывающего класса, чтобы номера не зависели
+ * от порядка запуска классов. Класс получает свой диапазон по хэшу имени; совпадение диапазонов двух классов
+ * и выход класса за свой диапазон - ошибка, а не тихое пересечение номеров.
+ */
+public final class RunIds {
+
+    private static final int BLOCK_SIZE = 1_000;
+    static final long CLASS_SLOTS = 1L << 24;
+    static final long CLASS_RANGE = 100_000L;
+
+    // Значения держим в диапазоне (2^31, 2^53): больше int и без потери точности в JSON
+    private static final boolean DETERMINISTIC = !"off".equals(System.getProperty("petstore.cassette", "off"));
+    private static final long RUN_BASE = 1_000_000_000_000L + 1_000_000L * (DETERMINISTIC
+            ? Long.getLong("petstore.runSeed", 1L)
+            : new SecureRandom().nextLong(8_000_000_000L));
+    private static final String RUN_TAG = Long.toString(RUN_BASE / 1_000_000L, 36);
+    private static final AtomicLong NEXT_BLOCK = new AtomicLong();
+    private static final ThreadLocal<long[]> RANGE = ThreadLocal.withInitial(() -> new long[]{0, 0});
+    private static final ConcurrentMap<String, AtomicLong> PER_CLASS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<Long, String> SLOT_OWNERS = new ConcurrentHashMap<>();
+    private static final StackWalker WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+    private RunIds() {
+    }
+
+    public static long nextId() {
+        if (DETERMINISTIC) {
+            return RUN_BASE + callerOffset(WALKER.getCallerClass().getName());
+        }
+        long[] range = RANGE.get();
+        if (range[0] == range[1]) {
+            long start = NEXT_BLOCK.getAndAdd(BLOCK_SIZE);
+            range[0] = start;
+            range[1] = start + BLOCK_SIZE;
+        }
+        return RUN_BASE + range[0]++;
+    }
+
+    public static String username(String prefix) {
+        long offset = DETERMINISTIC ? callerOffset(WALKER.getCallerClass().getName()) : nextId() - RUN_BASE;
+        return prefix + "_" + RUN_TAG + "_" + offset;
+    }
+
+    public static String runTag() {
+        return RUN_TAG;
+    }
+
+    static long callerOffset(String className) {
+        long slot = Integer.toUnsignedLong(className.hashCode()) % CLASS_SLOTS;
+        String owner = SLOT_OWNERS.putIfAbsent(slot, className);
+        if (owner != null && !owner.equals(className)) {
+            throw new IllegalStateException("Классы " + owner + " и " + className
+                    + " получили один диапазон номеров, переименуйте один из них");
+        }
+        long counter = PER_CLASS.computeIfAbsent(className, name -> new AtomicLong()).getAndIncrement();
+        if (counter >= CLASS_RANGE) {
+            throw new IllegalStateException("Класс " + className + " исчерпал свои " + CLASS_RANGE + " номеров");
+        }
+        return slot * CLASS_RANGE + counter;
+    }
+}
@@ -0,0 +1,26 @@
+package com.auto.tests.support;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class RunIdsTest {
+
+    @Test
+    @DisplayName("Номер класса стабилен и не выходит за его диапазон, совпадение диапазонов - ошибка")
+    public void testCallerOffsetsDoNotOverlap() {
+        long first = RunIds.callerOffset("ids.Aa");
+        assertThat(first % RunIds.CLASS_RANGE, equalTo(0L));
+        assertThat(RunIds.callerOffset("ids.Aa"), equalTo(first + 1));
+        // "Aa" и "BB" имеют одинаковый hashCode
+        assertThrows(IllegalStateException.class, () -> RunIds.callerOffset("ids.BB"));
+
+        for (long i = 2; i < RunIds.CLASS_RANGE; i++) {
+            RunIds.callerOffset("ids.Aa");
+        }
+        assertThrows(IllegalStateException.class, () -> RunIds.callerOffset("ids.Aa"));
+    }
+}
@@ -0,0 +1,40 @@
+package com.auto.tests.support;
+
+import com.auto.tests.metrics.ConnectionPoolMetrics;
+import com.auto.tests.metrics.LatencyRegistry;
+import com.auto.tests.metrics.StartupTiming;
+import com.auto.tests.ratelimit.RateLimitFilter;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestPlan;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+/**
+ * Пишет отчеты прогона в каталог petstore.reports.dir (рядом с отчетами Gradle) после завершения всех тестов.
+ */
+public class RunReportListener implements TestExecutionListener {
+
+    public static Path reportsDir() {
+        return Path.of(System.getProperty("petstore.reports.dir", "build/reports/petstore"));
+    }
+
+    @Override
+    public void testPlanExecutionStarted(TestPlan testPlan) {
+        StartupTiming.mark("testPlan");
+    }
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan) {
+        try {
+            Eventually.writeReport(reportsDir());
+            LatencyRegistry.writeReport(reportsDir());
+            ConnectionPoolMetrics.writeReport(reportsDir());
+            RateLimitFilter.writeReport(reportsDir());
+            StartupTiming.writeReport(reportsDir());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
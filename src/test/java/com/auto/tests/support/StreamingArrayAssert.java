@@ -0,0 +1,135 @@
+package com.auto.tests.support;
+
+import com.auto.tests.jfr.AssertionEvent;
+import com.auto.tests.json.JsonStreamReader;
+import com.auto.tests.json.JsonStreamReader.Token;
+import org.hamcrest.Matcher;
+import org.hamcrest.StringDescription;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Проверка JSON-массива объектов по мере чтения потока ответа: Hamcrest-матчеры применяются к полям
+ * каждого элемента, документ целиком в память не загружается. Падает на первом неподходящем элементе
+ * с его индексом. Вложенные объекты и массивы не разбираются и видны матчерам как {@link Nested}.
+ */
+public final class StreamingArrayAssert {
+
+    public enum Nested {
+        OBJECT, ARRAY
+    }
+
+    private static final Object ABSENT = new Object();
+
+    private final Map<String, Matcher<?>> fields = new LinkedHashMap<>();
+
+    private StreamingArrayAssert() {
+    }
+
+    public static StreamingArrayAssert eachElement() {
+        return new StreamingArrayAssert();
+    }
+
+    public StreamingArrayAssert field(String name, Matcher<?> matcher) {
+        fields.put(name, matcher);
+        return this;
+    }
+
+    /**
+     * Проверяет все элементы и возвращает их количество.
+     */
+    public long verify(InputStream body) {
+        AssertionEvent event = AssertionEvent.start("streamingArray", fields.keySet().toString());
+        long checked = 0;
+        try (JsonStreamReader reader = new JsonStreamReader(body)) {
+            checked = verify(reader);
+            return checked;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            event.finish(checked, checked > 0 || fields.isEmpty());
+        }
+    }
+
+    private long verify(JsonStreamReader reader) throws IOException {
+        reader.expect(Token.BEGIN_ARRAY);
+        Map<String, Object> element = new HashMap<>();
+        long index = 0;
+        while (reader.peek() != Token.END_ARRAY) {
+            if (reader.next() != Token.BEGIN_OBJECT) {
+                throw new AssertionError("Element [" + index + "] is not a JSON object");
+            }
+            element.clear();
+            while (reader.next() == Token.NAME) {
+                String name = reader.text();
+                if (fields.containsKey(name)) {
+                    element.put(name, readValue(reader));
+                } else {
+                    reader.skipValue();
+                }
+            }
+            check(index, element);
+            index++;
+        }
+        reader.expect(Token.END_ARRAY);
+        reader.expect(Token.END_DOCUMENT);
+        return index;
+    }
+
+    private void check(long index, Map<String, Object> element) {
+        for (Map.Entry<String, Matcher<?>> field : fields.entrySet()) {
+            Object value = element.getOrDefault(field.getKey(), ABSENT);
+            Object actual = value == ABSENT ? null : value;
+            Matcher<?> matcher = field.getValue();
+            if (!matcher.matches(actual)) {
+                StringDescription description = new StringDescription();
+                description.appendText("Element [" + index + "] field '" + field.getKey() + "'")
+                        .appendText(value == ABSENT ? " is absent" : "")
+                        .appendText("\nExpected: ").appendDescriptionOf(matcher)
+                        .appendText("\n     but: ");
+                matcher.describeMismatch(actual, description);
+                throw new AssertionError(description.toString());
+            }
+        }
+    }
+
+    private static Object readValue(JsonStreamReader reader) throws IOException {
+        switch (reader.peek()) {
+            case BEGIN_OBJECT -> {
+                reader.skipValue();
+                return Nested.OBJECT;
+            }
+            case BEGIN_ARRAY -> {
+                reader.skipValue();
+                return Nested.ARRAY;
+            }
+            default -> {
+            }
+        }
+        Token token = reader.next();
+        return switch (token) {
+            case STRING -> reader.text();
+            case BOOLEAN -> Boolean.valueOf(reader.text());
+            case NULL -> null;
+            case NUMBER -> number(reader.text());
+            default -> throw new IOException("Unexpected token " + token + " at character " + reader.position());
+        };
+    }
+
+    private static Number number(String text) {
+        if (text.indexOf('.') >= 0 || text.indexOf('e') >= 0 || text.indexOf('E') >= 0) {
+            return Double.parseDouble(text);
+        }
+        try {
+            return Long.parseLong(text);
+        } catch (NumberFormatException overflow) {
+            return new BigDecimal(text);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.auto.tests.support;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+import java.util.NoSuchElementException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class StreamingArrayAssertTest {
+
+    @Test
+    @DisplayName("Потоковая проверка проходит по всем элементам большого массива")
+    public void testLargeArray() {
+        long count = StreamingArrayAssert.eachElement()
+                .field("id", instanceOf(Long.class))
+                .field("status", equalTo("available"))
+                .field("tags", equalTo(StreamingArrayAssert.Nested.ARRAY))
+                .verify(pets(200_000, -1));
+
+        assertThat(count, equalTo(200_000L));
+    }
+
+    @Test
+    @DisplayName("Потоковая проверка падает на первом неподходящем элементе с его индексом")
+    public void testFailsOnFirstBadElement() {
+        AssertionError error = assertThrows(AssertionError.class, () -> StreamingArrayAssert.eachElement()
+                .field("status", equalTo("available"))
+                .verify(pets(1_000, 737)));
+
+        assertThat(error.getMessage(), containsString("Element [737] field 'status'"));
+        assertThat(error.getMessage(), containsString("\"sold\""));
+    }
+
+    @Test
+    @DisplayName("Отсутствующее поле и некорректный JSON обнаруживаются")
+    public void testAbsentFieldAndMalformedJson() {
+        AssertionError absent = assertThrows(AssertionError.class, () -> StreamingArrayAssert.eachElement()
+                .field("id", notNullValue())
+                .verify(stream("[{\"id\": 1}, {\"name\": \"x\"}]")));
+        assertThat(absent.getMessage(), containsString("Element [1] field 'id' is absent"));
+
+        assertThrows(RuntimeException.class, () -> StreamingArrayAssert.eachElement()
+                .verify(stream("[{\"id\": 1,}]")));
+    }
+
+    private static InputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Генерирует массив питомцев на лету, не держа документ в памяти
+    private static InputStream pets(int count, int soldIndex) {
+        return new SequenceInputStream(new Enumeration<>() {
+            private int next = -1;
+
+            @Override
+            public boolean hasMoreElements() {
+                return next <= count;
+            }
+
+            @Override
+            public InputStream nextElement() {
+                if (!hasMoreElements()) {
+                    throw new NoSuchElementException();
+                }
+                int i = next++;
+                if (i < 0) {
+                    return stream("[");
+                }
+                if (i == count) {
+                    return stream("]");
+                }
+                String status = i == soldIndex ? "sold" : "available";
+                return stream((i > 0 ? "," : "") + "{\"id\":" + (1_000_000_000_000L + i)
+                        + ",\"category\":{\"id\":1,\"name\":\"dogs\"},\"name\":\"pet " + i
+                        + "\",\"photoUrls\":[\"a\",\"b\"],\"tags\":[{\"id\":1}],\"status\":\"" + status + "\"}");
+            }
+        });
+    }
+}
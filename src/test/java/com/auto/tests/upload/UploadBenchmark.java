@@ -0,0 +1,205 @@
+package com.auto.tests.upload;
+
+import com.auto.tests.BaseClass;
+import com.auto.tests.json.Json;
+import com.auto.tests.metrics.ConnectionPoolMetrics;
+import com.auto.tests.metrics.LatencyHistogram;
+import com.auto.tests.metrics.LatencyRegistry;
+import com.auto.tests.model.Pet;
+import com.auto.tests.replay.CassetteFilter;
+import com.auto.tests.support.Fixtures;
+import com.auto.tests.support.RunIds;
+import com.auto.tests.support.RunReportListener;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Загрузка больших файлов в POST /pet/{petId}/uploadImage потоком: файл отображается в память
+ * ({@link MappedFileInputStream}) и уходит multipart-телом без загрузки в кучу. Для каждого размера -
+ * пропускная способность одной загрузки и суммарная при upload.concurrency одновременных загрузках,
+ * пик кучи над уровнем после GC и выделено памяти на одну загрузку. Если загрузка выделяет в куче больше
+ * upload.maxHeapShare от размера файла (от 16 МБ), файл где-то буферизуется целиком - прогон падает.
+ *
+ * <p>Параметры (системные свойства): upload.sizes ("1KB,64KB,1MB,16MB,100MB,500MB"), upload.file (загрузить
+ * этот файл вместо сгенерированных), upload.concurrency (1), upload.repeats (3), upload.dir (каталог
+ * сгенерированных файлов), upload.maxHeapShare (0.5).
+ */
+public final class UploadBenchmark {
+
+    private static final long CHECKED_FROM = 16L << 20;
+
+    private final int concurrency;
+    private final int repeats;
+    private final double maxHeapShare;
+    private final long petId = RunIds.nextId();
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    UploadBenchmark(int concurrency, int repeats, double maxHeapShare) {
+        this.concurrency = concurrency;
+        this.repeats = repeats;
+        this.maxHeapShare = maxHeapShare;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (BaseClass.CASSETTE != CassetteFilter.Mode.OFF) {
+            System.out.println("Загрузка файлов не пишется в кассету, запустите без petstore.cassette");
+            System.exit(1);
+        }
+        UploadBenchmark benchmark = new UploadBenchmark(
+                Integer.getInteger("upload.concurrency", 1),
+                Integer.getInteger("upload.repeats", 3),
+                Double.parseDouble(System.getProperty("upload.maxHeapShare", "0.5")));
+        Path dir = RunReportListener.reportsDir();
+        List<Path> files = new ArrayList<>();
+        String file = System.getProperty("upload.file", "");
+        if (!file.isEmpty()) {
+            files.add(Path.of(file));
+        } else {
+            Path filesDir = Path.of(System.getProperty("upload.dir", "build/upload-files"));
+            for (String size : System.getProperty("upload.sizes", "1KB,64KB,1MB,16MB,100MB,500MB").split(",")) {
+                files.add(UploadFiles.generate(filesDir, parseSize(size)));
+            }
+        }
+
+        BaseClass.globalSetup();
+        List<Map<String, Object>> results = new ArrayList<>();
+        try {
+            Fixtures.createPet(Pet.builder().id(benchmark.petId).name("Uploader").status("available").build());
+            for (Path path : files) {
+                results.add(benchmark.run(path));
+            }
+        } finally {
+            Fixtures.teardown();
+        }
+
+        Files.createDirectories(dir);
+        Files.writeString(dir.resolve("upload.json"), Json.write(results));
+        LatencyRegistry.writeReport(dir);
+        ConnectionPoolMetrics.writeReport(dir);
+        print(results);
+        List<Object> buffered = results.stream().filter(r -> Boolean.TRUE.equals(r.get("bufferedOnHeap")))
+                .map(r -> r.get("file")).toList();
+        long failed = results.stream().mapToLong(r -> (Long) r.get("failed")).sum();
+        if (!buffered.isEmpty()) {
+            System.out.printf("Загрузка выделяет в куче больше %.0f%% размера файла: %s%n", benchmark.maxHeapShare * 100, buffered);
+        }
+        System.out.printf("Ошибок загрузки: %d, отчеты: %s%n", failed, dir.toAbsolutePath());
+        System.exit(buffered.isEmpty() && failed == 0 ? 0 : 1);
+    }
+
+    Map<String, Object> run(Path file) throws IOException, InterruptedException, ExecutionException {
+        long size = Files.size(file);
+        LatencyHistogram durations = new LatencyHistogram();
+        LongAdder failed = new LongAdder();
+        AtomicLong maxAllocated = new AtomicLong();
+
+        System.gc();
+        long baseline = memory.getHeapMemoryUsage().getUsed();
+        AtomicLong peak = new AtomicLong(baseline);
+        Thread sampler = Thread.ofPlatform().daemon().name("heap-sampler").start(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                peak.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+
+        long start = System.nanoTime();
+        // платформенные потоки: выделение памяти считается по потоку, для виртуальных JDK его не ведет
+        try (ExecutorService workers = Executors.newFixedThreadPool(concurrency)) {
+            List<Future<?>> uploads = new ArrayList<>();
+            for (int i = 0; i < repeats * concurrency; i++) {
+                uploads.add(workers.submit(() -> {
+                    long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+                    long uploadStart = System.nanoTime();
+                    try (InputStream body = new MappedFileInputStream(file)) {
+                        int status = given()
+                                .multiPart("file", file.getFileName().toString(), body, "image/png")
+                                .when()
+                                .post("/pet/{petId}/uploadImage", petId)
+                                .statusCode();
+                        if (status != 200) {
+                            failed.increment();
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        failed.increment();
+                    }
+                    durations.record(System.nanoTime() - uploadStart);
+                    maxAllocated.accumulateAndGet(threads.getCurrentThreadAllocatedBytes() - allocatedBefore, Math::max);
+                }));
+            }
+            for (Future<?> upload : uploads) {
+                upload.get();
+            }
+        }
+        double wallSeconds = (System.nanoTime() - start) / 1e9;
+        sampler.interrupt();
+        sampler.join();
+
+        long uploads = durations.count();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("file", file.getFileName().toString());
+        result.put("bytes", size);
+        result.put("concurrency", concurrency);
+        result.put("uploads", uploads);
+        result.put("failed", failed.sum());
+        result.put("p50Ms", LatencyRegistry.millis(durations.percentile(50)));
+        result.put("maxMs", LatencyRegistry.millis(durations.max()));
+        result.put("uploadMBps", round(size / 1e6 / (durations.percentile(50) / 1e9)));
+        result.put("aggregateMBps", round(size * uploads / 1e6 / wallSeconds));
+        result.put("heapPeakOverBaselineMB", round((peak.get() - baseline) / 1e6));
+        result.put("allocatedPerUploadMB", round(maxAllocated.get() / 1e6));
+        result.put("bufferedOnHeap", size >= CHECKED_FROM && maxAllocated.get() > maxHeapShare * size);
+        return result;
+    }
+
+    static long parseSize(String text) {
+        String value = text.trim().toUpperCase(Locale.ROOT);
+        long multiplier = 1;
+        for (String[] unit : new String[][]{{"GB", "30"}, {"MB", "20"}, {"KB", "10"}, {"B", "0"}}) {
+            if (value.endsWith(unit[0])) {
+                multiplier = 1L << Integer.parseInt(unit[1]);
+                value = value.substring(0, value.length() - unit[0].length()).trim();
+                break;
+            }
+        }
+        return Long.parseLong(value) * multiplier;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    private static void print(List<Map<String, Object>> results) {
+        System.out.printf("%-26s %6s %8s %10s %10s %12s %12s %14s%n", "file", "uploads", "failed", "p50",
+                "MB/s", "aggr MB/s", "heap peak", "alloc/upload");
+        for (Map<String, Object> r : results) {
+            System.out.printf("%-26s %6s %8s %8sms %10s %12s %10sMB %12sMB%n", r.get("file"), r.get("uploads"),
+                    r.get("failed"), r.get("p50Ms"), r.get("uploadMBps"), r.get("aggregateMBps"),
+                    r.get("heapPeakOverBaselineMB"), r.get("allocatedPerUploadMB"));
+        }
+    }
+}
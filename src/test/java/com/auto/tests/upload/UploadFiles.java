@@ -0,0 +1,97 @@
+package com.auto.tests.upload;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+import java.util.zip.CRC32;
+
+/**
+ * Файлы для загрузки заданного размера: сигнатура PNG, IHDR, блоки IDAT со случайными данными и IEND
+ * с корректными CRC. Изображение не декодируется, но по структуре это PNG, а случайные данные не сжимаются
+ * по дороге. Пишутся кусками через один direct-буфер и переиспользуются между прогонами.
+ */
+final class UploadFiles {
+
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'};
+    private static final int CHUNK = 1 << 20;
+    private static final int OVERHEAD = 12;
+    private static final int FIXED = SIGNATURE.length + (OVERHEAD + 13) + OVERHEAD;
+
+    private UploadFiles() {
+    }
+
+    static Path generate(Path dir, long size) throws IOException {
+        Path file = dir.resolve("upload-" + size + ".png");
+        if (Files.exists(file) && Files.size(file) == size) {
+            return file;
+        }
+        Files.createDirectories(dir);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(CHUNK + OVERHEAD);
+        SplittableRandom random = new SplittableRandom(size);
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            if (size < FIXED + OVERHEAD) {
+                // меньше минимального PNG - просто сигнатура и случайный хвост
+                buffer.put(SIGNATURE, 0, (int) Math.min(size, SIGNATURE.length));
+                while (buffer.position() < size) {
+                    buffer.put((byte) random.nextInt());
+                }
+                write(out, buffer);
+                return file;
+            }
+            buffer.put(SIGNATURE);
+            ByteBuffer header = ByteBuffer.allocate(13).putInt(1).putInt(1).put((byte) 8).put((byte) 0)
+                    .put((byte) 0).put((byte) 0).put((byte) 0);
+            chunk(buffer, "IHDR", header.array(), 13);
+            write(out, buffer);
+            long left = size - FIXED;
+            byte[] data = new byte[(int) Math.min(CHUNK, Math.max(left - OVERHEAD, 0))];
+            while (left > 0) {
+                // остаток меньше заголовка блока нельзя оформить отдельным IDAT - добавляем его к текущему
+                int length = (int) Math.min(CHUNK, left - OVERHEAD);
+                if (left - OVERHEAD - length < OVERHEAD && left - OVERHEAD - length > 0) {
+                    length = (int) (left - OVERHEAD);
+                }
+                if (length > data.length) {
+                    data = new byte[length];
+                }
+                for (int i = 0; i < length; i += 8) {
+                    long bits = random.nextLong();
+                    for (int j = 0; j < 8 && i + j < length; j++) {
+                        data[i + j] = (byte) (bits >>> (j * 8));
+                    }
+                }
+                if (buffer.capacity() < length + OVERHEAD) {
+                    buffer = ByteBuffer.allocateDirect(length + OVERHEAD);
+                }
+                chunk(buffer, "IDAT", data, length);
+                write(out, buffer);
+                left -= length + OVERHEAD;
+            }
+            chunk(buffer, "IEND", new byte[0], 0);
+            write(out, buffer);
+        }
+        return file;
+    }
+
+    private static void chunk(ByteBuffer buffer, String type, byte[] data, int length) {
+        byte[] name = type.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(name);
+        crc.update(data, 0, length);
+        buffer.putInt(length).put(name).put(data, 0, length).putInt((int) crc.getValue());
+    }
+
+    private static void write(FileChannel out, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,41 @@
+package com.auto.tests.upload;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class UploadFilesTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("Сгенерированный PNG ровно заданного размера читается через отображение в память без искажений")
+    public void testGeneratedFileReadsBackThroughMapping() throws Exception {
+        for (long size : new long[]{10, 45, 57, 1_000, (3L << 20) + 5}) {
+            Path file = UploadFiles.generate(dir, size);
+            byte[] expected = Files.readAllBytes(file);
+            assertThat(expected.length, equalTo((int) size));
+
+            byte[] actual;
+            try (InputStream in = new MappedFileInputStream(file)) {
+                actual = in.readAllBytes();
+            }
+            assertThat(Arrays.equals(actual, expected), is(true));
+            if (size >= 57) {
+                assertThat(new String(expected, 1, 3), equalTo("PNG"));
+                assertThat(new String(expected, expected.length - 8, 4), equalTo("IEND"));
+            }
+        }
+        assertThat(UploadBenchmark.parseSize("64KB"), equalTo(65_536L));
+        assertThat(UploadBenchmark.parseSize("500MB"), equalTo(500L << 20));
+    }
+}